@@ -0,0 +1,279 @@
+package redis.clients.jedis;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import redis.clients.jedis.executors.*;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.providers.*;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Non-blocking counterpart of {@link UnifiedJedis}. Every command returns a
+ * {@link CompletableFuture} which is completed on a small set of I/O threads.
+ * <p>
+ * With a {@link MultiplexedConnectionProvider}, commands are queued on one shared connection, so
+ * any number of them can be in flight. With any other provider, each command in flight holds one of
+ * the I/O threads while it waits for its reply (see {@link ThreadOffloadAsyncCommandExecutor}), so
+ * at most {@code ioThreads} commands are in flight.
+ * <p>
+ * Commands without a dedicated method here can be sent with
+ * {@link #executeCommandAsync(CommandObject)} using {@link #getCommandObjects()}.
+ */
+public class AsyncUnifiedJedis implements AutoCloseable {
+
+  public static final int DEFAULT_IO_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+  protected final AsyncCommandExecutor executor;
+  private final CommandObjects commandObjects;
+
+  public AsyncUnifiedJedis(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(new MultiplexedConnectionProvider(hostAndPort, clientConfig));
+  }
+
+  public AsyncUnifiedJedis(MultiplexedConnectionProvider provider) {
+    this(provider, DEFAULT_IO_THREADS);
+  }
+
+  public AsyncUnifiedJedis(MultiplexedConnectionProvider provider, int ioThreads) {
+    this(new MultiplexedAsyncCommandExecutor(provider, newIoExecutor(ioThreads)), new CommandObjects());
+  }
+
+  public AsyncUnifiedJedis(ConnectionProvider provider) {
+    this(provider, DEFAULT_IO_THREADS);
+  }
+
+  public AsyncUnifiedJedis(ConnectionProvider provider, int ioThreads) {
+    this(new ThreadOffloadAsyncCommandExecutor(new DefaultCommandExecutor(provider),
+        newIoExecutor(ioThreads)), new CommandObjects());
+  }
+
+  public AsyncUnifiedJedis(ConnectionProvider provider, int maxAttempts,
+      Duration maxTotalRetriesDuration, int ioThreads) {
+    this(new ThreadOffloadAsyncCommandExecutor(new RetryableCommandExecutor(provider, maxAttempts,
+        maxTotalRetriesDuration), newIoExecutor(ioThreads)), new CommandObjects());
+  }
+
+  public AsyncUnifiedJedis(ClusterConnectionProvider provider, int maxAttempts,
+      Duration maxTotalRetriesDuration) {
+    this(provider, maxAttempts, maxTotalRetriesDuration, DEFAULT_IO_THREADS);
+  }
+
+  public AsyncUnifiedJedis(ClusterConnectionProvider provider, int maxAttempts,
+      Duration maxTotalRetriesDuration, int ioThreads) {
+    this(new ThreadOffloadAsyncCommandExecutor(new ClusterCommandExecutor(provider, maxAttempts,
+        maxTotalRetriesDuration), newIoExecutor(ioThreads)), new ClusterCommandObjects());
+  }
+
+  public AsyncUnifiedJedis(ShardedConnectionProvider provider) {
+    this(provider, null, DEFAULT_IO_THREADS);
+  }
+
+  public AsyncUnifiedJedis(ShardedConnectionProvider provider, Pattern tagPattern, int ioThreads) {
+    this(new ThreadOffloadAsyncCommandExecutor(new DefaultCommandExecutor(provider),
+        newIoExecutor(ioThreads)), new ShardedCommandObjects(provider.getHashingAlgo(), tagPattern));
+  }
+
+  public AsyncUnifiedJedis(AsyncCommandExecutor executor, CommandObjects commandObjects) {
+    this.executor = executor;
+    this.commandObjects = commandObjects;
+  }
+
+  private static ExecutorService newIoExecutor(int ioThreads) {
+    final AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(ioThreads, runnable -> {
+      Thread thread = new Thread(runnable, "jedis-async-io-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(this.executor);
+  }
+
+  public final CommandObjects getCommandObjects() {
+    return commandObjects;
+  }
+
+  public final <T> CompletableFuture<T> executeCommandAsync(CommandObject<T> commandObject) {
+    return executor.executeCommandAsync(commandObject);
+  }
+
+  // Key commands
+  public CompletableFuture<Boolean> exists(String key) {
+    return executeCommandAsync(commandObjects.exists(key));
+  }
+
+  public CompletableFuture<Long> exists(String... keys) {
+    return executeCommandAsync(commandObjects.exists(keys));
+  }
+
+  public CompletableFuture<Long> del(String key) {
+    return executeCommandAsync(commandObjects.del(key));
+  }
+
+  public CompletableFuture<Long> del(String... keys) {
+    return executeCommandAsync(commandObjects.del(keys));
+  }
+
+  public CompletableFuture<Long> del(byte[] key) {
+    return executeCommandAsync(commandObjects.del(key));
+  }
+
+  public CompletableFuture<Long> expire(String key, long seconds) {
+    return executeCommandAsync(commandObjects.expire(key, seconds));
+  }
+
+  public CompletableFuture<Long> ttl(String key) {
+    return executeCommandAsync(commandObjects.ttl(key));
+  }
+  // Key commands
+
+  // String commands
+  public CompletableFuture<String> set(String key, String value) {
+    return executeCommandAsync(commandObjects.set(key, value));
+  }
+
+  public CompletableFuture<String> set(String key, String value, SetParams params) {
+    return executeCommandAsync(commandObjects.set(key, value, params));
+  }
+
+  public CompletableFuture<String> get(String key) {
+    return executeCommandAsync(commandObjects.get(key));
+  }
+
+  public CompletableFuture<String> set(byte[] key, byte[] value) {
+    return executeCommandAsync(commandObjects.set(key, value));
+  }
+
+  public CompletableFuture<String> set(byte[] key, byte[] value, SetParams params) {
+    return executeCommandAsync(commandObjects.set(key, value, params));
+  }
+
+  public CompletableFuture<byte[]> get(byte[] key) {
+    return executeCommandAsync(commandObjects.get(key));
+  }
+
+  public CompletableFuture<List<String>> mget(String... keys) {
+    return executeCommandAsync(commandObjects.mget(keys));
+  }
+
+  public CompletableFuture<String> mset(String... keysvalues) {
+    return executeCommandAsync(commandObjects.mset(keysvalues));
+  }
+
+  public CompletableFuture<Long> incr(String key) {
+    return executeCommandAsync(commandObjects.incr(key));
+  }
+
+  public CompletableFuture<Long> incrBy(String key, long increment) {
+    return executeCommandAsync(commandObjects.incrBy(key, increment));
+  }
+
+  public CompletableFuture<Long> decr(String key) {
+    return executeCommandAsync(commandObjects.decr(key));
+  }
+  // String commands
+
+  // List commands
+  public CompletableFuture<Long> rpush(String key, String... strings) {
+    return executeCommandAsync(commandObjects.rpush(key, strings));
+  }
+
+  public CompletableFuture<Long> lpush(String key, String... strings) {
+    return executeCommandAsync(commandObjects.lpush(key, strings));
+  }
+
+  public CompletableFuture<List<String>> lrange(String key, long start, long stop) {
+    return executeCommandAsync(commandObjects.lrange(key, start, stop));
+  }
+
+  public CompletableFuture<String> lpop(String key) {
+    return executeCommandAsync(commandObjects.lpop(key));
+  }
+
+  public CompletableFuture<String> rpop(String key) {
+    return executeCommandAsync(commandObjects.rpop(key));
+  }
+  // List commands
+
+  // Hash commands
+  public CompletableFuture<Long> hset(String key, String field, String value) {
+    return executeCommandAsync(commandObjects.hset(key, field, value));
+  }
+
+  public CompletableFuture<Long> hset(String key, Map<String, String> hash) {
+    return executeCommandAsync(commandObjects.hset(key, hash));
+  }
+
+  public CompletableFuture<String> hget(String key, String field) {
+    return executeCommandAsync(commandObjects.hget(key, field));
+  }
+
+  public CompletableFuture<Long> hdel(String key, String... field) {
+    return executeCommandAsync(commandObjects.hdel(key, field));
+  }
+
+  public CompletableFuture<Map<String, String>> hgetAll(String key) {
+    return executeCommandAsync(commandObjects.hgetAll(key));
+  }
+  // Hash commands
+
+  // Set commands
+  public CompletableFuture<Long> sadd(String key, String... members) {
+    return executeCommandAsync(commandObjects.sadd(key, members));
+  }
+
+  public CompletableFuture<Long> srem(String key, String... members) {
+    return executeCommandAsync(commandObjects.srem(key, members));
+  }
+
+  public CompletableFuture<Set<String>> smembers(String key) {
+    return executeCommandAsync(commandObjects.smembers(key));
+  }
+
+  public CompletableFuture<Boolean> sismember(String key, String member) {
+    return executeCommandAsync(commandObjects.sismember(key, member));
+  }
+  // Set commands
+
+  // Sorted Set commands
+  public CompletableFuture<Long> zadd(String key, double score, String member) {
+    return executeCommandAsync(commandObjects.zadd(key, score, member));
+  }
+
+  public CompletableFuture<Long> zadd(String key, Map<String, Double> scoreMembers) {
+    return executeCommandAsync(commandObjects.zadd(key, scoreMembers));
+  }
+
+  public CompletableFuture<Double> zincrby(String key, double increment, String member) {
+    return executeCommandAsync(commandObjects.zincrby(key, increment, member));
+  }
+
+  public CompletableFuture<Long> zrem(String key, String... members) {
+    return executeCommandAsync(commandObjects.zrem(key, members));
+  }
+
+  public CompletableFuture<Double> zscore(String key, String member) {
+    return executeCommandAsync(commandObjects.zscore(key, member));
+  }
+
+  public CompletableFuture<List<String>> zrange(String key, long start, long stop) {
+    return executeCommandAsync(commandObjects.zrange(key, start, stop));
+  }
+
+  public CompletableFuture<List<Tuple>> zrangeWithScores(String key, long start, long stop) {
+    return executeCommandAsync(commandObjects.zrangeWithScores(key, start, stop));
+  }
+  // Sorted Set commands
+}
@@ -0,0 +1,77 @@
+package redis.clients.jedis;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sizes of the batches a {@link MultiplexedConnection} has written and flushed together.
+ */
+public final class BatchMetrics {
+
+  private static final int BUCKETS = 32;
+
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong commands = new AtomicLong();
+  private final AtomicLong maxBatchSize = new AtomicLong();
+  private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+  BatchMetrics() {
+  }
+
+  void record(int batchSize) {
+    batches.incrementAndGet();
+    commands.addAndGet(batchSize);
+    histogram.incrementAndGet(BUCKETS - 1 - Integer.numberOfLeadingZeros(batchSize));
+    long max;
+    while ((max = maxBatchSize.get()) < batchSize) {
+      if (maxBatchSize.compareAndSet(max, batchSize)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return number of flushed batches
+   */
+  public long getBatchCount() {
+    return batches.get();
+  }
+
+  /**
+   * @return number of commands in all flushed batches
+   */
+  public long getCommandCount() {
+    return commands.get();
+  }
+
+  public long getMaxBatchSize() {
+    return maxBatchSize.get();
+  }
+
+  public double getAverageBatchSize() {
+    final long count = batches.get();
+    return count == 0 ? 0 : (double) commands.get() / count;
+  }
+
+  /**
+   * @return number of batches by size; element {@code i} counts the batches of
+   * {@code 2^i} to {@code 2^(i+1) - 1} commands. Trailing empty buckets are left out.
+   */
+  public long[] getBatchSizeHistogram() {
+    int length = BUCKETS;
+    while (length > 0 && histogram.get(length - 1) == 0) {
+      length--;
+    }
+    long[] snapshot = new long[length];
+    for (int i = 0; i < length; i++) {
+      snapshot[i] = histogram.get(i);
+    }
+    return snapshot;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchMetrics{batches=" + getBatchCount() + ", commands=" + getCommandCount()
+        + ", maxBatchSize=" + getMaxBatchSize() + "}";
+  }
+}
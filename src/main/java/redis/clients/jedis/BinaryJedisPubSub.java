@@ -101,7 +101,7 @@ public abstract class BinaryJedisPubSub {
 
   private void process() {
     do {
-      List<Object> reply = client.getUnflushedObjectMultiBulkReply();
+      List<Object> reply = client.getUnflushedPubSubReply();
       final Object firstObj = reply.get(0);
       if (!(firstObj instanceof byte[])) {
         throw new JedisException("Unknown message type: " + firstObj);
@@ -1,6 +1,20 @@
 package redis.clients.jedis;
 
+import redis.clients.jedis.util.RedisInputStream;
+
 public abstract class Builder<T> {
 
   public abstract T build(Object data);
+
+  /**
+   * Reads one reply straight from the stream. By default the reply is parsed with
+   * {@link Protocol#read(RedisInputStream)} and passed to {@link #build(Object)}; builders may
+   * override this to skip the intermediate objects.
+   * <p>
+   * Error replies must be thrown as {@link redis.clients.jedis.exceptions.JedisDataException}
+   * after the whole reply is consumed.
+   */
+  public T decode(RedisInputStream is) {
+    return build(Protocol.read(is));
+  }
 }
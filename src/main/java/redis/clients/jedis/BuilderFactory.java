@@ -1,11 +1,18 @@
 package redis.clients.jedis;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.resps.StreamConsumerFullInfo;
 import redis.clients.jedis.resps.StreamFullInfo;
@@ -19,6 +26,7 @@ import redis.clients.jedis.timeseries.TSElement;
 import redis.clients.jedis.timeseries.TSKeyValue;
 import redis.clients.jedis.util.JedisByteHashMap;
 import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.SafeEncoder;
 
 public final class BuilderFactory {
@@ -75,6 +83,13 @@ public final class BuilderFactory {
     @Override
     public Map<String, Object> build(Object data) {
       final List list = (List) data;
+      if (isMapReply(list)) {
+        final Map<String, Object> map = new HashMap<>(list.size(), 1);
+        for (KeyValue kv : (List<KeyValue>) list) {
+          map.put(STRING.build(kv.getKey()), ENCODED_OBJECT.build(kv.getValue()));
+        }
+        return map;
+      }
       final Map<String, Object> map = new HashMap<>(list.size() / 2, 1);
       final Iterator iterator = list.iterator();
       while (iterator.hasNext()) {
@@ -90,6 +105,15 @@ public final class BuilderFactory {
       return (Long) data;
     }
 
+    @Override
+    public Long decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type == Protocol.COLON_BYTE) {
+        return is.readLongCrLf();
+      }
+      return build(Protocol.read(type, is));
+    }
+
     @Override
     public String toString() {
       return "Long";
@@ -117,6 +141,7 @@ public final class BuilderFactory {
   public static final Builder<Double> DOUBLE = new Builder<Double>() {
     @Override
     public Double build(Object data) {
+      if (data instanceof Double) return (Double) data; // RESP3
       String string = STRING.build(data);
       if (string == null) return null;
       try {
@@ -128,6 +153,16 @@ public final class BuilderFactory {
       }
     }
 
+    @Override
+    public Double decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type == Protocol.DOLLAR_BYTE) {
+        final int len = is.readIntCrLf();
+        return len == -1 ? null : is.readDoubleCrLf(len);
+      }
+      return build(Protocol.read(type, is));
+    }
+
     @Override
     public String toString() {
       return "Double";
@@ -141,9 +176,9 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
-      List<byte[]> values = (List<byte[]>) data;
+      List<Object> values = (List<Object>) data;
       List<Double> doubles = new ArrayList<>(values.size());
-      for (byte[] value : values) {
+      for (Object value : values) {
         doubles.add(DOUBLE.build(value));
       }
       return doubles;
@@ -159,6 +194,7 @@ public final class BuilderFactory {
     @Override
     public Boolean build(Object data) {
       if (data == null) return null;
+      if (data instanceof Boolean) return (Boolean) data; // RESP3
       return ((Long) data) == 1L;
     }
 
@@ -175,10 +211,10 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
-      List<Long> longs = (List<Long>) data;
-      List<Boolean> booleans = new ArrayList<>(longs.size());
-      for (Long value : longs) {
-        booleans.add(value == null ? null : value == 1L);
+      List<Object> values = (List<Object>) data;
+      List<Boolean> booleans = new ArrayList<>(values.size());
+      for (Object value : values) {
+        booleans.add(BOOLEAN.build(value));
       }
       return booleans;
     }
@@ -293,9 +329,23 @@ public final class BuilderFactory {
     @Override
     @SuppressWarnings("unchecked")
     public Map<byte[], byte[]> build(Object data) {
-      final List<byte[]> flatHash = (List<byte[]>) data;
+      final List<Object> list = (List<Object>) data;
       final Map<byte[], byte[]> hash = new JedisByteHashMap();
-      final Iterator<byte[]> iterator = flatHash.iterator();
+      if (isMapReply(list)) {
+        for (Object o : list) {
+          KeyValue<byte[], byte[]> kv = (KeyValue<byte[], byte[]>) o;
+          hash.put(kv.getKey(), kv.getValue());
+        }
+        return hash;
+      }
+      if (isPairsReply(list)) {
+        for (Object o : list) {
+          List<byte[]> pair = (List<byte[]>) o;
+          hash.put(pair.get(0), pair.get(1));
+        }
+        return hash;
+      }
+      final Iterator<byte[]> iterator = ((List<byte[]>) data).iterator();
       while (iterator.hasNext()) {
         hash.put(iterator.next(), iterator.next());
       }
@@ -315,6 +365,16 @@ public final class BuilderFactory {
       return data == null ? null : SafeEncoder.encode((byte[]) data);
     }
 
+    @Override
+    public String decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type == Protocol.DOLLAR_BYTE) {
+        final int len = is.readIntCrLf();
+        return len == -1 ? null : is.readStringCrLf(len);
+      }
+      return build(Protocol.read(type, is));
+    }
+
     @Override
     public String toString() {
       return "String";
@@ -341,6 +401,25 @@ public final class BuilderFactory {
       return result;
     }
 
+    @Override
+    public List<String> decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type != Protocol.ASTERISK_BYTE) {
+        return build(Protocol.read(type, is));
+      }
+      final int size = is.readIntCrLf();
+      if (size == -1) {
+        return null;
+      }
+      final ElementDecoder elements = new ElementDecoder(is);
+      final List<String> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        result.add(elements.decode(STRING));
+      }
+      elements.throwIfFailed();
+      return result;
+    }
+
     @Override
     public String toString() {
       return "List<String>";
@@ -378,6 +457,23 @@ public final class BuilderFactory {
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, String> build(Object data) {
+      final List<Object> list = (List<Object>) data;
+      if (isMapReply(list)) {
+        final Map<String, String> hash = new HashMap<>(list.size(), 1);
+        for (Object o : list) {
+          KeyValue<byte[], byte[]> kv = (KeyValue<byte[], byte[]>) o;
+          hash.put(SafeEncoder.encode(kv.getKey()), SafeEncoder.encode(kv.getValue()));
+        }
+        return hash;
+      }
+      if (isPairsReply(list)) {
+        final Map<String, String> hash = new HashMap<>(list.size(), 1);
+        for (Object o : list) {
+          List<byte[]> pair = (List<byte[]>) o;
+          hash.put(SafeEncoder.encode(pair.get(0)), SafeEncoder.encode(pair.get(1)));
+        }
+        return hash;
+      }
       final List<byte[]> flatHash = (List<byte[]>) data;
       final Map<String, String> hash = new HashMap<>(flatHash.size() / 2, 1);
       final Iterator<byte[]> iterator = flatHash.iterator();
@@ -388,6 +484,41 @@ public final class BuilderFactory {
       return hash;
     }
 
+    @Override
+    public Map<String, String> decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type == Protocol.PERCENT_BYTE) {
+        final int entries = is.readIntCrLf();
+        final ElementDecoder elements = new ElementDecoder(is);
+        final Map<String, String> hash = new HashMap<>(entries, 1);
+        for (int i = 0; i < entries; i++) {
+          hash.put(elements.decode(STRING), elements.decode(STRING));
+        }
+        elements.throwIfFailed();
+        return hash;
+      }
+      if (type != Protocol.ASTERISK_BYTE) {
+        return build(Protocol.read(type, is));
+      }
+      final int size = is.readIntCrLf();
+      final ElementDecoder elements = new ElementDecoder(is);
+      final Map<String, String> hash = new HashMap<>(Math.max(size, 0), 1);
+      int read = 0;
+      while (read < size) {
+        final byte elementType = is.readByte();
+        if (elementType == Protocol.ASTERISK_BYTE) { // RESP3 pair
+          is.readIntCrLf();
+          hash.put(elements.decode(STRING), elements.decode(STRING));
+          read++;
+        } else {
+          hash.put(elements.decode(elementType, STRING), elements.decode(STRING));
+          read += 2;
+        }
+      }
+      elements.throwIfFailed();
+      return hash;
+    }
+
     @Override
     public String toString() {
       return "Map<String, String>";
@@ -493,6 +624,9 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
+      if (isPairsReply((List<Object>) data)) {
+        return TUPLE_LIST_FROM_PAIRS.build(data);
+      }
       List<byte[]> l = (List<byte[]>) data;
       final List<Tuple> result = new ArrayList<>(l.size() / 2);
       Iterator<byte[]> iterator = l.iterator();
@@ -502,6 +636,34 @@ public final class BuilderFactory {
       return result;
     }
 
+    @Override
+    public List<Tuple> decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type != Protocol.ASTERISK_BYTE) {
+        return build(Protocol.read(type, is));
+      }
+      final int size = is.readIntCrLf();
+      if (size == -1) {
+        return null;
+      }
+      final ElementDecoder elements = new ElementDecoder(is);
+      final List<Tuple> result = new ArrayList<>(size);
+      int read = 0;
+      while (read < size) {
+        final byte elementType = is.readByte();
+        if (elementType == Protocol.ASTERISK_BYTE) { // RESP3 pair
+          is.readIntCrLf();
+          result.add(new Tuple(elements.decode(BINARY), elements.decode(DOUBLE)));
+          read++;
+        } else {
+          result.add(new Tuple(elements.decode(elementType, BINARY), elements.decode(DOUBLE)));
+          read += 2;
+        }
+      }
+      elements.throwIfFailed();
+      return result;
+    }
+
     @Override
     public String toString() {
       return "List<Tuple>";
@@ -515,6 +677,9 @@ public final class BuilderFactory {
       if (null == data) {
         return null;
       }
+      if (isPairsReply((List<Object>) data)) {
+        return new LinkedHashSet<>(TUPLE_LIST_FROM_PAIRS.build(data));
+      }
       List<byte[]> l = (List<byte[]>) data;
       final Set<Tuple> result = new LinkedHashSet<>(l.size() / 2, 1);
       Iterator<byte[]> iterator = l.iterator();
@@ -590,6 +755,16 @@ public final class BuilderFactory {
       }
       return new ScanResult<>(newcursor, results);
     }
+
+    @Override
+    public ScanResult<String> decode(RedisInputStream is) {
+      final byte type = is.readByte();
+      if (type != Protocol.ASTERISK_BYTE) {
+        return build(Protocol.read(type, is));
+      }
+      is.readIntCrLf(); // always 2
+      return new ScanResult<>(STRING.decode(is), STRING_LIST.decode(is));
+    }
   };
 
   public static final Builder<ScanResult<Map.Entry<String, String>>> HSCAN_RESPONSE
@@ -974,6 +1149,250 @@ public final class BuilderFactory {
     }
   };
 
+  // Bulk reply sinks -->
+
+  /**
+   * @return a builder which streams a bulk reply into {@code out} and returns the number of bytes
+   * written, or {@code null} for a nil reply
+   */
+  public static StreamingBuilder<Long> bulkReplyTo(final OutputStream out) {
+    return new StreamingBuilder<Long>() {
+      @Override
+      public Long decode(RedisInputStream is) {
+        long len = Protocol.readBulkReplyTo(is, out);
+        return len == -1 ? null : len;
+      }
+
+      @Override
+      public Long build(Object data) {
+        if (data == null || data instanceof Long) return (Long) data;
+        byte[] bytes = (byte[]) data;
+        try {
+          out.write(bytes);
+        } catch (IOException e) {
+          throw new JedisDataException("Could not write the reply.", e);
+        }
+        return (long) bytes.length;
+      }
+
+      @Override
+      public String toString() {
+        return "Long";
+      }
+    };
+  }
+
+  /**
+   * @return a builder which streams a bulk reply into a blocking {@code channel} and returns the
+   * number of bytes written, or {@code null} for a nil reply
+   */
+  public static StreamingBuilder<Long> bulkReplyTo(final WritableByteChannel channel) {
+    return new StreamingBuilder<Long>() {
+      @Override
+      public Long decode(RedisInputStream is) {
+        long len = Protocol.readBulkReplyTo(is, channel);
+        return len == -1 ? null : len;
+      }
+
+      @Override
+      public Long build(Object data) {
+        if (data == null || data instanceof Long) return (Long) data;
+        ByteBuffer bytes = ByteBuffer.wrap((byte[]) data);
+        try {
+          while (bytes.hasRemaining()) {
+            channel.write(bytes);
+          }
+        } catch (IOException e) {
+          throw new JedisDataException("Could not write the reply.", e);
+        }
+        return (long) bytes.capacity();
+      }
+
+      @Override
+      public String toString() {
+        return "Long";
+      }
+    };
+  }
+
+  /**
+   * @return a builder which copies a bulk reply into {@code buffer} and returns the number of bytes
+   * copied, or {@code null} for a nil reply
+   */
+  public static StreamingBuilder<Long> bulkReplyInto(final ByteBuffer buffer) {
+    return new StreamingBuilder<Long>() {
+      @Override
+      public Long decode(RedisInputStream is) {
+        long len = Protocol.readBulkReplyInto(is, buffer);
+        return len == -1 ? null : len;
+      }
+
+      @Override
+      public Long build(Object data) {
+        if (data == null || data instanceof Long) return (Long) data;
+        byte[] bytes = (byte[]) data;
+        if (buffer.remaining() < bytes.length) {
+          throw new JedisDataException("Reply of " + bytes.length
+              + " bytes does not fit in the buffer (" + buffer.remaining() + " bytes remaining).");
+        }
+        buffer.put(bytes);
+        return (long) bytes.length;
+      }
+
+      @Override
+      public String toString() {
+        return "Long";
+      }
+    };
+  }
+
+  // <-- Bulk reply sinks
+
+  // Reply visitors -->
+
+  /**
+   * Hands the elements of an array reply to {@link #visit(Object)} one at a time, as they are read
+   * from the stream, and returns the number of visited items.
+   */
+  private abstract static class ReplyVisitor extends StreamingBuilder<Long> {
+
+    protected long visited = 0;
+
+    protected abstract void visit(Object element);
+
+    /**
+     * Forgets the state of the previous reply, which a failure may have left half visited.
+     */
+    protected void reset() {
+      visited = 0;
+    }
+
+    @Override
+    public Long decode(RedisInputStream is) {
+      reset();
+      Protocol.readMultiBulkReply(is, this::visit);
+      return visited;
+    }
+
+    @Override
+    public Long build(Object data) {
+      if (data instanceof Long) return (Long) data;
+      reset();
+      for (Object element : (List<Object>) data) {
+        if (element instanceof KeyValue) { // RESP3 map
+          visit(((KeyValue) element).getKey());
+          visit(((KeyValue) element).getValue());
+        } else {
+          visit(element);
+        }
+      }
+      return visited;
+    }
+
+    @Override
+    public String toString() {
+      return "Long";
+    }
+  }
+
+  /**
+   * @return a builder which passes every element of an array reply to {@code consumer} as soon as it
+   * is read, and returns the number of elements
+   */
+  public static StreamingBuilder<Long> binaryListVisitor(final Consumer<byte[]> consumer) {
+    return new ReplyVisitor() {
+      @Override
+      protected void visit(Object element) {
+        consumer.accept(BINARY.build(element));
+        visited++;
+      }
+    };
+  }
+
+  /**
+   * @return a builder which passes every element of an array reply to {@code consumer} as soon as it
+   * is read, and returns the number of elements
+   */
+  public static StreamingBuilder<Long> stringListVisitor(final Consumer<String> consumer) {
+    return binaryListVisitor(element -> consumer.accept(STRING.build(element)));
+  }
+
+  /**
+   * @return a builder which passes every field and value of a hash reply to {@code consumer} as soon
+   * as they are read, and returns the number of fields
+   */
+  public static StreamingBuilder<Long> binaryMapVisitor(final BiConsumer<byte[], byte[]> consumer) {
+    return new ReplyVisitor() {
+      private byte[] field = null;
+      private boolean hasField = false;
+
+      @Override
+      protected void reset() {
+        super.reset();
+        field = null;
+        hasField = false;
+      }
+
+      @Override
+      protected void visit(Object element) {
+        if (!hasField) {
+          field = BINARY.build(element);
+          hasField = true;
+        } else {
+          consumer.accept(field, BINARY.build(element));
+          field = null;
+          hasField = false;
+          visited++;
+        }
+      }
+    };
+  }
+
+  /**
+   * @return a builder which passes every field and value of a hash reply to {@code consumer} as soon
+   * as they are read, and returns the number of fields
+   */
+  public static StreamingBuilder<Long> stringMapVisitor(final BiConsumer<String, String> consumer) {
+    return binaryMapVisitor((field, value) -> consumer.accept(STRING.build(field), STRING.build(value)));
+  }
+
+  /**
+   * @return a builder which passes every member of a sorted set reply with scores to
+   * {@code consumer} as soon as it is read, and returns the number of members
+   */
+  public static StreamingBuilder<Long> tupleVisitor(final Consumer<Tuple> consumer) {
+    return new ReplyVisitor() {
+      private byte[] member = null;
+      private boolean hasMember = false;
+
+      @Override
+      protected void reset() {
+        super.reset();
+        member = null;
+        hasMember = false;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      protected void visit(Object element) {
+        if (element instanceof List) { // RESP3 pair
+          consumer.accept(TUPLE.build(element));
+          visited++;
+        } else if (!hasMember) {
+          member = BINARY.build(element);
+          hasMember = true;
+        } else {
+          consumer.accept(new Tuple(member, DOUBLE.build(element)));
+          member = null;
+          hasMember = false;
+          visited++;
+        }
+      }
+    };
+  }
+
+  // <-- Reply visitors
+
   // Stream Builders -->
 
   public static final Builder<StreamEntryID> STREAM_ENTRY_ID = new Builder<StreamEntryID>() {
@@ -1132,10 +1551,18 @@ public final class BuilderFactory {
 
       List<Map.Entry<String, List<StreamEntry>>> result = new ArrayList<>(streams.size());
       for (Object streamObj : streams) {
-        List<Object> stream = (List<Object>) streamObj;
-        String streamId = SafeEncoder.encode((byte[]) stream.get(0));
-        List<StreamEntry> streamEntries = BuilderFactory.STREAM_ENTRY_LIST.build(stream.get(1));
-        result.add(new AbstractMap.SimpleEntry<>(streamId, streamEntries));
+        final Object streamKey;
+        final Object streamEntries;
+        if (streamObj instanceof KeyValue) { // RESP3 map
+          streamKey = ((KeyValue) streamObj).getKey();
+          streamEntries = ((KeyValue) streamObj).getValue();
+        } else {
+          List<Object> stream = (List<Object>) streamObj;
+          streamKey = stream.get(0);
+          streamEntries = stream.get(1);
+        }
+        result.add(new AbstractMap.SimpleEntry<>(SafeEncoder.encode((byte[]) streamKey),
+            BuilderFactory.STREAM_ENTRY_LIST.build(streamEntries)));
       }
 
       return result;
@@ -1453,17 +1880,78 @@ public final class BuilderFactory {
     }
   };
 
+  /**
+   * Decodes the elements of an aggregate reply. An error element is remembered, rather than thrown
+   * right away, so that the remaining elements are still consumed and the stream stays in sync.
+   */
+  private static class ElementDecoder {
+
+    private final RedisInputStream is;
+    private JedisDataException error = null;
+
+    private ElementDecoder(RedisInputStream is) {
+      this.is = is;
+    }
+
+    <T> T decode(Builder<T> builder) {
+      try {
+        return builder.decode(is);
+      } catch (JedisDataException e) {
+        if (error == null) error = e;
+        return null;
+      }
+    }
+
+    <T> T decode(byte type, Builder<T> builder) {
+      try {
+        return builder.build(Protocol.read(type, is));
+      } catch (JedisDataException e) {
+        if (error == null) error = e;
+        return null;
+      }
+    }
+
+    void throwIfFailed() {
+      if (error != null) throw error;
+    }
+  }
+
+  /**
+   * @return <code>true</code> if the reply is a RESP3 map, which is read as a list of
+   * {@link KeyValue}, rather than a RESP2 flat list of keys and values
+   */
+  private static boolean isMapReply(List<?> list) {
+    return !list.isEmpty() && list.get(0) instanceof KeyValue;
+  }
+
+  /**
+   * @return <code>true</code> if the reply is a RESP3 array of two element arrays (e.g. members
+   * with their scores) rather than a RESP2 flat list
+   */
+  private static boolean isPairsReply(List<?> list) {
+    return !list.isEmpty() && list.get(0) instanceof List;
+  }
+
   private static Map<String, Object> createMapFromDecodingFunctions(Iterator<Object> iterator,
       Map<String, Builder> mappingFunctions) {
 
     Map<String, Object> resultMap = new HashMap<>();
     while (iterator.hasNext()) {
 
-      String mapKey = STRING.build(iterator.next());
+      final Object next = iterator.next();
+      final String mapKey;
+      final Object mapValue;
+      if (next instanceof KeyValue) { // RESP3 map
+        mapKey = STRING.build(((KeyValue) next).getKey());
+        mapValue = ((KeyValue) next).getValue();
+      } else {
+        mapKey = STRING.build(next);
+        mapValue = iterator.next();
+      }
       if (mappingFunctions.containsKey(mapKey)) {
-        resultMap.put(mapKey, mappingFunctions.get(mapKey).build(iterator.next()));
+        resultMap.put(mapKey, mappingFunctions.get(mapKey).build(mapValue));
       } else { // For future - if we don't find an element in our builder map
-        Object unknownData = iterator.next();
+        Object unknownData = mapValue;
         for (Builder b : mappingFunctions.values()) {
           try {
             resultMap.put(mapKey, b.build(unknownData));
@@ -9,7 +9,7 @@ public class ClusterCommandArguments extends CommandArguments {
   private int commandHashSlot = -1;
 
   public ClusterCommandArguments(ProtocolCommand command) {
-    super(command);
+    super(command, true);
   }
 
   public int getCommandHashSlot() {
@@ -24,17 +24,6 @@ public class ClusterCommandArguments extends CommandArguments {
     } else if (commandHashSlot != hashSlot) {
       throw new JedisClusterOperationException("Keys must belong to same hashslot.");
     }
-    return this;
-  }
-
-  @Override
-  protected CommandArguments processKey(String key) {
-    final int hashSlot = JedisClusterCRC16.getSlot(key);
-    if (commandHashSlot < 0) {
-      commandHashSlot = hashSlot;
-    } else if (commandHashSlot != hashSlot) {
-      throw new JedisClusterOperationException("Keys must belong to same hashslot.");
-    }
-    return this;
+    return super.processKey(key);
   }
 }
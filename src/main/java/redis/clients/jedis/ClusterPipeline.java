@@ -2,6 +2,7 @@ package redis.clients.jedis;
 
 import java.util.Set;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
 
@@ -44,4 +45,14 @@ public class ClusterPipeline extends MultiNodePipelineBase {
   protected Connection getConnection(HostAndPort nodeKey) {
     return provider.getConnection(nodeKey);
   }
+
+  @Override
+  protected int getMaxRedirections() {
+    return JedisCluster.DEFAULT_MAX_ATTEMPTS;
+  }
+
+  @Override
+  protected void onMoved(JedisMovedDataException moved) {
+    provider.applyMoved(moved);
+  }
 }
@@ -0,0 +1,251 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.resps.ScanResult;
+
+/**
+ * Iterates the keys of all masters of a cluster, scanning up to {@code parallelism} masters at a
+ * time. Each master is scanned with its own {@code SCAN} cursor; batches are fetched ahead of the
+ * iteration and handed out as they arrive, so the keys of the masters are interleaved.
+ * <p>
+ * {@link #getCursor()} encodes the cursors of the masters that are not done yet into a single
+ * string, from which a new iterator resumes. As with {@code SCAN}, keys may be returned more than
+ * once, e.g. when resuming in the middle of a batch.
+ * <p>
+ * The iterator must be closed if it is not iterated to its end.
+ */
+public class ClusterScanIterator implements Iterator<String>, AutoCloseable {
+
+  /**
+   * The cursor to start a scan of all masters; also the cursor of a complete scan.
+   */
+  public static final String SCAN_POINTER_START = ScanParams.SCAN_POINTER_START;
+
+  private static final String NODE_SEPARATOR = ",";
+  private static final char CURSOR_SEPARATOR = '@';
+
+  private static final AtomicInteger EXECUTOR_COUNTER = new AtomicInteger();
+
+  private final ClusterConnectionProvider provider;
+  private final ScanParams params;
+  private final ExecutorService executor;
+  private final BlockingQueue<Batch> batches;
+
+  /**
+   * Cursors of the masters to continue from, up to the last batch that was handed out completely.
+   */
+  private final Map<HostAndPort, String> cursors;
+
+  private Batch current;
+  private int position;
+  private boolean closed;
+
+  /**
+   * @param cursor {@link #SCAN_POINTER_START}, or a cursor of {@link #getCursor()}
+   * @param params MATCH and COUNT of each {@code SCAN}; <code>null</code> - for none
+   * @param parallelism maximum number of masters scanned at the same time
+   */
+  public ClusterScanIterator(ClusterConnectionProvider provider, String cursor, ScanParams params,
+      int parallelism) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("parallelism must be positive.");
+    }
+    this.provider = provider;
+    this.params = params != null ? params : new ScanParams();
+    this.cursors = decodeCursor(provider, cursor);
+    this.batches = new ArrayBlockingQueue<>(2 * parallelism);
+
+    final int threads = Math.max(1, Math.min(parallelism, cursors.size()));
+    final int id = EXECUTOR_COUNTER.incrementAndGet();
+    this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger counter = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "jedis-cluster-scan-" + id + "-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+    for (Map.Entry<HostAndPort, String> entry : cursors.entrySet()) {
+      submit(entry.getKey(), entry.getValue());
+    }
+    if (cursors.isEmpty()) {
+      close();
+    }
+  }
+
+  public ClusterScanIterator(ClusterConnectionProvider provider, ScanParams params, int parallelism) {
+    this(provider, SCAN_POINTER_START, params, parallelism);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (current == null || position == current.keys.size()) {
+      if (current != null) {
+        advance(current);
+        current = null;
+      }
+      if (cursors.isEmpty()) {
+        close();
+        return false;
+      }
+      if (closed) {
+        throw new IllegalStateException("The iterator is closed.");
+      }
+      final Batch batch;
+      try {
+        batch = batches.take();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new JedisException(ie);
+      }
+      if (batch.failure != null) {
+        close();
+        throw batch.failure;
+      }
+      current = batch;
+      position = 0;
+    }
+    return true;
+  }
+
+  @Override
+  public String next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.keys.get(position++);
+  }
+
+  /**
+   * @return cursor to resume the scan from, with a new iterator; {@link #SCAN_POINTER_START} when
+   * the scan is complete. Keys of the batch being iterated are returned again on resume.
+   */
+  public String getCursor() {
+    if (cursors.isEmpty()) {
+      return SCAN_POINTER_START;
+    }
+    StringBuilder cursor = new StringBuilder();
+    for (Map.Entry<HostAndPort, String> entry : cursors.entrySet()) {
+      if (cursor.length() > 0) {
+        cursor.append(NODE_SEPARATOR);
+      }
+      cursor.append(entry.getKey()).append(CURSOR_SEPARATOR).append(entry.getValue());
+    }
+    return cursor.toString();
+  }
+
+  /**
+   * @return the remaining keys; closing the stream closes this iterator
+   */
+  public Stream<String> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+        Spliterator.NONNULL), false).onClose(this::close);
+  }
+
+  /**
+   * Stops scanning. Batches fetched ahead are discarded; {@link #getCursor()} still tells where to
+   * resume from.
+   */
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      executor.shutdownNow();
+    }
+  }
+
+  private void advance(Batch batch) {
+    if (SCAN_POINTER_START.equals(batch.cursor)) {
+      cursors.remove(batch.node);
+    } else {
+      cursors.put(batch.node, batch.cursor);
+    }
+  }
+
+  private void submit(HostAndPort node, String cursor) {
+    executor.execute(() -> scan(node, cursor));
+  }
+
+  private void scan(HostAndPort node, String cursor) {
+    Batch batch;
+    try (Connection connection = provider.getConnection(node)) {
+      ScanResult<String> result = connection.executeCommand(new CommandObject<>(
+          new CommandArguments(Protocol.Command.SCAN).add(cursor).addParams(params),
+          BuilderFactory.SCAN_RESPONSE));
+      batch = new Batch(node, result.getCursor(), result.getResult(), null);
+    } catch (JedisException je) {
+      batch = new Batch(node, cursor, Collections.emptyList(), je);
+    } catch (RuntimeException re) {
+      // without a batch, hasNext() would wait for this node forever
+      batch = new Batch(node, cursor, Collections.emptyList(), new JedisException(re));
+    }
+    try {
+      batches.put(batch);
+    } catch (InterruptedException ie) {
+      // closed
+      return;
+    }
+    if (batch.failure == null && !SCAN_POINTER_START.equals(batch.cursor)) {
+      submit(node, batch.cursor);
+    }
+  }
+
+  private static Map<HostAndPort, String> decodeCursor(ClusterConnectionProvider provider,
+      String cursor) {
+    Map<HostAndPort, String> cursors = new LinkedHashMap<>();
+    if (SCAN_POINTER_START.equals(cursor)) {
+      List<HostAndPort> masters = new ArrayList<>(provider.getMasterNodes());
+      masters.sort((a, b) -> a.toString().compareTo(b.toString()));
+      for (HostAndPort master : masters) {
+        cursors.put(master, SCAN_POINTER_START);
+      }
+      return cursors;
+    }
+    for (String nodeCursor : cursor.split(NODE_SEPARATOR)) {
+      final int separator = nodeCursor.lastIndexOf(CURSOR_SEPARATOR);
+      if (separator <= 0) {
+        throw new IllegalArgumentException("Invalid cluster scan cursor: " + cursor);
+      }
+      cursors.put(HostAndPort.from(nodeCursor.substring(0, separator)),
+          nodeCursor.substring(separator + 1));
+    }
+    return cursors;
+  }
+
+  private static class Batch {
+
+    private final HostAndPort node;
+    private final String cursor;
+    private final List<String> keys;
+    private final JedisException failure;
+
+    private Batch(HostAndPort node, String cursor, List<String> keys, JedisException failure) {
+      this.node = node;
+      this.cursor = cursor;
+      this.keys = keys;
+      this.failure = failure;
+    }
+  }
+}
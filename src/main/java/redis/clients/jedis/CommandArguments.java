@@ -2,11 +2,14 @@ package redis.clients.jedis;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import redis.clients.jedis.args.Rawable;
 import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.params.IParams;
+import redis.clients.jedis.util.SafeEncoder;
 
 public class CommandArguments implements Iterable<Rawable> {
 
@@ -14,13 +17,28 @@ public class CommandArguments implements Iterable<Rawable> {
 
   private boolean blocking;
 
+  private boolean retryable = true;
+
+  private final boolean keepKeys;
+  private byte[] firstKey;
+  private List<byte[]> otherKeys;
+
   private CommandArguments() {
     throw new InstantiationError();
   }
 
   public CommandArguments(ProtocolCommand command) {
+    this(command, false);
+  }
+
+  /**
+   * @param keepKeys whether to keep the keys for {@link #getKeys()}; a String key is then encoded
+   * once, and {@link #processKey(byte[])} sees the bytes which are sent
+   */
+  protected CommandArguments(ProtocolCommand command, boolean keepKeys) {
     args = new ArrayList<>();
     args.add(command);
+    this.keepKeys = keepKeys;
   }
 
   public ProtocolCommand getCommand() {
@@ -29,13 +47,22 @@ public class CommandArguments implements Iterable<Rawable> {
 
   public CommandArguments add(Object arg) {
     if (arg instanceof Rawable) {
+      if (arg instanceof RawableFactory.RawInputStream) {
+        // the stream can only be read once
+        notRetryable();
+      }
       args.add((Rawable) arg);
     } else if (arg instanceof byte[]) {
       args.add(RawableFactory.from((byte[]) arg));
     } else if (arg instanceof String) {
       args.add(RawableFactory.from((String) arg));
     } else if (arg instanceof Boolean) {
-      args.add(RawableFactory.from(Integer.toString((Boolean) arg ? 1 : 0)));
+      args.add(RawableFactory.from((boolean) (Boolean) arg));
+    } else if (arg instanceof Long || arg instanceof Integer || arg instanceof Short
+        || arg instanceof Byte) {
+      args.add(RawableFactory.from(((Number) arg).longValue()));
+    } else if (arg instanceof Double) {
+      args.add(RawableFactory.from((double) (Double) arg));
     } else {
       if (arg == null) {
         throw new IllegalArgumentException("null is not a valid argument.");
@@ -75,6 +102,10 @@ public class CommandArguments implements Iterable<Rawable> {
       byte[] raw = (byte[]) key;
       processKey(raw);
       args.add(RawableFactory.from(raw));
+    } else if (key instanceof String && keepKeys) {
+      byte[] raw = SafeEncoder.encode((String) key);
+      processKey(raw);
+      args.add(RawableFactory.from(raw));
     } else if (key instanceof String) {
       String raw = (String) key;
       processKey(raw);
@@ -98,7 +129,17 @@ public class CommandArguments implements Iterable<Rawable> {
   }
 
   protected CommandArguments processKey(byte[] key) {
-    // do nothing
+    if (!keepKeys) {
+      return this;
+    }
+    if (firstKey == null) {
+      firstKey = key;
+    } else {
+      if (otherKeys == null) {
+        otherKeys = new ArrayList<>();
+      }
+      otherKeys.add(key);
+    }
     return this;
   }
 
@@ -110,8 +151,7 @@ public class CommandArguments implements Iterable<Rawable> {
   }
 
   protected CommandArguments processKey(String key) {
-    // do nothing
-    return this;
+    return keepKeys ? processKey(SafeEncoder.encode(key)) : this;
   }
 
   protected final CommandArguments processKeys(String... keys) {
@@ -121,6 +161,22 @@ public class CommandArguments implements Iterable<Rawable> {
     return this;
   }
 
+  /**
+   * @return the keys of the command, encoded; empty unless the keys are kept
+   */
+  public List<byte[]> getKeys() {
+    if (firstKey == null) {
+      return Collections.emptyList();
+    }
+    if (otherKeys == null) {
+      return Collections.singletonList(firstKey);
+    }
+    List<byte[]> keys = new ArrayList<>(1 + otherKeys.size());
+    keys.add(firstKey);
+    keys.addAll(otherKeys);
+    return keys;
+  }
+
   public int size() {
     return args.size();
   }
@@ -138,4 +194,17 @@ public class CommandArguments implements Iterable<Rawable> {
     this.blocking = true;
     return this;
   }
+
+  public boolean isRetryable() {
+    return retryable;
+  }
+
+  /**
+   * Marks the command to be sent at most once: it is not sent again after a connection failure or
+   * a cluster redirection, e.g. because its reply is streamed to a sink as it is read.
+   */
+  public CommandArguments notRetryable() {
+    this.retryable = false;
+    return this;
+  }
 }
@@ -4,10 +4,15 @@ import static redis.clients.jedis.Protocol.Command.*;
 import static redis.clients.jedis.Protocol.Keyword.*;
 
 import com.google.gson.Gson;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -100,6 +105,26 @@ public class CommandObjects {
         .add(serializedValue).addParams(params), BuilderFactory.STRING);
   }
 
+  public final CommandObject<String> restore(String key, long ttl, Rawable serializedValue) {
+    return new CommandObject<>(commandArguments(RESTORE).key(key).add(ttl)
+        .add(serializedValue), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> restore(byte[] key, long ttl, Rawable serializedValue) {
+    return new CommandObject<>(commandArguments(RESTORE).key(key).add(ttl)
+        .add(serializedValue), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> restore(String key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return new CommandObject<>(commandArguments(RESTORE).key(key).add(ttl)
+        .add(serializedValue).addParams(params), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> restore(byte[] key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return new CommandObject<>(commandArguments(RESTORE).key(key).add(ttl)
+        .add(serializedValue).addParams(params), BuilderFactory.STRING);
+  }
+
   public final CommandObject<Long> expire(String key, long seconds) {
     return new CommandObject<>(commandArguments(EXPIRE).key(key).add(seconds), BuilderFactory.LONG);
   }
@@ -392,6 +417,22 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).addParams(params), BuilderFactory.STRING);
   }
 
+  public final CommandObject<String> set(String key, Rawable value) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> set(byte[] key, Rawable value) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> set(String key, Rawable value, SetParams params) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).addParams(params), BuilderFactory.STRING);
+  }
+
+  public final CommandObject<String> set(byte[] key, Rawable value, SetParams params) {
+    return new CommandObject<>(commandArguments(Command.SET).key(key).add(value).addParams(params), BuilderFactory.STRING);
+  }
+
   public final CommandObject<String> get(String key) {
     return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.STRING);
   }
@@ -408,6 +449,30 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(Command.GET).key(key), BuilderFactory.BINARY);
   }
 
+  public final CommandObject<Long> getTo(String key, OutputStream out) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyTo(out));
+  }
+
+  public final CommandObject<Long> getTo(byte[] key, OutputStream out) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyTo(out));
+  }
+
+  public final CommandObject<Long> getTo(String key, WritableByteChannel channel) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyTo(channel));
+  }
+
+  public final CommandObject<Long> getTo(byte[] key, WritableByteChannel channel) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyTo(channel));
+  }
+
+  public final CommandObject<Long> getInto(String key, ByteBuffer buffer) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyInto(buffer));
+  }
+
+  public final CommandObject<Long> getInto(byte[] key, ByteBuffer buffer) {
+    return new CommandObject<>(commandArguments(Command.GET).key(key).notRetryable(), BuilderFactory.bulkReplyInto(buffer));
+  }
+
   public final CommandObject<byte[]> getDel(byte[] key) {
     return new CommandObject<>(commandArguments(Command.GETDEL).key(key), BuilderFactory.BINARY);
   }
@@ -696,6 +761,16 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(LRANGE).key(key).add(start).add(stop), BuilderFactory.BINARY_LIST);
   }
 
+  public final CommandObject<Long> lrange(String key, long start, long stop, Consumer<String> consumer) {
+    return new CommandObject<>(commandArguments(LRANGE).key(key).add(start).add(stop).notRetryable(),
+        BuilderFactory.stringListVisitor(consumer));
+  }
+
+  public final CommandObject<Long> lrange(byte[] key, long start, long stop, Consumer<byte[]> consumer) {
+    return new CommandObject<>(commandArguments(LRANGE).key(key).add(start).add(stop).notRetryable(),
+        BuilderFactory.binaryListVisitor(consumer));
+  }
+
   public final CommandObject<String> ltrim(String key, long start, long stop) {
     return new CommandObject<>(commandArguments(LTRIM).key(key).add(start).add(stop), BuilderFactory.STRING);
   }
@@ -1066,6 +1141,16 @@ public class CommandObjects {
     return new CommandObject<>(commandArguments(HGETALL).key(key), BuilderFactory.BINARY_MAP);
   }
 
+  public final CommandObject<Long> hgetAll(String key, BiConsumer<String, String> consumer) {
+    return new CommandObject<>(commandArguments(HGETALL).key(key).notRetryable(),
+        BuilderFactory.stringMapVisitor(consumer));
+  }
+
+  public final CommandObject<Long> hgetAll(byte[] key, BiConsumer<byte[], byte[]> consumer) {
+    return new CommandObject<>(commandArguments(HGETALL).key(key).notRetryable(),
+        BuilderFactory.binaryMapVisitor(consumer));
+  }
+
   public final CommandObject<byte[]> hrandfield(byte[] key) {
     return new CommandObject<>(commandArguments(HRANDFIELD).key(key), BuilderFactory.BINARY);
   }
@@ -1573,6 +1658,16 @@ public class CommandObjects {
         .add(start).add(stop).add(WITHSCORES), BuilderFactory.TUPLE_LIST);
   }
 
+  public final CommandObject<Long> zrangeWithScores(String key, long start, long stop, Consumer<Tuple> consumer) {
+    return new CommandObject<>(commandArguments(ZRANGE).key(key)
+        .add(start).add(stop).add(WITHSCORES).notRetryable(), BuilderFactory.tupleVisitor(consumer));
+  }
+
+  public final CommandObject<Long> zrangeWithScores(byte[] key, long start, long stop, Consumer<Tuple> consumer) {
+    return new CommandObject<>(commandArguments(ZRANGE).key(key)
+        .add(start).add(stop).add(WITHSCORES).notRetryable(), BuilderFactory.tupleVisitor(consumer));
+  }
+
   public final CommandObject<List<Tuple>> zrevrangeWithScores(byte[] key, long start, long stop) {
     return new CommandObject<>(commandArguments(ZREVRANGE).key(key)
         .add(start).add(stop).add(WITHSCORES), BuilderFactory.TUPLE_LIST);
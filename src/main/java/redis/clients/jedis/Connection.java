@@ -6,6 +6,7 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import redis.clients.jedis.args.Rawable;
 import redis.clients.jedis.commands.ProtocolCommand;
@@ -20,6 +21,7 @@ import redis.clients.jedis.util.SafeEncoder;
 public class Connection implements Closeable {
 
   private ConnectionPool memberOf;
+  private LockFreeConnectionPool.Slot memberOfSlot;
   private final JedisSocketFactory socketFactory;
   private Socket socket;
   private RedisOutputStream outputStream;
@@ -27,6 +29,8 @@ public class Connection implements Closeable {
   private int soTimeout = 0;
   private int infiniteSoTimeout = 0;
   private boolean broken = false;
+  private RedisProtocol protocol = RedisProtocol.RESP2;
+  private Consumer<List<Object>> pushListener;
 
   public Connection() {
     this(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
@@ -66,10 +70,21 @@ public class Connection implements Closeable {
     this.memberOf = pool;
   }
 
-  final HostAndPort getHostAndPort() {
+  final void setHandlingSlot(final LockFreeConnectionPool.Slot slot) {
+    this.memberOfSlot = slot;
+  }
+
+  public final HostAndPort getHostAndPort() {
     return ((DefaultJedisSocketFactory) socketFactory).getHostAndPort();
   }
 
+  /**
+   * @return the protocol negotiated when the connection was initialized
+   */
+  public final RedisProtocol getRedisProtocol() {
+    return protocol;
+  }
+
   public int getSoTimeout() {
     return soTimeout;
   }
@@ -117,14 +132,39 @@ public class Connection implements Closeable {
   }
 
   public <T> T executeCommand(final CommandObject<T> commandObject) {
+    sendCommand(commandObject.getArguments());
+    return getReply(commandObject);
+  }
+
+  /**
+   * Sends {@code ASKING} and the command back to back, in a single flush, and reads both replies.
+   * This saves the round trip of {@code ASKING} when following an {@code ASK} redirection.
+   */
+  public <T> T executeAskingCommand(final CommandObject<T> commandObject) {
+    sendCommand(Protocol.Command.ASKING);
+    sendCommand(commandObject.getArguments());
+    try {
+      getOne();
+    } catch (JedisDataException asking) {
+      // read the reply of the command as well, to keep the connection usable
+      try {
+        readProtocolWithCheckingBroken();
+      } catch (JedisDataException ignored) {
+      }
+      throw asking;
+    }
+    return getReply(commandObject);
+  }
+
+  private <T> T getReply(final CommandObject<T> commandObject) {
     final CommandArguments args = commandObject.getArguments();
-    sendCommand(args);
+    final Builder<T> builder = commandObject.getBuilder();
     if (!args.isBlocking()) {
-      return commandObject.getBuilder().build(getOne());
+      return getOne(builder);
     } else {
       try {
         setTimeoutInfinite();
-        return commandObject.getBuilder().build(getOne());
+        return getOne(builder);
       } finally {
         rollbackTimeout();
       }
@@ -206,6 +246,10 @@ public class Connection implements Closeable {
       } else {
         pool.returnResource(this);
       }
+    } else if (this.memberOfSlot != null) {
+      LockFreeConnectionPool.Slot slot = this.memberOfSlot;
+      this.memberOfSlot = null;
+      slot.returnConnection(isBroken());
     } else {
       disconnect();
     }
@@ -282,6 +326,33 @@ public class Connection implements Closeable {
     return (List<Object>) readProtocolWithCheckingBroken();
   }
 
+  /**
+   * Reads a Pub/Sub message, or the reply to a (un)subscribe. RESP3 sends these as push messages,
+   * which are read here rather than passed to the push listener.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Object> getUnflushedPubSubReply() {
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    try {
+      return (List<Object>) Protocol.read(inputStream);
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    }
+  }
+
+  /**
+   * Sets the listener of the RESP3 push messages which are not Pub/Sub messages, e.g. client side
+   * caching invalidations. Such messages may arrive before any reply; they are read and passed to
+   * the listener, on the thread reading the reply, or dropped if there is no listener.
+   */
+  public void setPushListener(final Consumer<List<Object>> pushListener) {
+    this.pushListener = pushListener;
+  }
+
   public List<Object> getObjectMultiBulkReply() {
     flush();
     return getUnflushedObjectMultiBulkReply();
@@ -298,6 +369,14 @@ public class Connection implements Closeable {
     return readProtocolWithCheckingBroken();
   }
 
+  /**
+   * Reads one reply and decodes it with {@link Builder#decode(RedisInputStream)}.
+   */
+  public <T> T getOne(final Builder<T> builder) {
+    flush();
+    return decodeWithCheckingBroken(builder);
+  }
+
   protected void flush() {
     try {
       outputStream.flush();
@@ -313,6 +392,7 @@ public class Connection implements Closeable {
     }
 
     try {
+      readPushes();
       return Protocol.read(inputStream);
     } catch (JedisConnectionException exc) {
       broken = true;
@@ -320,6 +400,76 @@ public class Connection implements Closeable {
     }
   }
 
+  protected <T> T decodeWithCheckingBroken(final Builder<T> builder) {
+    if (broken) {
+      throw new JedisConnectionException("Attempting to read from a broken connection");
+    }
+
+    try {
+      readPushes();
+      return builder.decode(inputStream);
+    } catch (JedisConnectionException exc) {
+      broken = true;
+      throw exc;
+    } catch (JedisDataException exc) {
+      throw exc;
+    } catch (RuntimeException exc) {
+      // e.g. thrown by the sink of a streaming builder, with the rest of the reply left unread
+      broken = true;
+      throw exc;
+    }
+  }
+
+  /**
+   * Reads the push messages in front of the next reply, out of band.
+   */
+  @SuppressWarnings("unchecked")
+  private void readPushes() {
+    if (protocol != RedisProtocol.RESP3) {
+      return;
+    }
+    while (inputStream.peekByte() == Protocol.GREATER_THAN_BYTE) {
+      final List<Object> push = (List<Object>) Protocol.read(inputStream);
+      final Consumer<List<Object>> listener = pushListener;
+      if (listener != null) {
+        listener.accept(push);
+      }
+    }
+  }
+
+  /**
+   * Reads a reply for pipelines: {@link StreamingBuilder}s decode it straight from the input
+   * stream, while for other builders it is only parsed, to be built when it is requested.
+   */
+  protected Object readProtocolWithCheckingBroken(final Builder<?> builder) {
+    if (builder instanceof StreamingBuilder) {
+      return decodeWithCheckingBroken(builder);
+    }
+    return readProtocolWithCheckingBroken();
+  }
+
+  /**
+   * Reads one reply for each of the builders, in order, letting {@link StreamingBuilder}s decode
+   * their replies straight from the input stream. If a builder fails with anything else than a
+   * {@link JedisDataException}, the replies which follow cannot be paired with their commands any
+   * more, so the connection is marked broken before the failure is rethrown.
+   */
+  public List<Object> getMany(final List<? extends Builder<?>> builders) {
+    flush();
+    final List<Object> responses = new ArrayList<>(builders.size());
+    for (Builder<?> builder : builders) {
+      try {
+        responses.add(readProtocolWithCheckingBroken(builder));
+      } catch (JedisDataException e) {
+        responses.add(e);
+      } catch (RuntimeException e) {
+        setBroken();
+        throw e;
+      }
+    }
+    return responses;
+  }
+
   public List<Object> getMany(final int count) {
     flush();
     final List<Object> responses = new ArrayList<>(count);
@@ -336,13 +486,19 @@ public class Connection implements Closeable {
   private void initializeFromClientConfig(JedisClientConfig config) {
     try {
       connect();
-      String password = config.getPassword();
-      if (password != null) {
-        String user = config.getUser();
-        if (user != null) {
-          auth(user, password);
-        } else {
-          auth(password);
+      RedisProtocol redisProtocol = config.getRedisProtocol();
+      if (redisProtocol != null) {
+        // HELLO authenticates and names the connection as well
+        hello(redisProtocol, config.getUser(), config.getPassword(), config.getClientName());
+      } else {
+        String password = config.getPassword();
+        if (password != null) {
+          String user = config.getUser();
+          if (user != null) {
+            auth(user, password);
+          } else {
+            auth(password);
+          }
         }
       }
       int dbIndex = config.getDatabase();
@@ -350,7 +506,7 @@ public class Connection implements Closeable {
         select(dbIndex);
       }
       String clientName = config.getClientName();
-      if (clientName != null) {
+      if (clientName != null && redisProtocol == null) {
         // TODO: need to figure out something without encoding
         clientSetname(clientName);
       }
@@ -377,6 +533,20 @@ public class Connection implements Closeable {
     return getStatusCodeReply();
   }
 
+  private void hello(final RedisProtocol redisProtocol, final String user, final String password,
+      final String clientName) {
+    CommandArguments args = new CommandArguments(Protocol.Command.HELLO).add(redisProtocol.version());
+    if (password != null) {
+      args.add(Protocol.Keyword.AUTH).add(user != null ? user : "default").add(password);
+    }
+    if (clientName != null) {
+      args.add(Protocol.Keyword.SETNAME).add(clientName);
+    }
+    sendCommand(args);
+    getOne();
+    this.protocol = redisProtocol;
+  }
+
   public String select(final int index) {
     sendCommand(Protocol.Command.SELECT, Protocol.toByteArray(index));
     return getStatusCodeReply();
@@ -15,6 +15,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
   private volatile String password;
   private final int database;
   private final String clientName;
+  private final RedisProtocol redisProtocol;
 
   private final boolean ssl;
   private final SSLSocketFactory sslSocketFactory;
@@ -23,10 +24,16 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
   private final HostAndPortMapper hostAndPortMapper;
 
+  private final boolean autoPipelining;
+  private final int autoPipelineMaxBatchSize;
+  private final int autoPipelineWindowMicros;
+
   private DefaultJedisClientConfig(int connectionTimeoutMillis, int soTimeoutMillis,
       int blockingSocketTimeoutMillis, String user, String password, int database, String clientName,
-      boolean ssl, SSLSocketFactory sslSocketFactory, SSLParameters sslParameters,
-      HostnameVerifier hostnameVerifier, HostAndPortMapper hostAndPortMapper) {
+      RedisProtocol redisProtocol, boolean ssl, SSLSocketFactory sslSocketFactory,
+      SSLParameters sslParameters, HostnameVerifier hostnameVerifier,
+      HostAndPortMapper hostAndPortMapper, boolean autoPipelining, int autoPipelineMaxBatchSize,
+      int autoPipelineWindowMicros) {
     this.connectionTimeoutMillis = connectionTimeoutMillis;
     this.socketTimeoutMillis = soTimeoutMillis;
     this.blockingSocketTimeoutMillis = blockingSocketTimeoutMillis;
@@ -34,11 +41,15 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     this.password = password;
     this.database = database;
     this.clientName = clientName;
+    this.redisProtocol = redisProtocol;
     this.ssl = ssl;
     this.sslSocketFactory = sslSocketFactory;
     this.sslParameters = sslParameters;
     this.hostnameVerifier = hostnameVerifier;
     this.hostAndPortMapper = hostAndPortMapper;
+    this.autoPipelining = autoPipelining;
+    this.autoPipelineMaxBatchSize = autoPipelineMaxBatchSize;
+    this.autoPipelineWindowMicros = autoPipelineWindowMicros;
   }
 
   @Override
@@ -83,6 +94,11 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return clientName;
   }
 
+  @Override
+  public RedisProtocol getRedisProtocol() {
+    return redisProtocol;
+  }
+
   @Override
   public boolean isSsl() {
     return ssl;
@@ -108,6 +124,21 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     return hostAndPortMapper;
   }
 
+  @Override
+  public boolean isAutoPipelining() {
+    return autoPipelining;
+  }
+
+  @Override
+  public int getAutoPipelineMaxBatchSize() {
+    return autoPipelineMaxBatchSize;
+  }
+
+  @Override
+  public int getAutoPipelineWindowMicros() {
+    return autoPipelineWindowMicros;
+  }
+
   public static Builder builder() {
     return new Builder();
   }
@@ -122,6 +153,7 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
     private String password = null;
     private int database = Protocol.DEFAULT_DATABASE;
     private String clientName = null;
+    private RedisProtocol redisProtocol = null;
 
     private boolean ssl = false;
     private SSLSocketFactory sslSocketFactory = null;
@@ -130,13 +162,18 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
 
     private HostAndPortMapper hostAndPortMapper = null;
 
+    private boolean autoPipelining = false;
+    private int autoPipelineMaxBatchSize = DEFAULT_AUTO_PIPELINE_MAX_BATCH_SIZE;
+    private int autoPipelineWindowMicros = 0;
+
     private Builder() {
     }
 
     public DefaultJedisClientConfig build() {
       return new DefaultJedisClientConfig(connectionTimeoutMillis, socketTimeoutMillis,
-          blockingSocketTimeoutMillis, user, password, database, clientName, ssl, sslSocketFactory,
-          sslParameters, hostnameVerifier, hostAndPortMapper);
+          blockingSocketTimeoutMillis, user, password, database, clientName, redisProtocol, ssl,
+          sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, autoPipelining,
+          autoPipelineMaxBatchSize, autoPipelineWindowMicros);
     }
 
     public Builder timeoutMillis(int timeoutMillis) {
@@ -180,6 +217,11 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       return this;
     }
 
+    public Builder protocol(RedisProtocol redisProtocol) {
+      this.redisProtocol = redisProtocol;
+      return this;
+    }
+
     public Builder ssl(boolean ssl) {
       this.ssl = ssl;
       return this;
@@ -204,6 +246,21 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       this.hostAndPortMapper = hostAndPortMapper;
       return this;
     }
+
+    public Builder autoPipelining(boolean autoPipelining) {
+      this.autoPipelining = autoPipelining;
+      return this;
+    }
+
+    public Builder autoPipelineMaxBatchSize(int autoPipelineMaxBatchSize) {
+      this.autoPipelineMaxBatchSize = autoPipelineMaxBatchSize;
+      return this;
+    }
+
+    public Builder autoPipelineWindowMicros(int autoPipelineWindowMicros) {
+      this.autoPipelineWindowMicros = autoPipelineWindowMicros;
+      return this;
+    }
   }
 
   public static DefaultJedisClientConfig create(int connectionTimeoutMillis, int soTimeoutMillis,
@@ -211,15 +268,18 @@ public final class DefaultJedisClientConfig implements JedisClientConfig {
       boolean ssl, SSLSocketFactory sslSocketFactory, SSLParameters sslParameters,
       HostnameVerifier hostnameVerifier, HostAndPortMapper hostAndPortMapper) {
     return new DefaultJedisClientConfig(connectionTimeoutMillis, soTimeoutMillis,
-        blockingSocketTimeoutMillis, user, password, database, clientName, ssl,
-        sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper);
+        blockingSocketTimeoutMillis, user, password, database, clientName, null, ssl,
+        sslSocketFactory, sslParameters, hostnameVerifier, hostAndPortMapper, false,
+        DEFAULT_AUTO_PIPELINE_MAX_BATCH_SIZE, 0);
   }
 
   public static DefaultJedisClientConfig copyConfig(JedisClientConfig copy) {
     return new DefaultJedisClientConfig(copy.getConnectionTimeoutMillis(),
         copy.getSocketTimeoutMillis(), copy.getBlockingSocketTimeoutMillis(), copy.getUser(),
-        copy.getPassword(), copy.getDatabase(), copy.getClientName(), copy.isSsl(),
+        copy.getPassword(), copy.getDatabase(), copy.getClientName(), copy.getRedisProtocol(),
+        copy.isSsl(),
         copy.getSslSocketFactory(), copy.getSslParameters(), copy.getHostnameVerifier(),
-        copy.getHostAndPortMapper());
+        copy.getHostAndPortMapper(), copy.isAutoPipelining(), copy.getAutoPipelineMaxBatchSize(),
+        copy.getAutoPipelineWindowMicros());
   }
 }
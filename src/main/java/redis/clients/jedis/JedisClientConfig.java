@@ -6,6 +6,8 @@ import javax.net.ssl.SSLSocketFactory;
 
 public interface JedisClientConfig {
 
+  int DEFAULT_AUTO_PIPELINE_MAX_BATCH_SIZE = 1024;
+
   /**
    * @return Connection timeout in milliseconds
    */
@@ -50,6 +52,14 @@ public interface JedisClientConfig {
     return null;
   }
 
+  /**
+   * @return the protocol to negotiate with {@code HELLO}. <code>null</code> - to skip the
+   * negotiation and use the server default (RESP2).
+   */
+  default RedisProtocol getRedisProtocol() {
+    return null;
+  }
+
   /**
    * @return <code>true</code> - to create a TLS connection. <code>false</code> - otherwise.
    */
@@ -73,4 +83,29 @@ public interface JedisClientConfig {
     return null;
   }
 
+  /**
+   * @return <code>true</code> - to let {@link JedisPooled} send concurrent commands through one
+   * shared connection per node, coalescing them into pipelined batches. <code>false</code> - to
+   * give each command a pooled connection of its own.
+   */
+  default boolean isAutoPipelining() {
+    return false;
+  }
+
+  /**
+   * @return maximum number of commands written and flushed together by a shared connection
+   */
+  default int getAutoPipelineMaxBatchSize() {
+    return DEFAULT_AUTO_PIPELINE_MAX_BATCH_SIZE;
+  }
+
+  /**
+   * @return how long (in microseconds) a shared connection waits for more commands before
+   * flushing a batch which is not full. Default is '0', which means to only coalesce the commands
+   * that queued up while the previous batch was being written.
+   */
+  default int getAutoPipelineWindowMicros() {
+    return 0;
+  }
+
 }
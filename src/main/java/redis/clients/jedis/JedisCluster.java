@@ -1,11 +1,24 @@
 package redis.clients.jedis;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToLongFunction;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import redis.clients.jedis.executors.ClusterCommandExecutor;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.JedisClusterCRC16;
 
 public class JedisCluster extends UnifiedJedis {
 
@@ -172,6 +185,17 @@ public class JedisCluster extends UnifiedJedis {
     super(clusterNodes, clientConfig, poolConfig, maxAttempts, maxTotalRetriesDuration);
   }
 
+  /**
+   * @param readFrom the node read-only commands are sent to, among the master and the replicas of
+   * their slot
+   */
+  public JedisCluster(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      int maxAttempts, Duration maxTotalRetriesDuration, GenericObjectPoolConfig<Connection> poolConfig,
+      ReadFrom readFrom) {
+    super(new ClusterConnectionProvider(clusterNodes, clientConfig, poolConfig, readFrom),
+        maxAttempts, maxTotalRetriesDuration);
+  }
+
   public JedisCluster(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig) {
     this(clusterNodes, clientConfig, DEFAULT_MAX_ATTEMPTS);
   }
@@ -184,11 +208,243 @@ public class JedisCluster extends UnifiedJedis {
     super(clusterNodes, clientConfig, maxAttempts, maxTotalRetriesDuration);
   }
 
+  /**
+   * @param provider e.g. one with a {@link ReadFrom} policy or a background topology refresh
+   */
+  public JedisCluster(ClusterConnectionProvider provider, int maxAttempts,
+      Duration maxTotalRetriesDuration) {
+    super(provider, maxAttempts, maxTotalRetriesDuration);
+  }
+
   public Map<String, ConnectionPool> getClusterNodes() {
     return ((ClusterCommandExecutor) executor).provider.getNodes();
   }
 
+  /**
+   * Scans the keys of all masters, {@code parallelism} masters at a time. Unlike
+   * {@link #scan(String, ScanParams)}, the MATCH pattern does not need a hash tag.
+   * @param params MATCH and COUNT of each {@code SCAN}; <code>null</code> - for none
+   * @see ClusterScanIterator
+   */
+  public ClusterScanIterator scanIterator(ScanParams params, int parallelism) {
+    return scanIterator(ClusterScanIterator.SCAN_POINTER_START, params, parallelism);
+  }
+
+  /**
+   * Resumes a scan of all masters.
+   * @param cursor a cursor of {@link ClusterScanIterator#getCursor()}
+   * @see #scanIterator(ScanParams, int)
+   */
+  public ClusterScanIterator scanIterator(String cursor, ScanParams params, int parallelism) {
+    return new ClusterScanIterator((ClusterConnectionProvider) provider, cursor, params, parallelism);
+  }
+
   public Connection getConnectionFromSlot(int slot) {
     return ((ClusterCommandExecutor) executor).provider.getConnectionFromSlot(slot);
   }
+
+  /**
+   * Values of the keys, in key order. Keys of different hash slots are fetched with one command
+   * per slot, pipelined to all nodes in parallel.
+   */
+  @Override
+  public List<String> mget(String... keys) {
+    Collection<List<Integer>> slots = groupBySlot(keys.length, i -> slot(keys[i]));
+    if (slots.size() < 2) {
+      return super.mget(keys);
+    }
+    List<String> values = new ArrayList<>(Collections.nCopies(keys.length, (String) null));
+    scatter(slots, group -> commandObjects.mget(select(keys, group, String[]::new)),
+        (group, reply) -> {
+          for (int i = 0; i < group.size(); i++) {
+            values.set(group.get(i), reply.get(i));
+          }
+        });
+    return values;
+  }
+
+  /**
+   * Values of the keys, in key order. Keys of different hash slots are fetched with one command
+   * per slot, pipelined to all nodes in parallel.
+   */
+  @Override
+  public List<byte[]> mget(byte[]... keys) {
+    Collection<List<Integer>> slots = groupBySlot(keys.length, i -> slot(keys[i]));
+    if (slots.size() < 2) {
+      return super.mget(keys);
+    }
+    List<byte[]> values = new ArrayList<>(Collections.nCopies(keys.length, (byte[]) null));
+    scatter(slots, group -> commandObjects.mget(select(keys, group, byte[][]::new)),
+        (group, reply) -> {
+          for (int i = 0; i < group.size(); i++) {
+            values.set(group.get(i), reply.get(i));
+          }
+        });
+    return values;
+  }
+
+  /**
+   * Keys of different hash slots are set with one command per slot, pipelined to all nodes in
+   * parallel. Unlike within a single slot, the keys are not set atomically.
+   */
+  @Override
+  public String mset(String... keysvalues) {
+    checkKeyValuePairs(keysvalues.length);
+    Collection<List<Integer>> slots = groupBySlot(keysvalues.length / 2,
+        i -> slot(keysvalues[2 * i]));
+    if (slots.size() < 2) {
+      return super.mset(keysvalues);
+    }
+    scatter(slots, group -> commandObjects.mset(selectPairs(keysvalues, group, String[]::new)),
+        (group, reply) -> { });
+    return "OK";
+  }
+
+  /**
+   * Keys of different hash slots are set with one command per slot, pipelined to all nodes in
+   * parallel. Unlike within a single slot, the keys are not set atomically.
+   */
+  @Override
+  public String mset(byte[]... keysvalues) {
+    checkKeyValuePairs(keysvalues.length);
+    Collection<List<Integer>> slots = groupBySlot(keysvalues.length / 2,
+        i -> slot(keysvalues[2 * i]));
+    if (slots.size() < 2) {
+      return super.mset(keysvalues);
+    }
+    scatter(slots, group -> commandObjects.mset(selectPairs(keysvalues, group, byte[][]::new)),
+        (group, reply) -> { });
+    return "OK";
+  }
+
+  @Override
+  public long del(String... keys) {
+    return sumPerSlot(keys, super::del, commandObjects::del);
+  }
+
+  @Override
+  public long del(byte[]... keys) {
+    return sumPerSlot(keys, super::del, commandObjects::del);
+  }
+
+  @Override
+  public long unlink(String... keys) {
+    return sumPerSlot(keys, super::unlink, commandObjects::unlink);
+  }
+
+  @Override
+  public long unlink(byte[]... keys) {
+    return sumPerSlot(keys, super::unlink, commandObjects::unlink);
+  }
+
+  @Override
+  public long exists(String... keys) {
+    return sumPerSlot(keys, super::exists, commandObjects::exists);
+  }
+
+  @Override
+  public long exists(byte[]... keys) {
+    return sumPerSlot(keys, super::exists, commandObjects::exists);
+  }
+
+  @Override
+  public long touch(String... keys) {
+    return sumPerSlot(keys, super::touch, commandObjects::touch);
+  }
+
+  @Override
+  public long touch(byte[]... keys) {
+    return sumPerSlot(keys, super::touch, commandObjects::touch);
+  }
+
+  private long sumPerSlot(String[] keys, ToLongFunction<String[]> sameSlot,
+      Function<String[], CommandObject<Long>> command) {
+    Collection<List<Integer>> slots = groupBySlot(keys.length, i -> slot(keys[i]));
+    if (slots.size() < 2) {
+      return sameSlot.applyAsLong(keys);
+    }
+    long[] sum = new long[1];
+    scatter(slots, group -> command.apply(select(keys, group, String[]::new)),
+        (group, reply) -> sum[0] += reply);
+    return sum[0];
+  }
+
+  private long sumPerSlot(byte[][] keys, ToLongFunction<byte[][]> sameSlot,
+      Function<byte[][], CommandObject<Long>> command) {
+    Collection<List<Integer>> slots = groupBySlot(keys.length, i -> slot(keys[i]));
+    if (slots.size() < 2) {
+      return sameSlot.applyAsLong(keys);
+    }
+    long[] sum = new long[1];
+    scatter(slots, group -> command.apply(select(keys, group, byte[][]::new)),
+        (group, reply) -> sum[0] += reply);
+    return sum[0];
+  }
+
+  private static void checkKeyValuePairs(int length) {
+    if (length % 2 != 0) {
+      // the trailing key would not be part of any pair
+      throw new IllegalArgumentException("Keys and values must come in pairs, got " + length
+          + " arguments.");
+    }
+  }
+
+  /**
+   * @return indexes of the keys, grouped by hash slot; empty if a key is <code>null</code>, to let
+   * the single command report it
+   */
+  private static Collection<List<Integer>> groupBySlot(int count, IntUnaryOperator slotOf) {
+    Map<Integer, List<Integer>> slots = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      final int slot = slotOf.applyAsInt(i);
+      if (slot < 0) {
+        return Collections.emptyList();
+      }
+      slots.computeIfAbsent(slot, s -> new ArrayList<>()).add(i);
+    }
+    return slots.values();
+  }
+
+  private static int slot(String key) {
+    return key != null ? JedisClusterCRC16.getSlot(key) : -1;
+  }
+
+  private static int slot(byte[] key) {
+    return key != null ? JedisClusterCRC16.getSlot(key) : -1;
+  }
+
+  private static <K> K[] select(K[] keys, List<Integer> indexes, IntFunction<K[]> newArray) {
+    K[] selected = newArray.apply(indexes.size());
+    for (int i = 0; i < selected.length; i++) {
+      selected[i] = keys[indexes.get(i)];
+    }
+    return selected;
+  }
+
+  private static <K> K[] selectPairs(K[] keysvalues, List<Integer> indexes, IntFunction<K[]> newArray) {
+    K[] selected = newArray.apply(2 * indexes.size());
+    for (int i = 0; i < indexes.size(); i++) {
+      selected[2 * i] = keysvalues[2 * indexes.get(i)];
+      selected[2 * i + 1] = keysvalues[2 * indexes.get(i) + 1];
+    }
+    return selected;
+  }
+
+  /**
+   * Sends one command per slot through a {@link ClusterPipeline}, which reads the nodes in parallel
+   * and follows redirections, and hands each reply to the gatherer along with its key indexes.
+   */
+  private <T> void scatter(Collection<List<Integer>> slots,
+      Function<List<Integer>, CommandObject<T>> command, BiConsumer<List<Integer>, T> gatherer) {
+    List<Response<T>> replies = new ArrayList<>(slots.size());
+    try (ClusterPipeline pipeline = new ClusterPipeline((ClusterConnectionProvider) provider)) {
+      for (List<Integer> group : slots) {
+        replies.add(pipeline.appendCommand(command.apply(group)));
+      }
+    }
+    Iterator<Response<T>> reply = replies.iterator();
+    for (List<Integer> group : slots) {
+      gatherer.accept(group, reply.next().get());
+    }
+  }
 }
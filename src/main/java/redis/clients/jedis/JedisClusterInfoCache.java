@@ -1,6 +1,7 @@
 package redis.clients.jedis;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,29 +10,37 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.SafeEncoder;
 
+/**
+ * Nodes and slot assignments of a cluster. The slots are kept in a table indexed by slot, which is
+ * never modified once published; an update publishes a new table, sharing the parts it did not
+ * change. Lookups take no lock.
+ */
 public class JedisClusterInfoCache {
 
-  private final Map<String, ConnectionPool> nodes = new HashMap<>();
-  private final Map<Integer, ConnectionPool> slots = new HashMap<>();
-  private final Map<Integer, HostAndPort> slotNodes = new HashMap<>();
+  private final Map<String, ConnectionPool> nodes = new ConcurrentHashMap<>();
+  private volatile SlotTable slotTable = new SlotTable();
+  private volatile long topologyVersion = 0;
 
-  private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
-  private final Lock r = rwl.readLock();
-  private final Lock w = rwl.writeLock();
+  /**
+   * Serializes the updates of nodes and slots.
+   */
+  private final Lock w = new ReentrantLock();
   private final Lock rediscoverLock = new ReentrantLock();
 
   private final GenericObjectPoolConfig<Connection> poolConfig;
   private final JedisClientConfig clientConfig;
   private final Set<HostAndPort> startNodes;
+  private final boolean readOnlyConnections;
 
   private static final int MASTER_NODE_INDEX = 2;
 
@@ -52,9 +61,21 @@ public class JedisClusterInfoCache {
 
   public JedisClusterInfoCache(final JedisClientConfig clientConfig,
       final GenericObjectPoolConfig<Connection> poolConfig, final Set<HostAndPort> startNodes) {
+    this(clientConfig, poolConfig, startNodes, false);
+  }
+
+  /**
+   * @param readOnlyConnections whether to send {@code READONLY} on every new connection, so that
+   * replicas serve reads of their slots. Masters are not affected by it, and a node keeps its
+   * connections when its role changes.
+   */
+  public JedisClusterInfoCache(final JedisClientConfig clientConfig,
+      final GenericObjectPoolConfig<Connection> poolConfig, final Set<HostAndPort> startNodes,
+      final boolean readOnlyConnections) {
     this.poolConfig = poolConfig;
     this.clientConfig = clientConfig;
     this.startNodes = startNodes;
+    this.readOnlyConnections = readOnlyConnections;
   }
 
   public void discoverClusterNodesAndSlots(Connection jedis) {
@@ -62,30 +83,7 @@ public class JedisClusterInfoCache {
     w.lock();
     try {
       reset();
-      for (Object slotInfoObj : slotsInfo) {
-        List<Object> slotInfo = (List<Object>) slotInfoObj;
-
-        if (slotInfo.size() <= MASTER_NODE_INDEX) {
-          continue;
-        }
-
-        List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
-        // hostInfos
-        int size = slotInfo.size();
-        for (int i = MASTER_NODE_INDEX; i < size; i++) {
-          List<Object> hostInfos = (List<Object>) slotInfo.get(i);
-          if (hostInfos.isEmpty()) {
-            continue;
-          }
-
-          HostAndPort targetNode = generateHostAndPort(hostInfos);
-          setupNodeIfNotExist(targetNode);
-          if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
-          }
-        }
-      }
+      publish(buildSlotTable(slotsInfo, null));
     } finally {
       w.unlock();
     }
@@ -98,8 +96,9 @@ public class JedisClusterInfoCache {
         // First, if jedis is available, use jedis renew.
         if (jedis != null) {
           try {
-            discoverClusterSlots(jedis);
-            return;
+            if (discoverClusterSlots(jedis)) {
+              return;
+            }
           } catch (JedisException e) {
             // try nodes from all pools
           }
@@ -110,8 +109,9 @@ public class JedisClusterInfoCache {
         if (startNodes != null) {
           for (HostAndPort hostAndPort : startNodes) {
             try (Connection j = new Connection(hostAndPort, clientConfig)) {
-              discoverClusterSlots(j);
-              return;
+              if (discoverClusterSlots(j)) {
+                return;
+              }
             } catch (JedisConnectionException e) {
               // try next nodes
             }
@@ -125,8 +125,9 @@ public class JedisClusterInfoCache {
             if (startNodes != null && startNodes.contains(j.getHostAndPort())) {
               continue;
             }
-            discoverClusterSlots(j);
-            return;
+            if (discoverClusterSlots(j)) {
+              return;
+            }
           } catch (JedisConnectionException e) {
             // try next nodes
           }
@@ -138,37 +139,22 @@ public class JedisClusterInfoCache {
     }
   }
 
-  private void discoverClusterSlots(Connection jedis) {
+  /**
+   * @return <code>false</code> if the node knows no slots, e.g. it was just reset; the current
+   * slots are kept rather than dropping all nodes
+   */
+  private boolean discoverClusterSlots(Connection jedis) {
     List<Object> slotsInfo = executeClusterSlots(jedis);
+    if (slotsInfo.isEmpty()) {
+      return false;
+    }
     w.lock();
     try {
-      this.slots.clear();
-      this.slotNodes.clear();
       Set<String> hostAndPortKeys = new HashSet<>();
-
-      for (Object slotInfoObj : slotsInfo) {
-        List<Object> slotInfo = (List<Object>) slotInfoObj;
-
-        if (slotInfo.size() <= MASTER_NODE_INDEX) {
-          continue;
-        }
-
-        List<Integer> slotNums = getAssignedSlotArray(slotInfo);
-
-        int size = slotInfo.size();
-        for (int i = MASTER_NODE_INDEX; i < size; i++) {
-          List<Object> hostInfos = (List<Object>) slotInfo.get(i);
-          if (hostInfos.isEmpty()) {
-            continue;
-          }
-
-          HostAndPort targetNode = generateHostAndPort(hostInfos);
-          hostAndPortKeys.add(getNodeKey(targetNode));
-          setupNodeIfNotExist(targetNode);
-          if (i == MASTER_NODE_INDEX) {
-            assignSlotsToNode(slotNums, targetNode);
-          }
-        }
+      SlotTable table = buildSlotTable(slotsInfo, hostAndPortKeys);
+      // keep the current table, and its version, if nothing moved
+      if (!table.sameSlots(slotTable)) {
+        publish(table);
       }
 
       // Remove dead nodes according to the latest query
@@ -187,11 +173,66 @@ public class JedisClusterInfoCache {
           entryIt.remove();
         }
       }
+      return true;
     } finally {
       w.unlock();
     }
   }
 
+  /**
+   * @param hostAndPortKeys collects the keys of the nodes in the reply; <code>null</code> - not to
+   * collect them
+   */
+  private SlotTable buildSlotTable(List<Object> slotsInfo, Set<String> hostAndPortKeys) {
+    SlotTable table = new SlotTable();
+    for (Object slotInfoObj : slotsInfo) {
+      List<Object> slotInfo = (List<Object>) slotInfoObj;
+
+      if (slotInfo.size() <= MASTER_NODE_INDEX) {
+        continue;
+      }
+
+      final int from = ((Long) slotInfo.get(0)).intValue();
+      final int to = ((Long) slotInfo.get(1)).intValue();
+
+      // hostInfos
+      HostAndPort master = null;
+      List<HostAndPort> replicas = new ArrayList<>(slotInfo.size() - MASTER_NODE_INDEX - 1);
+      int size = slotInfo.size();
+      for (int i = MASTER_NODE_INDEX; i < size; i++) {
+        List<Object> hostInfos = (List<Object>) slotInfo.get(i);
+        if (hostInfos.isEmpty()) {
+          continue;
+        }
+
+        HostAndPort targetNode = generateHostAndPort(hostInfos);
+        if (hostAndPortKeys != null) {
+          hostAndPortKeys.add(getNodeKey(targetNode));
+        }
+        setupNodeIfNotExist(targetNode);
+        if (i == MASTER_NODE_INDEX) {
+          master = targetNode;
+        } else {
+          replicas.add(targetNode);
+        }
+      }
+
+      if (master != null) {
+        ConnectionPool pool = nodes.get(getNodeKey(master));
+        for (int slot = from; slot <= to; slot++) {
+          table.setMaster(slot, pool, master);
+        }
+      }
+      if (!replicas.isEmpty()) {
+        List<HostAndPort> unmodifiable = Collections.unmodifiableList(replicas);
+        for (int slot = from; slot <= to; slot++) {
+          table.setReplicas(slot, unmodifiable);
+        }
+      }
+    }
+    return table;
+  }
+
   private HostAndPort generateHostAndPort(List<Object> hostInfos) {
     String host = SafeEncoder.encode((byte[]) hostInfos.get(0));
     int port = ((Long) hostInfos.get(1)).intValue();
@@ -199,13 +240,18 @@ public class JedisClusterInfoCache {
   }
 
   public ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
+    String nodeKey = getNodeKey(node);
+    ConnectionPool existingPool = nodes.get(nodeKey);
+    if (existingPool != null) return existingPool;
+
     w.lock();
     try {
-      String nodeKey = getNodeKey(node);
-      ConnectionPool existingPool = nodes.get(nodeKey);
+      existingPool = nodes.get(nodeKey);
       if (existingPool != null) return existingPool;
 
-      ConnectionPool nodePool = new ConnectionPool(node, clientConfig, poolConfig);
+      ConnectionPool nodePool = readOnlyConnections
+          ? new ConnectionPool(new ReadOnlyConnectionFactory(node, clientConfig), poolConfig)
+          : new ConnectionPool(node, clientConfig, poolConfig);
       nodes.put(nodeKey, nodePool);
       return nodePool;
     } finally {
@@ -214,36 +260,75 @@ public class JedisClusterInfoCache {
   }
 
   public void assignSlotToNode(int slot, HostAndPort targetNode) {
+    assignSlotsToNode(Collections.singletonList(slot), targetNode);
+  }
+
+  public void assignSlotsToNode(List<Integer> targetSlots, HostAndPort targetNode) {
     w.lock();
     try {
       ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
-      slots.put(slot, targetPool);
-      slotNodes.put(slot, targetNode);
+      if (isAssigned(targetSlots, targetNode, targetPool)) {
+        // e.g. another redirection to the same node came first
+        return;
+      }
+      SlotTable table = slotTable.copy();
+      for (Integer slot : targetSlots) {
+        if (!targetNode.equals(table.getMaster(slot))) {
+          // the replicas of the former master do not serve the slot anymore
+          table.setReplicas(slot, Collections.emptyList());
+        }
+        table.setMaster(slot, targetPool, targetNode);
+      }
+      publish(table);
     } finally {
       w.unlock();
     }
   }
 
-  public void assignSlotsToNode(List<Integer> targetSlots, HostAndPort targetNode) {
+  private boolean isAssigned(List<Integer> targetSlots, HostAndPort targetNode,
+      ConnectionPool targetPool) {
+    SlotTable table = slotTable;
+    for (Integer slot : targetSlots) {
+      if (table.getPool(slot) != targetPool || !targetNode.equals(table.getMaster(slot))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void assignSlotsToReplica(List<Integer> targetSlots, HostAndPort replica) {
     w.lock();
     try {
-      ConnectionPool targetPool = setupNodeIfNotExist(targetNode);
+      setupNodeIfNotExist(replica);
+      SlotTable table = slotTable.copy();
       for (Integer slot : targetSlots) {
-        slots.put(slot, targetPool);
-        slotNodes.put(slot, targetNode);
+        List<HostAndPort> replicas = new ArrayList<>(table.getReplicas(slot));
+        replicas.add(replica);
+        table.setReplicas(slot, Collections.unmodifiableList(replicas));
       }
+      publish(table);
     } finally {
       w.unlock();
     }
   }
 
+  /**
+   * Called with the writer lock held.
+   */
+  private void publish(SlotTable table) {
+    slotTable = table;
+    topologyVersion++;
+  }
+
+  /**
+   * @return a number which changes whenever the slot assignments change
+   */
+  public long getTopologyVersion() {
+    return topologyVersion;
+  }
+
   public ConnectionPool getNode(String nodeKey) {
-    r.lock();
-    try {
-      return nodes.get(nodeKey);
-    } finally {
-      r.unlock();
-    }
+    return nodes.get(nodeKey);
   }
 
   public ConnectionPool getNode(HostAndPort node) {
@@ -251,41 +336,43 @@ public class JedisClusterInfoCache {
   }
 
   public ConnectionPool getSlotPool(int slot) {
-    r.lock();
-    try {
-      return slots.get(slot);
-    } finally {
-      r.unlock();
-    }
+    return slotTable.getPool(slot);
   }
 
   public HostAndPort getSlotNode(int slot) {
-    r.lock();
-    try {
-      return slotNodes.get(slot);
-    } finally {
-      r.unlock();
-    }
+    return slotTable.getMaster(slot);
+  }
+
+  /**
+   * @return the replicas of the slot; empty if it has none
+   */
+  public List<HostAndPort> getSlotReplicas(int slot) {
+    return slotTable.getReplicas(slot);
   }
 
   public Map<String, ConnectionPool> getNodes() {
-    r.lock();
-    try {
-      return new HashMap<>(nodes);
-    } finally {
-      r.unlock();
+    return new HashMap<>(nodes);
+  }
+
+  /**
+   * @return the nodes serving at least one slot
+   */
+  public Set<HostAndPort> getMasterNodes() {
+    SlotTable table = slotTable;
+    Set<HostAndPort> masters = new HashSet<>();
+    for (int slot = 0; slot < Protocol.CLUSTER_HASHSLOTS; slot++) {
+      HostAndPort master = table.getMaster(slot);
+      if (master != null) {
+        masters.add(master);
+      }
     }
+    return masters;
   }
 
   public List<ConnectionPool> getShuffledNodesPool() {
-    r.lock();
-    try {
-      List<ConnectionPool> pools = new ArrayList<>(nodes.values());
-      Collections.shuffle(pools);
-      return pools;
-    } finally {
-      r.unlock();
-    }
+    List<ConnectionPool> pools = new ArrayList<>(nodes.values());
+    Collections.shuffle(pools);
+    return pools;
   }
 
   /**
@@ -304,8 +391,7 @@ public class JedisClusterInfoCache {
         }
       }
       nodes.clear();
-      slots.clear();
-      slotNodes.clear();
+      publish(new SlotTable());
     } finally {
       w.unlock();
     }
@@ -321,12 +407,109 @@ public class JedisClusterInfoCache {
     return jedis.getObjectMultiBulkReply();
   }
 
-  private List<Integer> getAssignedSlotArray(List<Object> slotInfo) {
-    List<Integer> slotNums = new ArrayList<>();
-    for (int slot = ((Long) slotInfo.get(0)).intValue(); slot <= ((Long) slotInfo.get(1))
-        .intValue(); slot++) {
-      slotNums.add(slot);
+  /**
+   * Master, pool and replicas of each slot, in chunks of {@link #CHUNK_SIZE} slots. A copy shares
+   * the chunks of its original until a slot of a chunk is set, so that patching a few slots does not
+   * copy the whole table. Not modified once published.
+   */
+  private static final class SlotTable {
+
+    private static final int CHUNK_BITS = 7;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNKS = Protocol.CLUSTER_HASHSLOTS >> CHUNK_BITS;
+
+    private final ConnectionPool[][] pools;
+    private final HostAndPort[][] masters;
+    private final List<HostAndPort>[][] replicas;
+    // the chunks which are not shared with another table
+    private final boolean[] owned = new boolean[CHUNKS];
+
+    @SuppressWarnings("unchecked")
+    private SlotTable() {
+      pools = new ConnectionPool[CHUNKS][CHUNK_SIZE];
+      masters = new HostAndPort[CHUNKS][CHUNK_SIZE];
+      replicas = new List[CHUNKS][CHUNK_SIZE];
+      for (List<HostAndPort>[] chunk : replicas) {
+        Arrays.fill(chunk, Collections.emptyList());
+      }
+      Arrays.fill(owned, true);
+    }
+
+    private SlotTable(SlotTable table) {
+      pools = table.pools.clone();
+      masters = table.masters.clone();
+      replicas = table.replicas.clone();
+    }
+
+    private SlotTable copy() {
+      return new SlotTable(this);
+    }
+
+    private ConnectionPool getPool(int slot) {
+      return pools[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    private HostAndPort getMaster(int slot) {
+      return masters[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    private List<HostAndPort> getReplicas(int slot) {
+      return replicas[slot >>> CHUNK_BITS][slot & CHUNK_MASK];
+    }
+
+    private void setMaster(int slot, ConnectionPool pool, HostAndPort master) {
+      final int chunk = own(slot);
+      pools[chunk][slot & CHUNK_MASK] = pool;
+      masters[chunk][slot & CHUNK_MASK] = master;
+    }
+
+    private void setReplicas(int slot, List<HostAndPort> slotReplicas) {
+      replicas[own(slot)][slot & CHUNK_MASK] = slotReplicas;
+    }
+
+    /**
+     * @return the chunk of the slot, copied first if it is shared
+     */
+    private int own(int slot) {
+      final int chunk = slot >>> CHUNK_BITS;
+      if (!owned[chunk]) {
+        pools[chunk] = pools[chunk].clone();
+        masters[chunk] = masters[chunk].clone();
+        replicas[chunk] = replicas[chunk].clone();
+        owned[chunk] = true;
+      }
+      return chunk;
+    }
+
+    private boolean sameSlots(SlotTable table) {
+      for (int chunk = 0; chunk < CHUNKS; chunk++) {
+        if (!Arrays.equals(masters[chunk], table.masters[chunk])
+            || !Arrays.equals(pools[chunk], table.pools[chunk])
+            || !Arrays.equals(replicas[chunk], table.replicas[chunk])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static class ReadOnlyConnectionFactory extends ConnectionFactory {
+
+    private ReadOnlyConnectionFactory(HostAndPort node, JedisClientConfig clientConfig) {
+      super(node, clientConfig);
+    }
+
+    @Override
+    public PooledObject<Connection> makeObject() throws Exception {
+      PooledObject<Connection> pooled = super.makeObject();
+      try {
+        pooled.getObject().executeCommand(Protocol.Command.READONLY);
+      } catch (RuntimeException e) {
+        pooled.getObject().close();
+        throw e;
+      }
+      return pooled;
     }
-    return slotNums;
   }
 }
@@ -8,6 +8,8 @@ import javax.net.ssl.SSLSocketFactory;
 import org.apache.commons.pool2.PooledObjectFactory;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
+import redis.clients.jedis.executors.AutoPipeliningCommandExecutor;
+import redis.clients.jedis.executors.DefaultCommandExecutor;
 import redis.clients.jedis.providers.PooledConnectionProvider;
 import redis.clients.jedis.util.JedisURIHelper;
 import redis.clients.jedis.util.Pool;
@@ -256,7 +258,8 @@ public class JedisPooled extends UnifiedJedis {
 
   public JedisPooled(final GenericObjectPoolConfig<Connection> poolConfig, final JedisSocketFactory jedisSocketFactory,
       final JedisClientConfig clientConfig) {
-    this(new ConnectionFactory(jedisSocketFactory, clientConfig), poolConfig);
+    this(new PooledConnectionProvider(new ConnectionFactory(jedisSocketFactory, clientConfig),
+        poolConfig), jedisSocketFactory, clientConfig);
   }
 
   public JedisPooled(final GenericObjectPoolConfig<Connection> poolConfig) {
@@ -362,8 +365,32 @@ public class JedisPooled extends UnifiedJedis {
     this(new ConnectionFactory(hostAndPort), poolConfig);
   }
 
+  /**
+   * With {@link JedisClientConfig#isAutoPipelining()}, non-blocking commands are coalesced into
+   * pipelined batches on a shared connection; the pool serves blocking commands, pipelines and
+   * transactions.
+   */
   public JedisPooled(HostAndPort hostAndPort, JedisClientConfig clientConfig, GenericObjectPoolConfig<Connection> poolConfig) {
-    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+    this(new PooledConnectionProvider(new ConnectionFactory(hostAndPort, clientConfig), poolConfig),
+        new DefaultJedisSocketFactory(hostAndPort, clientConfig), clientConfig);
+  }
+
+  /**
+   * Every constructor with a {@link JedisClientConfig} ends up here, so that the auto-pipelining
+   * options are honoured.
+   */
+  private JedisPooled(PooledConnectionProvider provider, JedisSocketFactory socketFactory,
+      JedisClientConfig clientConfig) {
+    super(provider, clientConfig.isAutoPipelining()
+        ? new AutoPipeliningCommandExecutor(provider, getHostAndPort(socketFactory), socketFactory,
+            clientConfig)
+        : new DefaultCommandExecutor(provider));
+  }
+
+  private static HostAndPort getHostAndPort(JedisSocketFactory socketFactory) {
+    return socketFactory instanceof DefaultJedisSocketFactory
+        ? ((DefaultJedisSocketFactory) socketFactory).getHostAndPort()
+        : new HostAndPort(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT);
   }
 
   public JedisPooled(PooledObjectFactory<Connection> factory, GenericObjectPoolConfig<Connection> poolConfig) {
@@ -3,8 +3,10 @@ package redis.clients.jedis;
 import java.util.List;
 import java.util.regex.Pattern;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
 import redis.clients.jedis.providers.ShardedConnectionProvider;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.KeyTagExtractor;
 
 public class JedisSharding extends UnifiedJedis {
 
@@ -39,4 +41,19 @@ public class JedisSharding extends UnifiedJedis {
   public JedisSharding(ShardedConnectionProvider provider, Pattern tagPattern) {
     super(provider, tagPattern);
   }
+
+  /**
+   * @param tagExtractor e.g. {@link KeyTagExtractor#BRACES}, the same tags as
+   * {@link #DEFAULT_KEY_TAG_PATTERN} without a regular expression
+   */
+  public JedisSharding(ShardedConnectionProvider provider, KeyTagExtractor tagExtractor) {
+    super(provider, tagExtractor);
+  }
+
+  /**
+   * Serves commands while the keys move to new shards, see {@link ReshardingConnectionProvider}.
+   */
+  public JedisSharding(ReshardingConnectionProvider provider, KeyTagExtractor tagExtractor) {
+    super(provider, tagExtractor);
+  }
 }
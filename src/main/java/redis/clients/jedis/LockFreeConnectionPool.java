@@ -0,0 +1,566 @@
+package redis.clients.jedis;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * A pool of connections without locks on the borrow and return paths, as an alternative to
+ * {@link ConnectionPool}.
+ * <p>
+ * The pool has {@code maxTotal} slots, each holding at most one connection. A thread first tries
+ * the slot it returned last; otherwise it pops the idle slots from a lock-free stack, most recently
+ * returned first. Slots change hands by compare-and-set of their state, so borrowing and returning
+ * an idle connection allocates nothing. A thread finding the pool exhausted waits, for at most
+ * {@code maxWait}, for a connection offered by the next thread returning one, in the order the
+ * threads started waiting.
+ * <p>
+ * The {@link GenericObjectPoolConfig} settings used are {@code maxTotal}, which must be positive,
+ * {@code minIdle}, {@code maxIdle}, {@code maxWait}, {@code blockWhenExhausted}, the
+ * {@code testOn*} and {@code testWhileIdle} flags, {@code timeBetweenEvictionRuns},
+ * {@code minEvictableIdleTime} and {@code softMinEvictableIdleTime}. Idle connections are evicted,
+ * and {@code minIdle} and {@code maxIdle} are enforced, by a background thread shared by all pools;
+ * a connection returned beyond {@code maxIdle} stays idle until the next eviction run.
+ * <p>
+ * Connections are returned to the pool by {@link Connection#close()}.
+ */
+public class LockFreeConnectionPool implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(LockFreeConnectionPool.class);
+
+  private static final int EMPTY = 0;
+  private static final int IDLE = 1;
+  private static final int IN_USE = 2;
+
+  private static final long VERSION = 1L << 32;
+  private static final long INDEX_MASK = VERSION - 1;
+
+  private static ScheduledThreadPoolExecutor evictor;
+  private static int evictedPools = 0;
+
+  private final PooledObjectFactory<Connection> factory;
+  private final Slot[] slots;
+  private final int minIdle;
+  private final int maxIdle;
+  private final long maxWaitNanos;
+  private final boolean blockWhenExhausted;
+  private final boolean testOnCreate;
+  private final boolean testOnBorrow;
+  private final boolean testOnReturn;
+  private final boolean testWhileIdle;
+  private final long minEvictableIdleNanos;
+  private final long softMinEvictableIdleNanos;
+
+  /**
+   * Top of the stack of idle slots: a version in the high half, against ABA, and the index of the
+   * top slot plus one in the low half; 0 - for an empty stack.
+   */
+  private final AtomicLong top = new AtomicLong();
+  /**
+   * The index plus one of the slot under each slot in the stack.
+   */
+  private final AtomicIntegerArray next;
+  private final ThreadLocal<Slot> lastReturned = new ThreadLocal<>();
+  private final AtomicInteger total = new AtomicInteger();
+
+  private final SynchronousQueue<Slot> handoff = new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+  /**
+   * Handed over to the waiting threads when a slot is freed, and when the pool is closed.
+   */
+  private final Slot freedSlot = new Slot(this, -1);
+  private final Slot closedSlot = new Slot(this, -1);
+
+  private final ScheduledFuture<?> eviction;
+  private volatile boolean closed = false;
+
+  public LockFreeConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(hostAndPort, clientConfig, new ConnectionPoolConfig());
+  }
+
+  public LockFreeConnectionPool(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+  }
+
+  public LockFreeConnectionPool(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    if (poolConfig.getMaxTotal() <= 0) {
+      throw new IllegalArgumentException("The maximum number of connections must be positive.");
+    }
+    this.factory = factory;
+    this.slots = new Slot[poolConfig.getMaxTotal()];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = new Slot(this, i);
+    }
+    this.next = new AtomicIntegerArray(slots.length);
+    this.minIdle = Math.min(poolConfig.getMinIdle(), slots.length);
+    this.maxIdle = poolConfig.getMaxIdle() < 0 ? slots.length : poolConfig.getMaxIdle();
+    this.maxWaitNanos = toNanos(poolConfig.getMaxWaitDuration());
+    this.blockWhenExhausted = poolConfig.getBlockWhenExhausted();
+    this.testOnCreate = poolConfig.getTestOnCreate();
+    this.testOnBorrow = poolConfig.getTestOnBorrow();
+    this.testOnReturn = poolConfig.getTestOnReturn();
+    this.testWhileIdle = poolConfig.getTestWhileIdle();
+    this.minEvictableIdleNanos = toNanos(poolConfig.getMinEvictableIdleDuration());
+    this.softMinEvictableIdleNanos = toNanos(poolConfig.getSoftMinEvictableIdleDuration());
+
+    final long period = toNanos(poolConfig.getDurationBetweenEvictionRuns());
+    this.eviction = period > 0 ? scheduleEviction(this, period) : null;
+  }
+
+  private static long toNanos(Duration duration) {
+    return duration.isNegative() ? -1 : duration.toNanos();
+  }
+
+  /**
+   * @return a connection, to be closed when done with; waits for one if the pool is exhausted
+   * @throws JedisException if the pool is closed, no connection is returned within
+   * {@code maxWait}, or a new connection can not be made
+   */
+  public Connection getResource() {
+    Slot slot = borrow();
+    Connection connection = slot.pooled.getObject();
+    connection.setHandlingSlot(slot);
+    return connection;
+  }
+
+  private Slot borrow() {
+    long deadline = 0;
+    boolean waited = false;
+    while (true) {
+      if (closed) {
+        throw new JedisException("Could not get a resource from the pool",
+            new IllegalStateException("Pool not open"));
+      }
+      Slot slot = takeIdle();
+      if (slot == null) {
+        slot = reserve();
+      }
+      if (slot == null) {
+        if (!blockWhenExhausted) {
+          throw new JedisException("Could not get a resource from the pool",
+              new NoSuchElementException("Pool exhausted"));
+        }
+        if (!waited) {
+          deadline = System.nanoTime() + maxWaitNanos;
+          waited = true;
+        }
+        slot = await(deadline);
+      }
+      if (slot.pooled == null) {
+        return fill(slot);
+      }
+      if (activate(slot, testOnBorrow)) {
+        return slot;
+      }
+    }
+  }
+
+  /**
+   * @return an idle slot, now in use; <code>null</code> if there is none
+   */
+  private Slot takeIdle() {
+    Slot slot = lastReturned.get();
+    if (slot != null && slot.acquire()) {
+      return slot;
+    }
+    int index;
+    while ((index = pop()) >= 0) {
+      slot = slots[index];
+      slot.inStack = 0;
+      // a slot taken from the stack by the thread which returned it last is pushed again when
+      // returned
+      if (slot.acquire()) {
+        return slot;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return an empty slot, now in use, for a new connection; <code>null</code> if the pool is full
+   */
+  private Slot reserve() {
+    int current;
+    do {
+      current = total.get();
+      if (current >= slots.length) {
+        return null;
+      }
+    } while (!total.compareAndSet(current, current + 1));
+
+    // there are no more slots in use than counted, so an empty slot is left for this one
+    while (true) {
+      for (Slot slot : slots) {
+        if (slot.state == EMPTY && Slot.STATE.compareAndSet(slot, EMPTY, IN_USE)) {
+          return slot;
+        }
+      }
+    }
+  }
+
+  /**
+   * Makes the connection of a reserved slot.
+   */
+  private Slot fill(Slot slot) {
+    try {
+      slot.pooled = factory.makeObject();
+    } catch (Exception e) {
+      release(slot);
+      throw e instanceof JedisException ? (JedisException) e
+          : new JedisException("Could not get a resource from the pool", e);
+    }
+    if (!activate(slot, testOnCreate || testOnBorrow)) {
+      throw new JedisException("Could not get a resource from the pool",
+          new NoSuchElementException("Unable to validate object"));
+    }
+    return slot;
+  }
+
+  /**
+   * Activates, and optionally validates, the connection of a slot in use; destroys it if that fails.
+   */
+  private boolean activate(Slot slot, boolean validate) {
+    try {
+      factory.activateObject(slot.pooled);
+      if (!validate || factory.validateObject(slot.pooled)) {
+        return true;
+      }
+    } catch (Exception e) {
+      logger.debug("Error while activating a pooled connection.", e);
+    }
+    destroy(slot);
+    return false;
+  }
+
+  /**
+   * Waits for an idle slot handed over by a thread returning a connection, or for a slot freed.
+   *
+   * @return a slot in use, with a connection or reserved for one
+   */
+  private Slot await(long deadline) {
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        // a slot returned or freed after this check is handed over, as this thread is counted
+        Slot slot = takeIdle();
+        if (slot == null) {
+          slot = reserve();
+        }
+        if (slot != null) {
+          return slot;
+        }
+        if (maxWaitNanos < 0) {
+          slot = handoff.take();
+        } else {
+          slot = handoff.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+        if (slot == null) {
+          throw new JedisException("Could not get a resource from the pool",
+              new NoSuchElementException("Timeout waiting for idle object"));
+        }
+        if (slot == closedSlot) {
+          throw new JedisException("Could not get a resource from the pool",
+              new IllegalStateException("Pool not open"));
+        }
+        // the slot may be taken by another thread first, then this one looks again
+        if (slot.acquire()) {
+          return slot;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException("Could not get a resource from the pool", e);
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Offers a slot to the waiting threads, while there are some and the slot is still available.
+   */
+  private void handOver(Slot slot) {
+    while (waiters.get() > 0 && !closed
+        && (slot == freedSlot ? total.get() < slots.length : slot.state == IDLE)) {
+      if (handoff.offer(slot)) {
+        return;
+      }
+      // a waiting thread is about to look for a slot, or to poll
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Returns a slot taken from this pool, from {@link Connection#close()}.
+   */
+  void returnSlot(Slot slot, boolean broken) {
+    if (broken || closed) {
+      destroy(slot);
+      return;
+    }
+    try {
+      factory.passivateObject(slot.pooled);
+      if (testOnReturn && !factory.validateObject(slot.pooled)) {
+        destroy(slot);
+        return;
+      }
+    } catch (Exception e) {
+      logger.debug("Error while passivating a pooled connection.", e);
+      destroy(slot);
+      return;
+    }
+    slot.lastUsed = System.nanoTime();
+    if (lastReturned.get() != slot) {
+      lastReturned.set(slot);
+    }
+    putBack(slot);
+  }
+
+  private void putBack(Slot slot) {
+    slot.state = IDLE;
+    if (Slot.IN_STACK.compareAndSet(slot, 0, 1)) {
+      push(slot.index);
+    }
+    if (closed) {
+      // the pool was closed meanwhile, destroying the idle connections before this one
+      if (slot.acquire()) {
+        destroy(slot);
+      }
+      return;
+    }
+    handOver(slot);
+  }
+
+  private void destroy(Slot slot) {
+    final PooledObject<Connection> pooled = slot.pooled;
+    slot.pooled = null;
+    try {
+      factory.destroyObject(pooled);
+    } catch (Exception e) {
+      logger.warn("Error while destroying a pooled connection.", e);
+    }
+    release(slot);
+  }
+
+  private void release(Slot slot) {
+    slot.state = EMPTY;
+    total.decrementAndGet();
+    handOver(freedSlot);
+  }
+
+  private void push(int index) {
+    while (true) {
+      final long current = top.get();
+      next.set(index, (int) current);
+      if (top.compareAndSet(current, ((current + VERSION) & ~INDEX_MASK) | (index + 1))) {
+        return;
+      }
+    }
+  }
+
+  private int pop() {
+    while (true) {
+      final long current = top.get();
+      final int head = (int) current;
+      if (head == 0) {
+        return -1;
+      }
+      final int below = next.get(head - 1);
+      if (top.compareAndSet(current, ((current + VERSION) & ~INDEX_MASK) | (below & INDEX_MASK))) {
+        return head - 1;
+      }
+    }
+  }
+
+  /**
+   * Destroys the connections idle for too long, or failing validation when {@code testWhileIdle},
+   * and those beyond {@code maxIdle}; then makes connections up to {@code minIdle}.
+   */
+  public void evict() {
+    final long now = System.nanoTime();
+    int idle = getNumIdle();
+    for (Slot slot : slots) {
+      if (closed) {
+        return;
+      }
+      if (slot.state != IDLE || !slot.acquire()) {
+        continue;
+      }
+      final long idleNanos = now - slot.lastUsed;
+      if (idle > maxIdle || (minEvictableIdleNanos > 0 && idleNanos > minEvictableIdleNanos)
+          || (softMinEvictableIdleNanos > 0 && idleNanos > softMinEvictableIdleNanos && idle > minIdle)) {
+        destroy(slot);
+        idle--;
+      } else if (testWhileIdle && !activate(slot, true)) {
+        idle--;
+      } else {
+        putBack(slot);
+      }
+    }
+    ensureMinIdle();
+  }
+
+  private void ensureMinIdle() {
+    while (!closed && getNumIdle() < minIdle) {
+      final Slot slot = reserve();
+      if (slot == null) {
+        return;
+      }
+      try {
+        fill(slot);
+      } catch (JedisException e) {
+        logger.warn("Error while making an idle connection.", e);
+        return;
+      }
+      slot.lastUsed = System.nanoTime();
+      putBack(slot);
+    }
+  }
+
+  /**
+   * @return the number of connections borrowed from the pool
+   */
+  public int getNumActive() {
+    int active = 0;
+    for (Slot slot : slots) {
+      if (slot.state == IN_USE) {
+        active++;
+      }
+    }
+    return active;
+  }
+
+  /**
+   * @return the number of idle connections in the pool
+   */
+  public int getNumIdle() {
+    int idle = 0;
+    for (Slot slot : slots) {
+      if (slot.state == IDLE) {
+        idle++;
+      }
+    }
+    return idle;
+  }
+
+  /**
+   * @return the number of threads waiting for a connection
+   */
+  public int getNumWaiters() {
+    return waiters.get();
+  }
+
+  public int getMaxTotal() {
+    return slots.length;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Destroys the idle connections; the borrowed ones are destroyed when returned.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (eviction != null) {
+      cancelEviction(eviction);
+    }
+    for (Slot slot : slots) {
+      if (slot.state == IDLE && slot.acquire()) {
+        destroy(slot);
+      }
+    }
+    while (waiters.get() > 0) {
+      if (!handoff.offer(closedSlot)) {
+        Thread.yield();
+      }
+    }
+  }
+
+  private static synchronized ScheduledFuture<?> scheduleEviction(LockFreeConnectionPool pool,
+      long periodNanos) {
+    if (evictor == null) {
+      evictor = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "jedis-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+      });
+      evictor.setRemoveOnCancelPolicy(true);
+    }
+    evictedPools++;
+    return evictor.scheduleWithFixedDelay(() -> {
+      try {
+        pool.evict();
+      } catch (RuntimeException e) {
+        logger.warn("Error while evicting idle connections.", e);
+      }
+    }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private static synchronized void cancelEviction(ScheduledFuture<?> eviction) {
+    eviction.cancel(false);
+    if (--evictedPools == 0) {
+      evictor.shutdown();
+      evictor = null;
+    }
+  }
+
+  /**
+   * A place for one connection of the pool.
+   */
+  static final class Slot {
+
+    private static final AtomicIntegerFieldUpdater<Slot> STATE
+        = AtomicIntegerFieldUpdater.newUpdater(Slot.class, "state");
+    private static final AtomicIntegerFieldUpdater<Slot> IN_STACK
+        = AtomicIntegerFieldUpdater.newUpdater(Slot.class, "inStack");
+
+    private final LockFreeConnectionPool pool;
+    private final int index;
+    private volatile int state = EMPTY;
+    /**
+     * 1 while the slot is in the stack of idle slots, so that it is never pushed twice.
+     */
+    private volatile int inStack = 0;
+    /**
+     * Written by the thread which has the slot in use, and published by the state.
+     */
+    private PooledObject<Connection> pooled;
+    private long lastUsed;
+
+    private Slot(LockFreeConnectionPool pool, int index) {
+      this.pool = pool;
+      this.index = index;
+    }
+
+    private boolean acquire() {
+      return state == IDLE && STATE.compareAndSet(this, IDLE, IN_USE);
+    }
+
+    void returnConnection(boolean broken) {
+      pool.returnSlot(this, broken);
+    }
+  }
+}
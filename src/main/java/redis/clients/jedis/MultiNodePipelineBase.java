@@ -1,12 +1,20 @@
 package redis.clients.jedis;
 
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.json.JSONArray;
 
 import redis.clients.jedis.args.*;
@@ -17,6 +25,10 @@ import redis.clients.jedis.bloom.CFReserveParams;
 import redis.clients.jedis.commands.PipelineBinaryCommands;
 import redis.clients.jedis.commands.PipelineCommands;
 import redis.clients.jedis.commands.RedisModulePipelineCommands;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
 import redis.clients.jedis.json.JsonSetParams;
 import redis.clients.jedis.json.Path;
 import redis.clients.jedis.json.Path2;
@@ -34,7 +46,18 @@ import redis.clients.jedis.util.KeyValue;
 public abstract class MultiNodePipelineBase implements PipelineCommands, PipelineBinaryCommands,
     RedisModulePipelineCommands, Closeable {
 
-  private final Map<HostAndPort, Queue<Response<?>>> pipelinedResponses;
+  private static final ExecutorService SYNC_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "jedis-pipeline-sync-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  private final Map<HostAndPort, Queue<PipelinedCommand>> pipelinedResponses;
   private final Map<HostAndPort, Connection> connections;
   private volatile boolean synced;
 
@@ -51,13 +74,26 @@ public abstract class MultiNodePipelineBase implements PipelineCommands, Pipelin
 
   protected abstract Connection getConnection(HostAndPort nodeKey);
 
+  /**
+   * @return how many times commands answered with {@code MOVED} or {@code ASK} are re-sent to
+   * their new node on {@link #sync()}; '0' - to leave the redirections as the replies
+   */
+  protected int getMaxRedirections() {
+    return 0;
+  }
+
+  /**
+   * Called for each command answered with {@code MOVED}, before it is re-sent.
+   */
+  protected void onMoved(JedisMovedDataException moved) {
+  }
+
   protected final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
     HostAndPort nodeKey = getNodeKey(commandObject.getArguments());
 
-    Queue<Response<?>> queue;
+    Queue<PipelinedCommand> queue = pipelinedResponses.get(nodeKey);
     Connection connection;
-    if (pipelinedResponses.containsKey(nodeKey)) {
-      queue = pipelinedResponses.get(nodeKey);
+    if (queue != null) {
       connection = connections.get(nodeKey);
     } else {
       queue = new LinkedList<>();
@@ -68,7 +104,7 @@ public abstract class MultiNodePipelineBase implements PipelineCommands, Pipelin
 
     connection.sendCommand(commandObject.getArguments());
     Response<T> response = new Response<>(commandObject.getBuilder());
-    queue.add(response);
+    queue.add(new PipelinedCommand(commandObject.getArguments(), response));
     return response;
   }
 
@@ -80,21 +116,152 @@ public abstract class MultiNodePipelineBase implements PipelineCommands, Pipelin
     }
   }
 
+  /**
+   * Flushes the commands to all nodes first and then reads the replies of the nodes in parallel,
+   * so that syncing costs about one round trip to the slowest node rather than one per node.
+   * <p>
+   * Commands answered with {@code MOVED} or {@code ASK} are then re-sent, if
+   * {@link #getMaxRedirections() enabled}, to their new nodes only, and their original
+   * {@link Response}s are completed with the new replies.
+   */
   public final void sync() {
     if (synced) {
       return;
     }
-    for (Map.Entry<HostAndPort, Queue<Response<?>>> entry : pipelinedResponses.entrySet()) {
-      HostAndPort nodeKey = entry.getKey();
-      Queue<Response<?>> queue = entry.getValue();
-      List<Object> unformatted = connections.get(nodeKey).getMany(queue.size());
-      for (Object o : unformatted) {
-        queue.poll().set(o);
+    Queue<Redirect> redirects = new ConcurrentLinkedQueue<>();
+    readAll(pipelinedResponses, redirects);
+    for (int redirections = 0; !redirects.isEmpty(); redirections++) {
+      if (redirections >= getMaxRedirections()) {
+        for (Redirect redirect : redirects) {
+          redirect.command.response.set(redirect.exception);
+        }
+        break;
+      }
+      for (Redirect redirect : redirects) {
+        if (redirect.exception instanceof JedisMovedDataException) {
+          onMoved((JedisMovedDataException) redirect.exception);
+        }
+      }
+      Map<HostAndPort, Queue<PipelinedCommand>> resent = new LinkedHashMap<>();
+      for (Redirect redirect : redirects) {
+        HostAndPort target = redirect.exception.getTargetNode();
+        Connection connection = connections.get(target);
+        if (connection == null) {
+          connection = getConnection(target);
+          connections.put(target, connection);
+        }
+        Queue<PipelinedCommand> queue = resent.computeIfAbsent(target, node -> new LinkedList<>());
+        if (redirect.exception instanceof JedisAskDataException) {
+          connection.sendCommand(Protocol.Command.ASKING);
+          queue.add(ASKING_COMMAND);
+        }
+        connection.sendCommand(redirect.command.args);
+        queue.add(redirect.command);
       }
+      redirects = new ConcurrentLinkedQueue<>();
+      readAll(resent, redirects);
     }
     synced = true;
   }
 
+  private void readAll(Map<HostAndPort, Queue<PipelinedCommand>> commands,
+      Queue<Redirect> redirects) {
+    for (HostAndPort nodeKey : commands.keySet()) {
+      connections.get(nodeKey).flush();
+    }
+    List<Future<?>> futures = new ArrayList<>(commands.size());
+    Map.Entry<HostAndPort, Queue<PipelinedCommand>> callerEntry = null;
+    RuntimeException failure = null;
+    try {
+      for (Map.Entry<HostAndPort, Queue<PipelinedCommand>> entry : commands.entrySet()) {
+        if (callerEntry == null) {
+          // the calling thread reads one node itself
+          callerEntry = entry;
+        } else {
+          futures.add(SYNC_EXECUTOR.submit(() -> readReplies(entry.getKey(), entry.getValue(),
+              redirects)));
+        }
+      }
+      if (callerEntry != null) {
+        readReplies(callerEntry.getKey(), callerEntry.getValue(), redirects);
+      }
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    // wait for every node, so no connection is still being read once we return
+    boolean interrupted = false;
+    for (Future<?> future : futures) {
+      while (true) {
+        try {
+          future.get();
+          break;
+        } catch (InterruptedException ie) {
+          interrupted = true;
+        } catch (ExecutionException ee) {
+          if (failure == null) {
+            Throwable cause = ee.getCause();
+            failure = cause instanceof RuntimeException ? (RuntimeException) cause
+                : new JedisException(cause);
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void readReplies(HostAndPort nodeKey, Queue<PipelinedCommand> queue,
+      Queue<Redirect> redirects) {
+    List<Builder<?>> builders = new ArrayList<>(queue.size());
+    for (PipelinedCommand command : queue) {
+      builders.add(command.response.getBuilder());
+    }
+    final boolean redirecting = getMaxRedirections() > 0;
+    List<Object> unformatted = connections.get(nodeKey).getMany(builders);
+    for (Object o : unformatted) {
+      PipelinedCommand command = queue.poll();
+      if (command == ASKING_COMMAND) {
+        // an error here shows up as the reply of the redirected command as well
+        continue;
+      }
+      if (redirecting && o instanceof JedisRedirectionException) {
+        redirects.add(new Redirect(command, (JedisRedirectionException) o));
+      } else {
+        command.response.set(o);
+      }
+    }
+  }
+
+  private static final PipelinedCommand ASKING_COMMAND = new PipelinedCommand(
+      new CommandArguments(Protocol.Command.ASKING), new Response<>(BuilderFactory.RAW_OBJECT));
+
+  private static class PipelinedCommand {
+
+    private final CommandArguments args;
+    private final Response<?> response;
+
+    private PipelinedCommand(CommandArguments args, Response<?> response) {
+      this.args = args;
+      this.response = response;
+    }
+  }
+
+  private static class Redirect {
+
+    private final PipelinedCommand command;
+    private final JedisRedirectionException exception;
+
+    private Redirect(PipelinedCommand command, JedisRedirectionException exception) {
+      this.command = command;
+      this.exception = exception;
+    }
+  }
+
   @Override
   public Response<Boolean> exists(String key) {
     return appendCommand(commandObjects.exists(key));
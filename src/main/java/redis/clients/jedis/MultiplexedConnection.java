@@ -0,0 +1,318 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * A {@link Connection} which is shared by many threads at once.
+ * <p>
+ * Commands passed to {@link #executeCommand(CommandObject)} are queued. A single writer thread
+ * drains the queue, writes every queued command and flushes them together, while a single reader
+ * thread matches the replies, in FIFO order, back to the waiting callers. A batch holds at most
+ * {@link JedisClientConfig#getAutoPipelineMaxBatchSize()} commands; with a positive
+ * {@link JedisClientConfig#getAutoPipelineWindowMicros()} the writer waits that long for more
+ * commands before flushing a batch which is not full.
+ * <p>
+ * Blocking commands, transactions and Pub/Sub hold the socket for themselves and so must not be
+ * sent through this connection. Raw {@code sendCommand}/{@code getOne} style calls are not thread
+ * safe either. Since the connection is shared, {@link #close()} does nothing; use
+ * {@link #disconnect()} to release it.
+ */
+public class MultiplexedConnection extends Connection {
+
+  private final BlockingQueue<PendingCommand> submitted = new LinkedBlockingQueue<>();
+  private final BlockingQueue<PendingCommand> inFlight = new LinkedBlockingQueue<>();
+  private final int maxBatchSize;
+  private final long windowNanos;
+  private final BatchMetrics metrics = new BatchMetrics();
+
+  private final Thread writer;
+  private final Thread reader;
+
+  private volatile JedisException failure;
+
+  public MultiplexedConnection(final HostAndPort hostAndPort, final JedisClientConfig clientConfig) {
+    this(new DefaultJedisSocketFactory(hostAndPort, clientConfig), clientConfig);
+  }
+
+  public MultiplexedConnection(final JedisSocketFactory socketFactory,
+      final JedisClientConfig clientConfig) {
+    this(socketFactory, clientConfig, clientConfig.getAutoPipelineMaxBatchSize());
+  }
+
+  public MultiplexedConnection(final JedisSocketFactory socketFactory,
+      final JedisClientConfig clientConfig, final int maxBatchSize) {
+    super(socketFactory, clientConfig);
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("maxBatchSize must be positive.");
+    }
+    this.maxBatchSize = maxBatchSize;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(clientConfig.getAutoPipelineWindowMicros());
+    this.writer = new Thread(this::writeLoop, "jedis-multiplexed-writer-" + socketFactory);
+    this.writer.setDaemon(true);
+    this.reader = new Thread(this::readLoop, "jedis-multiplexed-reader-" + socketFactory);
+    this.reader.setDaemon(true);
+    this.writer.start();
+    this.reader.start();
+  }
+
+  @Override
+  public <T> T executeCommand(final CommandObject<T> commandObject) {
+    return await(submit(commandObject.getArguments(), commandObject.getBuilder()));
+  }
+
+  @Override
+  public Object executeCommand(final CommandArguments args) {
+    return await(submit(args, BuilderFactory.RAW_OBJECT));
+  }
+
+  /**
+   * Queues the command and returns immediately. The returned future is completed once the reply
+   * arrives, on the default asynchronous execution facility of {@link CompletableFuture}.
+   */
+  public <T> CompletableFuture<T> executeCommandAsync(final CommandObject<T> commandObject) {
+    return executeCommandAsync(commandObject, null);
+  }
+
+  /**
+   * Queues the command and returns immediately. The returned future is completed once the reply
+   * arrives, on {@code completionExecutor}, never on the reader thread: a callback may then send
+   * commands through this connection, and wait for their replies. If the executor rejects the
+   * completion, e.g. because it is shut down, the future is completed on the completing thread.
+   *
+   * @param completionExecutor <code>null</code> - for the default asynchronous execution facility
+   * of {@link CompletableFuture}
+   */
+  public <T> CompletableFuture<T> executeCommandAsync(final CommandObject<T> commandObject,
+      final Executor completionExecutor) {
+    final CompletableFuture<T> reply = submit(commandObject.getArguments(), commandObject.getBuilder());
+    final CompletableFuture<T> result = new CompletableFuture<>();
+    final BiConsumer<T, Throwable> complete = (value, error) -> {
+      if (error != null) {
+        result.completeExceptionally(error);
+      } else {
+        result.complete(value);
+      }
+    };
+    if (completionExecutor == null) {
+      reply.whenCompleteAsync(complete);
+    } else {
+      reply.whenCompleteAsync(complete, task -> {
+        try {
+          completionExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+          // the executor is shut down; the caller must still get the reply or the failure
+          task.run();
+        }
+      });
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> CompletableFuture<T> submit(final CommandArguments args, final Builder<T> builder) {
+    if (args.isBlocking()) {
+      throw new JedisException("Blocking commands can not be sent through a multiplexed connection.");
+    }
+    PendingCommand pending = new PendingCommand(args, builder);
+    JedisException fail = failure;
+    if (fail != null) {
+      pending.reply.completeExceptionally(fail);
+      return (CompletableFuture<T>) pending.reply;
+    }
+    submitted.add(pending);
+    // the connection may have failed while we were queueing
+    fail = failure;
+    if (fail != null) {
+      failPending(fail);
+    }
+    return (CompletableFuture<T>) pending.reply;
+  }
+
+  private static <T> T await(final CompletableFuture<T> reply) {
+    try {
+      return reply.get();
+    } catch (ExecutionException ee) {
+      Throwable cause = ee.getCause();
+      if (cause instanceof JedisException) {
+        throw (JedisException) cause;
+      }
+      throw new JedisException(cause);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(ie);
+    }
+  }
+
+  private void writeLoop() {
+    final List<PendingCommand> batch = new ArrayList<>();
+    try {
+      while (failure == null) {
+        batch.add(submitted.take());
+        submitted.drainTo(batch, maxBatchSize - 1);
+        if (windowNanos > 0) {
+          lingerForMore(batch);
+        }
+        for (PendingCommand pending : batch) {
+          // must be visible to the reader before the reply can possibly arrive
+          inFlight.add(pending);
+          sendCommand(pending.args);
+        }
+        flush();
+        metrics.record(batch.size());
+        batch.clear();
+      }
+    } catch (InterruptedException ie) {
+      // disconnecting
+    } catch (RuntimeException re) {
+      fail(re);
+    } finally {
+      // a batch being written when the connection failed, and commands queued after failPending
+      // ran, would otherwise never complete
+      JedisException fail = failure;
+      if (fail != null) {
+        for (PendingCommand pending : batch) {
+          pending.reply.completeExceptionally(fail);
+        }
+        failPending(fail);
+      }
+    }
+  }
+
+  private void lingerForMore(final List<PendingCommand> batch) throws InterruptedException {
+    final long deadline = System.nanoTime() + windowNanos;
+    while (batch.size() < maxBatchSize) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return;
+      }
+      final PendingCommand next = submitted.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+      submitted.drainTo(batch, maxBatchSize - batch.size());
+    }
+  }
+
+  private void readLoop() {
+    PendingCommand pending = null;
+    try {
+      while (failure == null) {
+        pending = inFlight.take();
+        try {
+          pending.reply.complete(decodeWithCheckingBroken(pending.builder));
+        } catch (JedisConnectionException jce) {
+          throw jce;
+        } catch (RuntimeException re) {
+          // error reply, or the builder failed after the reply was consumed
+          pending.reply.completeExceptionally(re);
+        }
+        pending = null;
+      }
+    } catch (InterruptedException ie) {
+      // disconnecting
+    } catch (RuntimeException re) {
+      if (pending != null) {
+        pending.reply.completeExceptionally(re);
+      }
+      fail(re);
+    } finally {
+      JedisException fail = failure;
+      if (fail != null) {
+        failPending(fail);
+      }
+    }
+  }
+
+  private void fail(RuntimeException cause) {
+    JedisException fail = cause instanceof JedisException ? (JedisException) cause
+        : new JedisConnectionException(cause);
+    if (failure == null) {
+      failure = fail;
+    }
+    setBroken();
+    // the other loop may be parked on its queue
+    writer.interrupt();
+    reader.interrupt();
+    failPending(failure);
+  }
+
+  private void failPending(JedisException cause) {
+    PendingCommand pending;
+    while ((pending = inFlight.poll()) != null) {
+      pending.reply.completeExceptionally(cause);
+    }
+    while ((pending = submitted.poll()) != null) {
+      pending.reply.completeExceptionally(cause);
+    }
+  }
+
+  /**
+   * @return sizes of the batches written so far
+   */
+  public BatchMetrics getBatchMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return number of commands which are either queued or waiting for their replies
+   */
+  public int getPendingCommandCount() {
+    return submitted.size() + inFlight.size();
+  }
+
+  @Override
+  public boolean isBroken() {
+    return failure != null || super.isBroken();
+  }
+
+  /**
+   * Does nothing, as this connection is shared. Use {@link #disconnect()} to release it.
+   */
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public void disconnect() {
+    if (writer == null) {
+      // failed while initializing, before any thread was started
+      super.disconnect();
+      return;
+    }
+    if (failure == null) {
+      failure = new JedisConnectionException("Multiplexed connection is closed.");
+    }
+    writer.interrupt();
+    reader.interrupt();
+    try {
+      super.disconnect();
+    } finally {
+      failPending(failure);
+    }
+  }
+
+  private static class PendingCommand {
+
+    private final CommandArguments args;
+    private final Builder<?> builder;
+    private final CompletableFuture<Object> reply = new CompletableFuture<>();
+
+    private PendingCommand(CommandArguments args, Builder<?> builder) {
+      this.args = args;
+      this.builder = builder;
+    }
+  }
+}
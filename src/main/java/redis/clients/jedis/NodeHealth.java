@@ -0,0 +1,164 @@
+package redis.clients.jedis;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Outcomes of the recent operations on a node, and the state of its circuit breaker. See
+ * {@link NodeHealthTracker}.
+ */
+public final class NodeHealth {
+
+  public enum State {
+    /**
+     * Requests are let through.
+     */
+    CLOSED,
+    /**
+     * Requests fail fast.
+     */
+    OPEN,
+    /**
+     * A single trial request was let through; its outcome closes or opens the circuit again.
+     */
+    HALF_OPEN
+  }
+
+  private static final int BUCKETS = 10;
+
+  private final NodeHealthTracker tracker;
+  private final long bucketNanos;
+  private final AtomicLongArray successes = new AtomicLongArray(BUCKETS);
+  private final AtomicLongArray failures = new AtomicLongArray(BUCKETS);
+  private final AtomicLongArray bucketIds = new AtomicLongArray(BUCKETS);
+
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile long lastSuccessMillis = 0;
+
+  private volatile State state = State.CLOSED;
+  private final AtomicLong openedAt = new AtomicLong();
+
+  NodeHealth(NodeHealthTracker tracker) {
+    this.tracker = tracker;
+    this.bucketNanos = tracker.getWindow().toNanos() / BUCKETS;
+    for (int i = 0; i < BUCKETS; i++) {
+      bucketIds.set(i, Long.MIN_VALUE);
+    }
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  /**
+   * @return ratio of failed operations in the window of the tracker; 0 if there were none
+   */
+  public double getErrorRate() {
+    final long current = System.nanoTime() / bucketNanos;
+    long success = 0, failure = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (bucketIds.get(i) > current - BUCKETS) {
+        success += successes.get(i);
+        failure += failures.get(i);
+      }
+    }
+    return success + failure == 0 ? 0 : (double) failure / (success + failure);
+  }
+
+  /**
+   * @return number of operations in the window of the tracker
+   */
+  public long getCallCount() {
+    final long current = System.nanoTime() / bucketNanos;
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      if (bucketIds.get(i) > current - BUCKETS) {
+        count += successes.get(i) + failures.get(i);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return number of connection failures and timeouts since the latest success
+   */
+  public int getConsecutiveFailures() {
+    return consecutiveFailures.get();
+  }
+
+  /**
+   * @return time of the latest success, in milliseconds since the epoch; 0 if none
+   */
+  public long getLastSuccessMillis() {
+    return lastSuccessMillis;
+  }
+
+  /**
+   * @return whether a request may be sent now. Once the open duration of an open circuit has
+   * passed, this lets a single trial request through.
+   */
+  public boolean allowRequest() {
+    if (state == State.CLOSED) {
+      return true;
+    }
+    final long opened = openedAt.get();
+    final long now = System.nanoTime();
+    if (now - opened >= tracker.getOpenDuration().toNanos() && openedAt.compareAndSet(opened, now)) {
+      state = State.HALF_OPEN;
+      return true;
+    }
+    return false;
+  }
+
+  void recordSuccess() {
+    count(successes);
+    consecutiveFailures.set(0);
+    lastSuccessMillis = System.currentTimeMillis();
+    if (state != State.CLOSED) {
+      state = State.CLOSED;
+    }
+  }
+
+  /**
+   * @return whether this failure opened the circuit
+   */
+  boolean recordFailure() {
+    count(failures);
+    final int consecutive = consecutiveFailures.incrementAndGet();
+    if (state == State.OPEN || !tracker.isCircuitBreaking()) {
+      return false;
+    }
+    if (state == State.HALF_OPEN || consecutive >= tracker.getFailureThreshold()
+        || (getCallCount() >= tracker.getMinimumCalls()
+            && getErrorRate() >= tracker.getErrorRateThreshold())) {
+      synchronized (this) {
+        if (state == State.OPEN) {
+          return false;
+        }
+        openedAt.set(System.nanoTime());
+        state = State.OPEN;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void count(AtomicLongArray counts) {
+    final long bucket = System.nanoTime() / bucketNanos;
+    final int index = (int) Math.floorMod(bucket, (long) BUCKETS);
+    final long id = bucketIds.get(index);
+    if (id != bucket && bucketIds.compareAndSet(index, id, bucket)) {
+      // the bucket is reused for a new period
+      successes.set(index, 0);
+      failures.set(index, 0);
+    }
+    counts.incrementAndGet(index);
+  }
+
+  @Override
+  public String toString() {
+    return "NodeHealth{state=" + state + ", errorRate=" + getErrorRate() + ", consecutiveFailures="
+        + getConsecutiveFailures() + ", lastSuccess=" + lastSuccessMillis + "}";
+  }
+}
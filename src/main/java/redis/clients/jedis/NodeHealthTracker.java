@@ -0,0 +1,124 @@
+package redis.clients.jedis;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the {@link NodeHealth} of the nodes a provider connects to, and drives a circuit breaker
+ * per node: after too many consecutive failures, or a too high error rate over the window, the
+ * circuit of the node opens and requests to it fail fast for the open duration. A single trial
+ * request is then let through, which closes the circuit on success.
+ */
+public class NodeHealthTracker {
+
+  public static final Duration DEFAULT_WINDOW = Duration.ofSeconds(10);
+
+  private final int failureThreshold;
+  private final double errorRateThreshold;
+  private final int minimumCalls;
+  private final Duration window;
+  private final Duration openDuration;
+  private final boolean circuitBreaking;
+
+  private final Map<HostAndPort, NodeHealth> nodes = new ConcurrentHashMap<>();
+
+  /**
+   * Only tracks the health of the nodes; the circuits never open.
+   */
+  public NodeHealthTracker() {
+    this.failureThreshold = Integer.MAX_VALUE;
+    this.errorRateThreshold = Double.MAX_VALUE;
+    this.minimumCalls = Integer.MAX_VALUE;
+    this.window = DEFAULT_WINDOW;
+    this.openDuration = Duration.ZERO;
+    this.circuitBreaking = false;
+  }
+
+  /**
+   * @param failureThreshold consecutive failures which open the circuit
+   * @param errorRateThreshold error rate over the window which opens the circuit, between 0 and 1
+   * @param minimumCalls calls in the window needed before the error rate is considered
+   * @param window how far back the error rate looks
+   * @param openDuration how long requests fail fast before a trial request is let through
+   */
+  public NodeHealthTracker(int failureThreshold, double errorRateThreshold, int minimumCalls,
+      Duration window, Duration openDuration) {
+    if (failureThreshold <= 0 || minimumCalls <= 0) {
+      throw new IllegalArgumentException("The thresholds must be positive.");
+    }
+    if (window.toNanos() < 10 || openDuration.isNegative()) {
+      throw new IllegalArgumentException("Invalid window or open duration.");
+    }
+    this.failureThreshold = failureThreshold;
+    this.errorRateThreshold = errorRateThreshold;
+    this.minimumCalls = minimumCalls;
+    this.window = window;
+    this.openDuration = openDuration;
+    this.circuitBreaking = true;
+  }
+
+  public NodeHealth get(HostAndPort node) {
+    NodeHealth health = nodes.get(node);
+    return health != null ? health : nodes.computeIfAbsent(node, n -> new NodeHealth(this));
+  }
+
+  /**
+   * @return whether a request may be sent to the node now
+   * @see NodeHealth#allowRequest()
+   */
+  public boolean allowRequest(HostAndPort node) {
+    return get(node).allowRequest();
+  }
+
+  /**
+   * @return whether requests to the node are let through, without taking the trial request of an
+   * open circuit
+   */
+  public boolean isAvailable(HostAndPort node) {
+    NodeHealth health = nodes.get(node);
+    return health == null || health.getState() == NodeHealth.State.CLOSED;
+  }
+
+  public void recordSuccess(HostAndPort node) {
+    get(node).recordSuccess();
+  }
+
+  /**
+   * @return whether this failure opened the circuit of the node
+   */
+  public boolean recordFailure(HostAndPort node) {
+    return get(node).recordFailure();
+  }
+
+  /**
+   * Forgets a node which left.
+   */
+  public void remove(HostAndPort node) {
+    nodes.remove(node);
+  }
+
+  public boolean isCircuitBreaking() {
+    return circuitBreaking;
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  public double getErrorRateThreshold() {
+    return errorRateThreshold;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  public Duration getWindow() {
+    return window;
+  }
+
+  public Duration getOpenDuration() {
+    return openDuration;
+  }
+}
@@ -1,10 +1,15 @@
 package redis.clients.jedis;
 
 import java.io.Closeable;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import org.json.JSONArray;
 
 import redis.clients.jedis.args.*;
@@ -53,7 +58,7 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     this.commandObjects = new CommandObjects();
   }
 
-  public final <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+  public <T> Response<T> appendCommand(CommandObject<T> commandObject) {
     connection.sendCommand(commandObject.getArguments());
     return enqueResponse(commandObject.getBuilder());
   }
@@ -70,7 +75,7 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
    */
   public void sync() {
     if (!hasPipelinedResponse()) return;
-    List<Object> unformatted = connection.getMany(getPipelinedResponseLength());
+    List<Object> unformatted = connection.getMany(getPipelinedBuilders());
     for (Object o : unformatted) {
       generateResponse(o);
     }
@@ -84,7 +89,7 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
    */
   public List<Object> syncAndReturnAll() {
     if (hasPipelinedResponse()) {
-      List<Object> unformatted = connection.getMany(getPipelinedResponseLength());
+      List<Object> unformatted = connection.getMany(getPipelinedBuilders());
       List<Object> formatted = new ArrayList<>();
       for (Object o : unformatted) {
         try {
@@ -524,6 +529,14 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.lrange(key, start, stop));
   }
 
+  /**
+   * Passes the elements to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of elements
+   */
+  public Response<Long> lrange(String key, long start, long stop, Consumer<String> consumer) {
+    return appendCommand(commandObjects.lrange(key, start, stop, consumer));
+  }
+
   @Override
   public Response<String> ltrim(String key, long start, long stop) {
     return appendCommand(commandObjects.ltrim(key, start, stop));
@@ -744,6 +757,15 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Passes the fields and values to {@code consumer} one at a time, as they are read from the
+   * connection.
+   * @return number of fields
+   */
+  public Response<Long> hgetAll(String key, BiConsumer<String, String> consumer) {
+    return appendCommand(commandObjects.hgetAll(key, consumer));
+  }
+
   @Override
   public Response<String> hrandfield(String key) {
     return appendCommand(commandObjects.hrandfield(key));
@@ -934,6 +956,14 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.zrangeWithScores(key, start, stop));
   }
 
+  /**
+   * Passes the members to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of members
+   */
+  public Response<Long> zrangeWithScores(String key, long start, long stop, Consumer<Tuple> consumer) {
+    return appendCommand(commandObjects.zrangeWithScores(key, start, stop, consumer));
+  }
+
   @Override
   public Response<List<Tuple>> zrevrangeWithScores(String key, long start, long stop) {
     return appendCommand(commandObjects.zrevrangeWithScores(key, start, stop));
@@ -2003,6 +2033,15 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Passes the fields and values to {@code consumer} one at a time, as they are read from the
+   * connection.
+   * @return number of fields
+   */
+  public Response<Long> hgetAll(byte[] key, BiConsumer<byte[], byte[]> consumer) {
+    return appendCommand(commandObjects.hgetAll(key, consumer));
+  }
+
   @Override
   public Response<byte[]> hrandfield(byte[] key) {
     return appendCommand(commandObjects.hrandfield(key));
@@ -2083,6 +2122,22 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.restore(key, ttl, serializedValue, params));
   }
 
+  public Response<String> restore(String key, long ttl, Rawable serializedValue) {
+    return appendCommand(commandObjects.restore(key, ttl, serializedValue));
+  }
+
+  public Response<String> restore(String key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return appendCommand(commandObjects.restore(key, ttl, serializedValue, params));
+  }
+
+  public Response<String> restore(byte[] key, long ttl, Rawable serializedValue) {
+    return appendCommand(commandObjects.restore(key, ttl, serializedValue));
+  }
+
+  public Response<String> restore(byte[] key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return appendCommand(commandObjects.restore(key, ttl, serializedValue, params));
+  }
+
   @Override
   public Response<Long> expire(byte[] key, long seconds) {
     return appendCommand(commandObjects.expire(key, seconds));
@@ -2298,6 +2353,14 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.lrange(key, start, stop));
   }
 
+  /**
+   * Passes the elements to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of elements
+   */
+  public Response<Long> lrange(byte[] key, long start, long stop, Consumer<byte[]> consumer) {
+    return appendCommand(commandObjects.lrange(key, start, stop, consumer));
+  }
+
   @Override
   public Response<String> ltrim(byte[] key, long start, long stop) {
     return appendCommand(commandObjects.ltrim(key, start, stop));
@@ -2681,6 +2744,14 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.zrangeWithScores(key, start, stop));
   }
 
+  /**
+   * Passes the members to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of members
+   */
+  public Response<Long> zrangeWithScores(byte[] key, long start, long stop, Consumer<Tuple> consumer) {
+    return appendCommand(commandObjects.zrangeWithScores(key, start, stop, consumer));
+  }
+
   @Override
   public Response<List<Tuple>> zrevrangeWithScores(byte[] key, long start, long stop) {
     return appendCommand(commandObjects.zrevrangeWithScores(key, start, stop));
@@ -3147,11 +3218,75 @@ public class Pipeline extends Queable implements PipelineCommands, PipelineBinar
     return appendCommand(commandObjects.set(key, value, params));
   }
 
+  public Response<String> set(String key, Rawable value) {
+    return appendCommand(commandObjects.set(key, value));
+  }
+
+  public Response<String> set(String key, Rawable value, SetParams params) {
+    return appendCommand(commandObjects.set(key, value, params));
+  }
+
+  public Response<String> set(byte[] key, Rawable value) {
+    return appendCommand(commandObjects.set(key, value));
+  }
+
+  public Response<String> set(byte[] key, Rawable value, SetParams params) {
+    return appendCommand(commandObjects.set(key, value, params));
+  }
+
   @Override
   public Response<byte[]> get(byte[] key) {
     return appendCommand(commandObjects.get(key));
   }
 
+  /**
+   * Streams the value of the key into {@code out} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Response<Long> getTo(String key, OutputStream out) {
+    return appendCommand(commandObjects.getTo(key, out));
+  }
+
+  /**
+   * Streams the value of the key into {@code out} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Response<Long> getTo(byte[] key, OutputStream out) {
+    return appendCommand(commandObjects.getTo(key, out));
+  }
+
+  /**
+   * Streams the value of the key into {@code channel} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Response<Long> getTo(String key, WritableByteChannel channel) {
+    return appendCommand(commandObjects.getTo(key, channel));
+  }
+
+  /**
+   * Streams the value of the key into {@code channel} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Response<Long> getTo(byte[] key, WritableByteChannel channel) {
+    return appendCommand(commandObjects.getTo(key, channel));
+  }
+
+  /**
+   * Copies the value of the key into {@code buffer}, which must have enough space remaining.
+   * @return number of bytes copied, or {@code null} if the key does not exist
+   */
+  public Response<Long> getInto(String key, ByteBuffer buffer) {
+    return appendCommand(commandObjects.getInto(key, buffer));
+  }
+
+  /**
+   * Copies the value of the key into {@code buffer}, which must have enough space remaining.
+   * @return number of bytes copied, or {@code null} if the key does not exist
+   */
+  public Response<Long> getInto(byte[] key, ByteBuffer buffer) {
+    return appendCommand(commandObjects.getInto(key, buffer));
+  }
+
   @Override
   public Response<byte[]> getDel(byte[] key) {
     return appendCommand(commandObjects.getDel(key));
@@ -1,15 +1,23 @@
 package redis.clients.jedis;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Consumer;
 
 import redis.clients.jedis.exceptions.*;
 import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.StreamingRawable;
 import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.util.KeyValue;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -31,6 +39,18 @@ public final class Protocol {
   public static final byte MINUS_BYTE = '-';
   public static final byte COLON_BYTE = ':';
 
+  // RESP3 only
+  public static final byte UNDERSCORE_BYTE = '_';
+  public static final byte COMMA_BYTE = ',';
+  public static final byte HASH_BYTE = '#';
+  public static final byte LEFT_PARENTHESIS_BYTE = '(';
+  public static final byte EXCLAMATION_BYTE = '!';
+  public static final byte EQUAL_BYTE = '=';
+  public static final byte PERCENT_BYTE = '%';
+  public static final byte TILDE_BYTE = '~';
+  public static final byte GREATER_THAN_BYTE = '>';
+  public static final byte PIPE_BYTE = '|';
+
   public static final byte[] BYTES_TRUE = toByteArray(1);
   public static final byte[] BYTES_FALSE = toByteArray(0);
   public static final byte[] BYTES_TILDE = SafeEncoder.encode("~");
@@ -58,6 +78,13 @@ public final class Protocol {
       os.writeIntCrLf(args.size());
       for (Rawable arg : args) {
         os.write(DOLLAR_BYTE);
+        if (arg instanceof StreamingRawable) {
+          final StreamingRawable streaming = (StreamingRawable) arg;
+          os.writeIntCrLf(streaming.length());
+          streaming.writeTo(os);
+          os.writeCrLf();
+          continue;
+        }
         final byte[] bin = arg.getRaw();
         os.writeIntCrLf(bin.length);
         os.write(bin);
@@ -69,7 +96,10 @@ public final class Protocol {
   }
 
   private static void processError(final RedisInputStream is) {
-    String message = is.readLine();
+    processError(is.readLine());
+  }
+
+  private static void processError(final String message) {
     // TODO: I'm not sure if this is the best way to do this.
     // Maybe Read only first 5 bytes instead?
     if (message.startsWith(MOVED_PREFIX)) {
@@ -123,7 +153,10 @@ public final class Protocol {
   }
 
   private static Object process(final RedisInputStream is) {
-    final byte b = is.readByte();
+    return process(is.readByte(), is);
+  }
+
+  private static Object process(final byte b, final RedisInputStream is) {
     switch (b) {
       case PLUS_BYTE:
         return processStatusCodeReply(is);
@@ -136,6 +169,32 @@ public final class Protocol {
       case MINUS_BYTE:
         processError(is);
         return null;
+      // RESP3 types
+      case UNDERSCORE_BYTE:
+        is.readLineBytes();
+        return null;
+      case COMMA_BYTE:
+        return processDouble(is);
+      case HASH_BYTE:
+        return processBoolean(is);
+      case LEFT_PARENTHESIS_BYTE:
+        return new BigInteger(is.readLine());
+      case EXCLAMATION_BYTE:
+        processError(SafeEncoder.encode(processBulkReply(is)));
+        return null;
+      case EQUAL_BYTE:
+        return processVerbatimReply(is);
+      case PERCENT_BYTE:
+        return processMapReply(is);
+      case TILDE_BYTE:
+      case GREATER_THAN_BYTE:
+        // sets and push messages are handled like arrays; pushes are only read as such by
+        // Connection, which keeps them apart from the replies
+        return processMultiBulkReply(is);
+      case PIPE_BYTE:
+        // attributes are not exposed; skip them and return the reply they decorate
+        processMapReply(is);
+        return process(is);
       default:
         throw new JedisConnectionException("Unknown reply: " + (char) b);
     }
@@ -172,6 +231,60 @@ public final class Protocol {
     return is.readLongCrLf();
   }
 
+  private static Double processDouble(final RedisInputStream is) {
+    final String value = is.readLine();
+    switch (value) {
+      case "inf":
+        return Double.POSITIVE_INFINITY;
+      case "-inf":
+        return Double.NEGATIVE_INFINITY;
+      case "nan":
+        return Double.NaN;
+      default:
+        return Double.valueOf(value);
+    }
+  }
+
+  private static Boolean processBoolean(final RedisInputStream is) {
+    final byte b = is.readByte();
+    // read 2 more bytes for the command delimiter
+    is.readByte();
+    is.readByte();
+    switch (b) {
+      case 't':
+        return Boolean.TRUE;
+      case 'f':
+        return Boolean.FALSE;
+      default:
+        throw new JedisConnectionException("Unexpected boolean reply: " + (char) b);
+    }
+  }
+
+  private static byte[] processVerbatimReply(final RedisInputStream is) {
+    final byte[] read = processBulkReply(is);
+    // strip the three letter format and the colon, e.g. "txt:"
+    return read == null ? null : Arrays.copyOfRange(read, 4, read.length);
+  }
+
+  private static List<KeyValue<Object, Object>> processMapReply(final RedisInputStream is) {
+    final int num = is.readIntCrLf();
+    if (num == -1) {
+      return null;
+    }
+    final List<KeyValue<Object, Object>> ret = new ArrayList<>(num);
+    for (int i = 0; i < num; i++) {
+      final Object key = process(is);
+      Object value;
+      try {
+        value = process(is);
+      } catch (JedisDataException e) {
+        value = e;
+      }
+      ret.add(new KeyValue<>(key, value));
+    }
+    return ret;
+  }
+
   private static List<Object> processMultiBulkReply(final RedisInputStream is) {
     final int num = is.readIntCrLf();
     if (num == -1) {
@@ -192,6 +305,148 @@ public final class Protocol {
     return process(is);
   }
 
+  /**
+   * Reads the rest of a reply whose type byte has already been read, e.g. by a
+   * {@link Builder#decode(RedisInputStream)} which found an unexpected reply type.
+   */
+  public static Object read(final byte type, final RedisInputStream is) {
+    return process(type, is);
+  }
+
+  /**
+   * Reads the header of a bulk reply, leaving its payload in the stream.
+   * @return length of the payload, or -1 for a nil reply
+   */
+  private static int readBulkLength(final RedisInputStream is) {
+    final byte b = is.readByte();
+    switch (b) {
+      case DOLLAR_BYTE:
+        return is.readIntCrLf();
+      case UNDERSCORE_BYTE:
+        is.readLineBytes();
+        return -1;
+      default:
+        // errors are thrown from here, anything else is consumed to keep the stream in sync
+        Object reply = process(b, is);
+        throw new JedisDataException("Expected a bulk reply but got: " + (char) b + " "
+            + SafeEncoder.encodeObject(reply));
+    }
+  }
+
+  /**
+   * Reads an array (or RESP3 set or map) reply one element at a time, handing every element to
+   * {@code consumer} as soon as it is parsed, so that the whole reply is never held in memory. The
+   * keys and values of a map are passed as consecutive elements, like in RESP2. Error elements are
+   * passed as {@link JedisDataException}s. If the consumer throws, the rest of the reply is
+   * discarded before the exception is rethrown.
+   * @return number of elements, or -1 for a nil reply
+   */
+  public static int readMultiBulkReply(final RedisInputStream is, final Consumer<Object> consumer) {
+    final byte b = is.readByte();
+    final int num;
+    switch (b) {
+      case ASTERISK_BYTE:
+      case TILDE_BYTE:
+        num = is.readIntCrLf();
+        break;
+      case PERCENT_BYTE:
+        num = is.readIntCrLf() * 2;
+        break;
+      case UNDERSCORE_BYTE:
+        is.readLineBytes();
+        return -1;
+      default:
+        // errors are thrown from here, anything else is consumed to keep the stream in sync
+        Object reply = process(b, is);
+        throw new JedisDataException("Expected a multi bulk reply but got: " + (char) b + " "
+            + SafeEncoder.encodeObject(reply));
+    }
+    RuntimeException consumerFailure = null;
+    for (int i = 0; i < num; i++) {
+      Object element;
+      try {
+        element = process(is);
+      } catch (JedisDataException e) {
+        element = e;
+      }
+      if (consumerFailure == null) {
+        try {
+          consumer.accept(element);
+        } catch (RuntimeException e) {
+          consumerFailure = e;
+        }
+      }
+    }
+    if (consumerFailure != null) {
+      throw consumerFailure;
+    }
+    return num;
+  }
+
+  private static void readCrLf(final RedisInputStream is) {
+    is.readByte();
+    is.readByte();
+  }
+
+  /**
+   * Streams a bulk reply into {@code out} without holding the whole value in memory.
+   * @return number of bytes written, or -1 for a nil reply
+   */
+  public static long readBulkReplyTo(final RedisInputStream is, final OutputStream out) {
+    final int len = readBulkLength(is);
+    if (len == -1) {
+      return -1;
+    }
+    try {
+      is.readTo(out, len);
+    } catch (IOException e) {
+      readCrLf(is);
+      throw new JedisDataException("Could not write the reply.", e);
+    }
+    readCrLf(is);
+    return len;
+  }
+
+  /**
+   * Streams a bulk reply into a blocking {@code channel} without holding the whole value in memory.
+   * @return number of bytes written, or -1 for a nil reply
+   */
+  public static long readBulkReplyTo(final RedisInputStream is, final WritableByteChannel channel) {
+    final int len = readBulkLength(is);
+    if (len == -1) {
+      return -1;
+    }
+    try {
+      is.readTo(channel, len);
+    } catch (IOException e) {
+      readCrLf(is);
+      throw new JedisDataException("Could not write the reply.", e);
+    }
+    readCrLf(is);
+    return len;
+  }
+
+  /**
+   * Copies a bulk reply into {@code buffer}. If the reply does not fit, it is discarded and a
+   * {@link JedisDataException} is thrown.
+   * @return number of bytes copied, or -1 for a nil reply
+   */
+  public static long readBulkReplyInto(final RedisInputStream is, final ByteBuffer buffer) {
+    final int len = readBulkLength(is);
+    if (len == -1) {
+      return -1;
+    }
+    if (buffer.remaining() < len) {
+      is.skipBytes(len);
+      readCrLf(is);
+      throw new JedisDataException("Reply of " + len + " bytes does not fit in the buffer ("
+          + buffer.remaining() + " bytes remaining).");
+    }
+    is.readTo(buffer, len);
+    readCrLf(is);
+    return len;
+  }
+
   public static final byte[] toByteArray(final boolean value) {
     return value ? BYTES_TRUE : BYTES_FALSE;
   }
@@ -237,7 +492,7 @@ public final class Protocol {
     XADD, XLEN, XDEL, XTRIM, XRANGE, XREVRANGE, XREAD, XACK, XGROUP, XREADGROUP, XPENDING, XCLAIM,
     XAUTOCLAIM, XINFO, BITFIELD_RO, ROLE, FAILOVER, GEOSEARCH, GEOSEARCHSTORE, EVAL_RO, EVALSHA_RO,
     LOLWUT, EXPIRETIME, PEXPIRETIME, FUNCTION, FCALL, FCALL_RO, LMPOP, BLMPOP, ZMPOP, BZMPOP,
-    COMMAND, @Deprecated STRALGO;
+    COMMAND, HELLO, @Deprecated STRALGO;
 
     private final byte[] raw;
 
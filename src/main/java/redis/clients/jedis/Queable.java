@@ -1,6 +1,8 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 
 public class Queable {
@@ -25,6 +27,14 @@ public class Queable {
     return lr;
   }
 
+  protected final List<Builder<?>> getPipelinedBuilders() {
+    List<Builder<?>> builders = new ArrayList<>(pipelinedResponses.size());
+    for (Response<?> response : pipelinedResponses) {
+      builders.add(response.getBuilder());
+    }
+    return builders;
+  }
+
   protected final int getPipelinedResponseLength() {
     return pipelinedResponses.size();
   }
@@ -0,0 +1,165 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Chooses the node a read-only command of a cluster is sent to, among the master and the replicas
+ * of its hash slot. Commands that write, or that are not bound to a slot, always go to the master.
+ */
+public interface ReadFrom {
+
+  /**
+   * Always read from the master.
+   */
+  ReadFrom MASTER = (master, replicas) -> master;
+
+  /**
+   * Read from a random replica; from the master if the slot has no replica.
+   */
+  ReadFrom REPLICA_PREFERRED = (master, replicas) -> replicas.isEmpty() ? master
+      : replicas.get(ThreadLocalRandom.current().nextInt(replicas.size()));
+
+  /**
+   * @param master master of the slot
+   * @param replicas replicas of the slot, possibly empty
+   * @return the node to read from
+   */
+  HostAndPort select(HostAndPort master, List<HostAndPort> replicas);
+
+  /**
+   * Called with the time a command took on {@code node}, including the network round trip.
+   */
+  default void recordLatency(HostAndPort node, long nanos) {
+  }
+
+  /**
+   * Called when the connection to {@code node} failed.
+   */
+  default void recordFailure(HostAndPort node) {
+  }
+
+  /**
+   * @return a policy reading from the master and the replicas of a slot in turn
+   */
+  static ReadFrom roundRobin() {
+    return new RoundRobin();
+  }
+
+  /**
+   * @param weight weight of the latest sample in the moving average, between 0 and 1
+   * @param penaltyMillis how long a node is left out after a connection failure
+   * @return a policy reading from the node with the lowest exponentially weighted moving average
+   * of latency. Nodes without samples yet are preferred, so that every node gets measured.
+   */
+  static ReadFrom lowestLatency(double weight, long penaltyMillis) {
+    return new LowestLatency(weight, penaltyMillis);
+  }
+
+  /**
+   * @param zoneOf the zone of a node, e.g. from a naming convention of its host
+   * @param zone the zone of this client
+   * @return a policy reading from a random replica in the same zone; from the master if no
+   * replica of the slot is in the same zone
+   */
+  static ReadFrom sameZone(Function<HostAndPort, String> zoneOf, String zone) {
+    return (master, replicas) -> {
+      List<HostAndPort> local = new ArrayList<>(replicas.size());
+      for (HostAndPort replica : replicas) {
+        if (zone.equals(zoneOf.apply(replica))) {
+          local.add(replica);
+        }
+      }
+      return local.isEmpty() ? master
+          : local.get(ThreadLocalRandom.current().nextInt(local.size()));
+    };
+  }
+
+  final class RoundRobin implements ReadFrom {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private RoundRobin() {
+    }
+
+    @Override
+    public HostAndPort select(HostAndPort master, List<HostAndPort> replicas) {
+      final int index = Math.floorMod(counter.getAndIncrement(), replicas.size() + 1);
+      return index == replicas.size() ? master : replicas.get(index);
+    }
+  }
+
+  final class LowestLatency implements ReadFrom {
+
+    private final double weight;
+    private final long penaltyNanos;
+    private final Map<HostAndPort, Latency> latencies = new ConcurrentHashMap<>();
+
+    private LowestLatency(double weight, long penaltyMillis) {
+      if (weight <= 0 || weight > 1) {
+        throw new IllegalArgumentException("weight must be in (0, 1].");
+      }
+      this.weight = weight;
+      this.penaltyNanos = TimeUnit.MILLISECONDS.toNanos(penaltyMillis);
+    }
+
+    @Override
+    public HostAndPort select(HostAndPort master, List<HostAndPort> replicas) {
+      final long now = System.nanoTime();
+      HostAndPort best = master;
+      double bestLatency = latencyOf(master, now);
+      for (HostAndPort replica : replicas) {
+        final double latency = latencyOf(replica, now);
+        if (latency < bestLatency) {
+          best = replica;
+          bestLatency = latency;
+        }
+      }
+      return best;
+    }
+
+    private double latencyOf(HostAndPort node, long now) {
+      Latency latency = latencies.get(node);
+      if (latency == null) {
+        return 0;
+      }
+      return now - latency.failedAt < penaltyNanos ? Double.MAX_VALUE : latency.average;
+    }
+
+    @Override
+    public void recordLatency(HostAndPort node, long nanos) {
+      Latency latency = latencies.computeIfAbsent(node, n -> new Latency());
+      synchronized (latency) {
+        latency.average = latency.samples++ == 0 ? nanos
+            : weight * nanos + (1 - weight) * latency.average;
+      }
+    }
+
+    @Override
+    public void recordFailure(HostAndPort node) {
+      latencies.computeIfAbsent(node, n -> new Latency()).failedAt = System.nanoTime();
+    }
+
+    /**
+     * @return moving average of the latency of the node in nanoseconds; <code>null</code> if not
+     * measured yet
+     */
+    public Double getLatency(HostAndPort node) {
+      Latency latency = latencies.get(node);
+      return latency == null || latency.samples == 0 ? null : latency.average;
+    }
+
+    private static class Latency {
+
+      private volatile double average;
+      private volatile long samples;
+      private volatile long failedAt = System.nanoTime() - Long.MAX_VALUE / 2;
+    }
+  }
+}
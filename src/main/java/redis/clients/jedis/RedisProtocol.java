@@ -0,0 +1,26 @@
+package redis.clients.jedis;
+
+/**
+ * Version of the Redis serialization protocol spoken on a connection. {@link #RESP3} is negotiated
+ * with {@code HELLO 3} and requires Redis 6 or newer.
+ * <p>
+ * The typed builders accept both the RESP2 and the RESP3 shape of their reply, e.g. a map or an
+ * array of pairs where RESP2 sends a flat array. Raw replies are returned as read: with RESP3, a
+ * map reply to {@code sendCommand} or to the binary {@code xread}/{@code xreadGroup} is a list of
+ * {@link redis.clients.jedis.util.KeyValue}.
+ */
+public enum RedisProtocol {
+
+  RESP2("2"),
+  RESP3("3");
+
+  private final String version;
+
+  private RedisProtocol(String ver) {
+    this.version = ver;
+  }
+
+  public String version() {
+    return version;
+  }
+}
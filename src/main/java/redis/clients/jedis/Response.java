@@ -43,6 +43,10 @@ public class Response<T> implements Supplier<T> {
     return response;
   }
 
+  final Builder<T> getBuilder() {
+    return builder;
+  }
+
   public void setDependency(Response<?> dependency) {
     this.dependency = dependency;
   }
@@ -0,0 +1,156 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.providers.ShardedConnectionProvider;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.KeyTagExtractor;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Moves the keys of a {@link ReshardingConnectionProvider} to their target shards: each source
+ * shard is scanned, up to {@code parallelism} shards at a time, and the keys of each {@code SCAN}
+ * batch that belong to another shard are moved with one {@code MIGRATE ... KEYS} per target shard.
+ * The moves are throttled to a maximum rate of keys per second, shared by all shards.
+ * <p>
+ * Commands keep being served meanwhile, e.g. by a {@link JedisSharding} on the same provider. Once
+ * all source shards are scanned, the resharding is complete.
+ */
+public class ShardMigrator {
+
+  private static final AtomicInteger EXECUTOR_COUNTER = new AtomicInteger();
+
+  private final ReshardingConnectionProvider provider;
+  private final KeyTagExtractor tagExtractor;
+  private final int batchSize;
+  private final int parallelism;
+  private final long nanosPerKey;
+
+  private final AtomicLong movedKeys = new AtomicLong();
+  private long nextMove = System.nanoTime();
+
+  /**
+   * @param tagExtractor the tags of the keys, as used by the clients
+   * @param batchSize {@code COUNT} of each {@code SCAN}
+   * @param parallelism maximum number of source shards scanned at the same time
+   * @param maxKeysPerSecond maximum number of keys moved per second; 0 - for no limit
+   */
+  public ShardMigrator(ReshardingConnectionProvider provider, KeyTagExtractor tagExtractor,
+      int batchSize, int parallelism, int maxKeysPerSecond) {
+    if (batchSize <= 0 || parallelism <= 0 || maxKeysPerSecond < 0) {
+      throw new IllegalArgumentException("Invalid batch size, parallelism or rate.");
+    }
+    this.provider = provider;
+    this.tagExtractor = tagExtractor;
+    this.batchSize = batchSize;
+    this.parallelism = parallelism;
+    this.nanosPerKey = maxKeysPerSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / maxKeysPerSecond;
+  }
+
+  /**
+   * Moves all keys, and completes the resharding. Blocks until done.
+   *
+   * @return number of keys sent to other shards
+   */
+  public long migrate() {
+    final List<HostAndPort> sources = provider.getSource().getShards();
+    final int id = EXECUTOR_COUNTER.incrementAndGet();
+    final AtomicInteger counter = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(parallelism, sources.size())), runnable -> {
+          Thread thread = new Thread(runnable, "jedis-shard-migrator-" + id + "-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    try {
+      List<Future<?>> futures = new ArrayList<>(sources.size());
+      for (HostAndPort shard : sources) {
+        futures.add(executor.submit(() -> migrate(shard)));
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          throw e.getCause() instanceof JedisException ? (JedisException) e.getCause()
+              : new JedisException(e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(e);
+    } finally {
+      executor.shutdownNow();
+    }
+    provider.complete();
+    return movedKeys.get();
+  }
+
+  /**
+   * @return number of keys sent to other shards so far
+   */
+  public long getMovedKeys() {
+    return movedKeys.get();
+  }
+
+  private void migrate(HostAndPort shard) {
+    final ShardedConnectionProvider target = provider.getTarget();
+    final Hashing algo = target.getHashingAlgo();
+    final ScanParams params = new ScanParams().count(batchSize);
+    byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+    do {
+      final ScanResult<byte[]> batch;
+      try (Connection connection = provider.getSource().getConnection(shard)) {
+        batch = connection.executeCommand(new CommandObject<>(new CommandArguments(Protocol.Command.SCAN)
+            .add(cursor).addParams(params), BuilderFactory.SCAN_BINARY_RESPONSE));
+      }
+      Map<HostAndPort, List<byte[]>> moves = new HashMap<>();
+      for (byte[] key : batch.getResult()) {
+        HostAndPort to = target.getNode(algo.hash(tagExtractor.getTag(key)));
+        if (!to.equals(shard)) {
+          moves.computeIfAbsent(to, t -> new ArrayList<>()).add(key);
+        }
+      }
+      for (Map.Entry<HostAndPort, List<byte[]>> move : moves.entrySet()) {
+        throttle(move.getValue().size());
+        provider.moveKeys(shard, move.getKey(), move.getValue());
+        movedKeys.addAndGet(move.getValue().size());
+      }
+      cursor = batch.getCursorAsBytes();
+    } while (!ScanParams.SCAN_POINTER_START.equals(SafeEncoder.encode(cursor)));
+  }
+
+  private void throttle(int keys) {
+    if (nanosPerKey == 0) {
+      return;
+    }
+    final long wait;
+    synchronized (this) {
+      final long now = System.nanoTime();
+      final long start = Math.max(now, nextMove);
+      nextMove = start + keys * nanosPerKey;
+      wait = start - now;
+    }
+    if (wait > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new JedisException(e);
+      }
+    }
+  }
+}
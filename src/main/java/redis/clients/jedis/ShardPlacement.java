@@ -0,0 +1,182 @@
+package redis.clients.jedis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.XXHash64;
+
+/**
+ * Places the keys of a sharded deployment on the shards: maps the hash of a key to a shard. The
+ * i-th shard is identified by its position in the list of shards, so that the placement does not
+ * change when the address of a shard does.
+ */
+public interface ShardPlacement {
+
+  /**
+   * Consistent hashing on a ring of 160 points per unit of weight (ketama). Adding or removing a
+   * shard moves only the keys of its points. With all weights 1, keys are placed the same as in
+   * previous versions.
+   */
+  ShardPlacement KETAMA = Ketama::new;
+
+  /**
+   * Jump consistent hash (Lamping and Veach): no memory and no lookup table, and a very even
+   * spread. A shard of weight w takes w consecutive buckets. Only adding or removing shards at the
+   * end of the list moves few keys; removing a shard in the middle moves most.
+   */
+  ShardPlacement JUMP = Jump::new;
+
+  /**
+   * Rendezvous, or highest random weight, hashing: each key goes to the shard with the highest
+   * score for it. Adding or removing any shard moves only the keys of that shard, and weights are
+   * followed exactly; a lookup costs a score per shard.
+   */
+  ShardPlacement RENDEZVOUS = Rendezvous::new;
+
+  /**
+   * @param shards the shards, in order
+   * @param weights relative weight of each shard, positive
+   * @param algo the hashing of the keys, also used to place the shards
+   * @return the locator of the shards
+   */
+  Locator place(List<HostAndPort> shards, int[] weights, Hashing algo);
+
+  interface Locator {
+
+    /**
+     * @param hash hash of the key, by the {@link Hashing} the locator was placed with
+     * @return the shard of the key
+     */
+    HostAndPort getShard(long hash);
+  }
+
+  final class Ketama implements Locator {
+
+    private static final int POINTS_PER_WEIGHT = 160;
+
+    private final long[] points;
+    private final HostAndPort[] owners;
+
+    private Ketama(List<HostAndPort> shards, int[] weights, Hashing algo) {
+      // later shards win a point hashed more than once
+      Map<Long, HostAndPort> ring = new HashMap<>();
+      for (int i = 0; i < shards.size(); i++) {
+        for (int n = 0; n < POINTS_PER_WEIGHT * weights[i]; n++) {
+          ring.put(algo.hash("SHARD-" + i + "-NODE-" + n), shards.get(i));
+        }
+      }
+      points = new long[ring.size()];
+      int p = 0;
+      for (Long point : ring.keySet()) {
+        points[p++] = point;
+      }
+      Arrays.sort(points);
+      owners = new HostAndPort[points.length];
+      for (p = 0; p < points.length; p++) {
+        owners[p] = ring.get(points[p]);
+      }
+    }
+
+    @Override
+    public HostAndPort getShard(long hash) {
+      // the first point at or after the hash, wrapping around
+      int p = Arrays.binarySearch(points, hash);
+      if (p < 0) {
+        p = -p - 1;
+        if (p == points.length) {
+          p = 0;
+        }
+      }
+      return owners[p];
+    }
+  }
+
+  final class Jump implements Locator {
+
+    private final HostAndPort[] buckets;
+
+    private Jump(List<HostAndPort> shards, int[] weights, Hashing algo) {
+      int count = 0;
+      for (int weight : weights) {
+        count += weight;
+      }
+      buckets = new HostAndPort[count];
+      int b = 0;
+      for (int i = 0; i < shards.size(); i++) {
+        for (int w = 0; w < weights[i]; w++) {
+          buckets[b++] = shards.get(i);
+        }
+      }
+    }
+
+    @Override
+    public HostAndPort getShard(long hash) {
+      return buckets[jump(XXHash64.mix(hash), buckets.length)];
+    }
+
+    /**
+     * @return the bucket of the key, in {@code [0, buckets)}
+     */
+    public static int jump(long key, int buckets) {
+      long b = -1;
+      long j = 0;
+      while (j < buckets) {
+        b = j;
+        key = key * 2862933555777941757L + 1;
+        j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+      }
+      return (int) b;
+    }
+  }
+
+  final class Rendezvous implements Locator {
+
+    private final HostAndPort[] shards;
+    private final long[] seeds;
+    private final double[] weights;
+    private final boolean weighted;
+
+    private Rendezvous(List<HostAndPort> shards, int[] weights, Hashing algo) {
+      this.shards = shards.toArray(new HostAndPort[0]);
+      this.seeds = new long[shards.size()];
+      this.weights = new double[shards.size()];
+      boolean weighted = false;
+      for (int i = 0; i < shards.size(); i++) {
+        seeds[i] = XXHash64.mix(algo.hash("SHARD-" + i));
+        this.weights[i] = weights[i];
+        weighted |= weights[i] != weights[0];
+      }
+      this.weighted = weighted;
+    }
+
+    @Override
+    public HostAndPort getShard(long hash) {
+      int best = 0;
+      if (weighted) {
+        // the score w / -ln(u) of a uniform u in (0, 1) makes the shards win in proportion to w
+        double bestScore = -1;
+        for (int i = 0; i < shards.length; i++) {
+          final double u = ((XXHash64.mix(hash ^ seeds[i]) >>> 11) + 0.5) / (1L << 53);
+          final double score = weights[i] / -Math.log(u);
+          if (score > bestScore) {
+            best = i;
+            bestScore = score;
+          }
+        }
+      } else {
+        long bestScore = Long.MIN_VALUE;
+        for (int i = 0; i < shards.length; i++) {
+          final long score = XXHash64.mix(hash ^ seeds[i]);
+          if (score > bestScore) {
+            best = i;
+            bestScore = score;
+          }
+        }
+      }
+      return shards[best];
+    }
+  }
+}
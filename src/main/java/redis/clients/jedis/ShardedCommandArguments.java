@@ -1,25 +1,33 @@
 package redis.clients.jedis;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+
 import redis.clients.jedis.commands.ProtocolCommand;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.KeyTagExtractor;
 
 public class ShardedCommandArguments extends CommandArguments {
 
   private final Hashing algo;
-  private final Pattern tagPattern;
+  private final KeyTagExtractor tagExtractor;
   private Long keyHash = null;
 
   public ShardedCommandArguments(Hashing algo, ProtocolCommand command) {
-    this(algo, null, command);
+    this(algo, KeyTagExtractor.NONE, command);
   }
 
+  /**
+   * @param tagPattern see {@link KeyTagExtractor#from(Pattern)}
+   */
   public ShardedCommandArguments(Hashing algo, Pattern tagPattern, ProtocolCommand command) {
-    super(command);
+    this(algo, KeyTagExtractor.from(tagPattern), command);
+  }
+
+  public ShardedCommandArguments(Hashing algo, KeyTagExtractor tagExtractor, ProtocolCommand command) {
+    super(command, true);
     this.algo = algo;
-    this.tagPattern = tagPattern;
+    this.tagExtractor = tagExtractor;
   }
 
   public Long getKeyHash() {
@@ -28,32 +36,12 @@ public class ShardedCommandArguments extends CommandArguments {
 
   @Override
   protected CommandArguments processKey(byte[] key) {
-    final long hash = algo.hash(key);
-    if (keyHash == null) {
-      keyHash = hash;
-    } else if (keyHash != hash) {
-      throw new JedisException("Keys must generate same hash.");
-    }
-    return this;
-  }
-
-  @Override
-  protected CommandArguments processKey(String key) {
-    key = getKeyTag(key);
-    final long hash = algo.hash(key);
+    final long hash = algo.hash(tagExtractor.getTag(key));
     if (keyHash == null) {
       keyHash = hash;
     } else if (keyHash != hash) {
       throw new JedisException("Keys must generate same hash.");
     }
-    return this;
-  }
-
-  private String getKeyTag(String key) {
-    if (tagPattern != null) {
-      Matcher m = tagPattern.matcher(key);
-      if (m.find()) return m.group(1);
-    }
-    return key;
+    return super.processKey(key);
   }
 }
@@ -12,24 +12,32 @@ import redis.clients.jedis.params.ScanParams;
 import redis.clients.jedis.resps.ScanResult;
 import redis.clients.jedis.util.Hashing;
 import redis.clients.jedis.util.JedisClusterHashTag;
+import redis.clients.jedis.util.KeyTagExtractor;
 
 public class ShardedCommandObjects extends CommandObjects {
 
   private final Hashing algo;
-  private final Pattern tagPattern;
+  private final KeyTagExtractor tagExtractor;
 
   public ShardedCommandObjects(Hashing algo) {
-    this(algo, null);
+    this(algo, KeyTagExtractor.NONE);
   }
 
+  /**
+   * @param tagPattern see {@link KeyTagExtractor#from(Pattern)}
+   */
   public ShardedCommandObjects(Hashing algo, Pattern tagPattern) {
+    this(algo, KeyTagExtractor.from(tagPattern));
+  }
+
+  public ShardedCommandObjects(Hashing algo, KeyTagExtractor tagExtractor) {
     this.algo = algo;
-    this.tagPattern = tagPattern;
+    this.tagExtractor = tagExtractor;
   }
 
   @Override
   protected ShardedCommandArguments commandArguments(ProtocolCommand command) {
-    return new ShardedCommandArguments(algo, tagPattern, command);
+    return new ShardedCommandArguments(algo, tagExtractor, command);
   }
 
   @Override
@@ -6,6 +6,7 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import redis.clients.jedis.providers.ShardedConnectionProvider;
 import redis.clients.jedis.util.Hashing;
 import redis.clients.jedis.util.IOUtils;
+import redis.clients.jedis.util.KeyTagExtractor;
 
 public class ShardedPipeline extends MultiNodePipelineBase {
 
@@ -33,6 +34,11 @@ public class ShardedPipeline extends MultiNodePipelineBase {
     this.provider = provider;
   }
 
+  public ShardedPipeline(ShardedConnectionProvider provider, KeyTagExtractor tagExtractor) {
+    super(new ShardedCommandObjects(provider.getHashingAlgo(), tagExtractor));
+    this.provider = provider;
+  }
+
   @Override
   public void close() {
     try {
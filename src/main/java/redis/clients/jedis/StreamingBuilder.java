@@ -0,0 +1,23 @@
+package redis.clients.jedis;
+
+import redis.clients.jedis.util.RedisInputStream;
+
+/**
+ * A {@link Builder} which must decode its reply straight from the connection's input stream, even
+ * in pipelines, where other builders only get the parsed reply when the response is requested.
+ * This allows, for example, copying a large bulk reply into a sink without ever holding it on the
+ * heap.
+ * <p>
+ * Where the reply has already been read (e.g. inside a transaction), {@link #build(Object)} is
+ * used instead; in pipelines it also receives the value returned by
+ * {@link #decode(RedisInputStream)}.
+ */
+public abstract class StreamingBuilder<T> extends Builder<T> {
+
+  /**
+   * Consumes exactly one reply from the stream. Error replies must be thrown as
+   * {@link redis.clients.jedis.exceptions.JedisDataException} after the whole reply is consumed.
+   */
+  @Override
+  public abstract T decode(RedisInputStream is);
+}
@@ -0,0 +1,233 @@
+package redis.clients.jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+
+/**
+ * A {@link Pipeline} which reads the replies while commands are still being appended. A reader
+ * thread completes the {@link Response}s as their replies arrive, so neither the server's output
+ * buffer nor the TCP window fills up however long the pipeline gets.
+ * <p>
+ * At most {@code maxInFlight} commands may be waiting for their replies; appending one more blocks
+ * until a reply has been read. A {@link Response} can be read once its callback has been called,
+ * or by any thread after {@link #sync()}. Callbacks run on the reader thread and must not append
+ * commands.
+ * <p>
+ * The pipeline does not hold on to the {@link Response}s, so it can run for any number of
+ * commands. Only a pipeline created with {@code keepReplies} keeps the {@link Response}s appended
+ * since the last sync for {@link #syncAndReturnAll()}; call {@link #sync()} from time to time to
+ * release them.
+ */
+public class StreamingPipeline extends Pipeline {
+
+  private final int maxInFlight;
+  private final Semaphore permits;
+  private final BlockingQueue<PendingResponse<?>> inFlight = new LinkedBlockingQueue<>();
+  private final List<Response<?>> unsynced;
+  private final Thread reader;
+
+  private volatile JedisException failure;
+  private volatile RuntimeException callbackFailure;
+  private volatile boolean closed = false;
+
+  public StreamingPipeline(Connection connection, int maxInFlight) {
+    this(connection, maxInFlight, false);
+  }
+
+  /**
+   * @param keepReplies whether to keep the {@link Response}s until the next sync, as required by
+   * {@link #syncAndReturnAll()}
+   */
+  public StreamingPipeline(Connection connection, int maxInFlight, boolean keepReplies) {
+    super(connection);
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be positive.");
+    }
+    this.maxInFlight = maxInFlight;
+    this.permits = new Semaphore(maxInFlight);
+    this.unsynced = keepReplies ? new ArrayList<>() : null;
+    this.reader = new Thread(this::readLoop, "jedis-pipeline-reader-" + connection);
+    this.reader.setDaemon(true);
+    this.reader.start();
+  }
+
+  public StreamingPipeline(Jedis jedis, int maxInFlight) {
+    this(jedis.getConnection(), maxInFlight);
+  }
+
+  public StreamingPipeline(Jedis jedis, int maxInFlight, boolean keepReplies) {
+    this(jedis.getConnection(), maxInFlight, keepReplies);
+  }
+
+  @Override
+  public <T> Response<T> appendCommand(CommandObject<T> commandObject) {
+    return appendCommand(commandObject, null);
+  }
+
+  /**
+   * @param callback called on the reader thread once the reply has been read; <code>null</code> -
+   * for no callback
+   */
+  public <T> Response<T> appendCommand(CommandObject<T> commandObject,
+      Consumer<? super Response<T>> callback) {
+    if (closed) {
+      throw new IllegalStateException("The pipeline is closed.");
+    }
+    if (!permits.tryAcquire()) {
+      // the replies we wait for may still be in our output buffer
+      connection.flush();
+      acquire(1);
+    }
+    checkFailure();
+    PendingResponse<T> pending = new PendingResponse<>(commandObject.getBuilder(), callback);
+    inFlight.add(pending);
+    connection.sendCommand(commandObject.getArguments());
+    if (unsynced != null) {
+      unsynced.add(pending.response);
+    }
+    return pending.response;
+  }
+
+  /**
+   * Waits until all appended commands got their replies. The pipeline can be used further.
+   * @throws JedisException if the connection failed, or the first exception thrown by a callback
+   */
+  @Override
+  public void sync() {
+    if (!closed) {
+      connection.flush();
+    }
+    acquire(maxInFlight);
+    permits.release(maxInFlight);
+    checkFailure();
+    if (unsynced != null) {
+      unsynced.clear();
+    }
+    RuntimeException failedCallback = callbackFailure;
+    if (failedCallback != null) {
+      callbackFailure = null;
+      throw failedCallback;
+    }
+  }
+
+  /**
+   * Waits like {@link #sync()}.
+   * @return the replies of the commands appended since the last sync, in order
+   * @throws IllegalStateException if the pipeline was not created with {@code keepReplies}
+   */
+  @Override
+  public List<Object> syncAndReturnAll() {
+    if (unsynced == null) {
+      throw new IllegalStateException("The pipeline does not keep the replies.");
+    }
+    List<Response<?>> responses = new ArrayList<>(unsynced);
+    sync();
+    List<Object> formatted = new ArrayList<>(responses.size());
+    for (Response<?> response : responses) {
+      try {
+        formatted.add(response.get());
+      } catch (JedisDataException e) {
+        formatted.add(e);
+      }
+    }
+    return formatted;
+  }
+
+  /**
+   * @return number of commands waiting for their replies
+   */
+  public int getInFlightCount() {
+    return maxInFlight - permits.availablePermits();
+  }
+
+  /**
+   * Syncs the pipeline and stops the reader thread.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    try {
+      sync();
+    } finally {
+      closed = true;
+      reader.interrupt();
+    }
+  }
+
+  private void acquire(int count) {
+    try {
+      permits.acquire(count);
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new JedisException(ie);
+    }
+  }
+
+  private void checkFailure() {
+    JedisException fail = failure;
+    if (fail != null) {
+      throw fail;
+    }
+  }
+
+  private void readLoop() {
+    try {
+      while (true) {
+        PendingResponse<?> pending = inFlight.take();
+        try {
+          if (failure == null) {
+            pending.read();
+          }
+        } catch (JedisException je) {
+          failure = je;
+        } catch (RuntimeException re) {
+          failure = new JedisConnectionException(re);
+        } finally {
+          permits.release();
+        }
+      }
+    } catch (InterruptedException ie) {
+      // closed
+    }
+  }
+
+  private class PendingResponse<T> {
+
+    private final Response<T> response;
+    private final Consumer<? super Response<T>> callback;
+
+    private PendingResponse(Builder<T> builder, Consumer<? super Response<T>> callback) {
+      this.response = new Response<>(builder);
+      this.callback = callback;
+    }
+
+    private void read() {
+      Object data;
+      try {
+        data = connection.readProtocolWithCheckingBroken(response.getBuilder());
+      } catch (JedisDataException e) {
+        data = e;
+      }
+      response.set(data);
+      if (callback != null) {
+        try {
+          callback.accept(response);
+        } catch (RuntimeException e) {
+          if (callbackFailure == null) {
+            callbackFailure = e;
+          }
+        }
+      }
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package redis.clients.jedis;
 
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.json.JSONArray;
@@ -36,6 +41,7 @@ import redis.clients.jedis.search.aggr.AggregationResult;
 import redis.clients.jedis.timeseries.*;
 import redis.clients.jedis.util.IOUtils;
 import redis.clients.jedis.util.JedisURIHelper;
+import redis.clients.jedis.util.KeyTagExtractor;
 import redis.clients.jedis.util.KeyValue;
 
 public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
@@ -44,7 +50,7 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
 
   protected final ConnectionProvider provider;
   protected final CommandExecutor executor;
-  private final CommandObjects commandObjects;
+  protected final CommandObjects commandObjects;
 
   public UnifiedJedis() {
     this(new HostAndPort(Protocol.DEFAULT_HOST, Protocol.DEFAULT_PORT));
@@ -88,6 +94,12 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     this.commandObjects = new CommandObjects();
   }
 
+  public UnifiedJedis(ConnectionProvider provider, CommandExecutor executor) {
+    this.provider = provider;
+    this.executor = executor;
+    this.commandObjects = new CommandObjects();
+  }
+
   public UnifiedJedis(JedisSocketFactory socketFactory) {
     this(new Connection(socketFactory));
   }
@@ -130,6 +142,18 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     this.commandObjects = new ShardedCommandObjects(provider.getHashingAlgo(), tagPattern);
   }
 
+  public UnifiedJedis(ShardedConnectionProvider provider, KeyTagExtractor tagExtractor) {
+    this.provider = provider;
+    this.executor = new DefaultCommandExecutor(provider);
+    this.commandObjects = new ShardedCommandObjects(provider.getHashingAlgo(), tagExtractor);
+  }
+
+  public UnifiedJedis(ReshardingConnectionProvider provider, KeyTagExtractor tagExtractor) {
+    this.provider = provider;
+    this.executor = new ReshardingCommandExecutor(provider);
+    this.commandObjects = new ShardedCommandObjects(provider.getTarget().getHashingAlgo(), tagExtractor);
+  }
+
   public UnifiedJedis(ConnectionProvider provider, int maxAttempts, Duration maxTotalRetriesDuration) {
     this.provider = provider;
     this.executor = new RetryableCommandExecutor(provider, maxAttempts, maxTotalRetriesDuration);
@@ -216,6 +240,22 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.restore(key, ttl, serializedValue, params));
   }
 
+  public String restore(String key, long ttl, Rawable serializedValue) {
+    return executeCommand(commandObjects.restore(key, ttl, serializedValue));
+  }
+
+  public String restore(String key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return executeCommand(commandObjects.restore(key, ttl, serializedValue, params));
+  }
+
+  public String restore(byte[] key, long ttl, Rawable serializedValue) {
+    return executeCommand(commandObjects.restore(key, ttl, serializedValue));
+  }
+
+  public String restore(byte[] key, long ttl, Rawable serializedValue, RestoreParams params) {
+    return executeCommand(commandObjects.restore(key, ttl, serializedValue, params));
+  }
+
   @Override
   public long expire(String key, long seconds) {
     return executeCommand(commandObjects.expire(key, seconds));
@@ -587,11 +627,75 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.set(key, value, params));
   }
 
+  public String set(String key, Rawable value) {
+    return executeCommand(commandObjects.set(key, value));
+  }
+
+  public String set(String key, Rawable value, SetParams params) {
+    return executeCommand(commandObjects.set(key, value, params));
+  }
+
+  public String set(byte[] key, Rawable value) {
+    return executeCommand(commandObjects.set(key, value));
+  }
+
+  public String set(byte[] key, Rawable value, SetParams params) {
+    return executeCommand(commandObjects.set(key, value, params));
+  }
+
   @Override
   public byte[] get(byte[] key) {
     return executeCommand(commandObjects.get(key));
   }
 
+  /**
+   * Streams the value of the key into {@code out} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Long getTo(String key, OutputStream out) {
+    return executeCommand(commandObjects.getTo(key, out));
+  }
+
+  /**
+   * Streams the value of the key into {@code out} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Long getTo(byte[] key, OutputStream out) {
+    return executeCommand(commandObjects.getTo(key, out));
+  }
+
+  /**
+   * Streams the value of the key into {@code channel} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Long getTo(String key, WritableByteChannel channel) {
+    return executeCommand(commandObjects.getTo(key, channel));
+  }
+
+  /**
+   * Streams the value of the key into {@code channel} without holding it on the heap.
+   * @return number of bytes written, or {@code null} if the key does not exist
+   */
+  public Long getTo(byte[] key, WritableByteChannel channel) {
+    return executeCommand(commandObjects.getTo(key, channel));
+  }
+
+  /**
+   * Copies the value of the key into {@code buffer}, which must have enough space remaining.
+   * @return number of bytes copied, or {@code null} if the key does not exist
+   */
+  public Long getInto(String key, ByteBuffer buffer) {
+    return executeCommand(commandObjects.getInto(key, buffer));
+  }
+
+  /**
+   * Copies the value of the key into {@code buffer}, which must have enough space remaining.
+   * @return number of bytes copied, or {@code null} if the key does not exist
+   */
+  public Long getInto(byte[] key, ByteBuffer buffer) {
+    return executeCommand(commandObjects.getInto(key, buffer));
+  }
+
   @Override
   public byte[] getDel(byte[] key) {
     return executeCommand(commandObjects.getDel(key));
@@ -914,6 +1018,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.lrange(key, start, stop));
   }
 
+  /**
+   * Passes the elements to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of elements
+   */
+  public Long lrange(String key, long start, long stop, Consumer<String> consumer) {
+    return executeCommand(commandObjects.lrange(key, start, stop, consumer));
+  }
+
   @Override
   public String ltrim(String key, long start, long stop) {
     return executeCommand(commandObjects.ltrim(key, start, stop));
@@ -944,6 +1056,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.lrange(key, start, stop));
   }
 
+  /**
+   * Passes the elements to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of elements
+   */
+  public Long lrange(byte[] key, long start, long stop, Consumer<byte[]> consumer) {
+    return executeCommand(commandObjects.lrange(key, start, stop, consumer));
+  }
+
   @Override
   public String ltrim(byte[] key, long start, long stop) {
     return executeCommand(commandObjects.ltrim(key, start, stop));
@@ -1341,6 +1461,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Passes the fields and values to {@code consumer} one at a time, as they are read from the
+   * connection.
+   * @return number of fields
+   */
+  public Long hgetAll(String key, BiConsumer<String, String> consumer) {
+    return executeCommand(commandObjects.hgetAll(key, consumer));
+  }
+
   @Override
   public Set<byte[]> hkeys(byte[] key) {
     return executeCommand(commandObjects.hkeys(key));
@@ -1356,6 +1485,15 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.hgetAll(key));
   }
 
+  /**
+   * Passes the fields and values to {@code consumer} one at a time, as they are read from the
+   * connection.
+   * @return number of fields
+   */
+  public Long hgetAll(byte[] key, BiConsumer<byte[], byte[]> consumer) {
+    return executeCommand(commandObjects.hgetAll(key, consumer));
+  }
+
   @Override
   public String hrandfield(String key) {
     return executeCommand(commandObjects.hrandfield(key));
@@ -1845,6 +1983,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.zrangeWithScores(key, start, stop));
   }
 
+  /**
+   * Passes the members to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of members
+   */
+  public Long zrangeWithScores(String key, long start, long stop, Consumer<Tuple> consumer) {
+    return executeCommand(commandObjects.zrangeWithScores(key, start, stop, consumer));
+  }
+
   @Override
   public List<Tuple> zrevrangeWithScores(String key, long start, long stop) {
     return executeCommand(commandObjects.zrevrangeWithScores(key, start, stop));
@@ -1960,6 +2106,14 @@ public class UnifiedJedis implements JedisCommands, JedisBinaryCommands,
     return executeCommand(commandObjects.zrangeWithScores(key, start, stop));
   }
 
+  /**
+   * Passes the members to {@code consumer} one at a time, as they are read from the connection.
+   * @return number of members
+   */
+  public Long zrangeWithScores(byte[] key, long start, long stop, Consumer<Tuple> consumer) {
+    return executeCommand(commandObjects.zrangeWithScores(key, start, stop, consumer));
+  }
+
   @Override
   public List<Tuple> zrevrangeWithScores(byte[] key, long start, long stop) {
     return executeCommand(commandObjects.zrevrangeWithScores(key, start, stop));
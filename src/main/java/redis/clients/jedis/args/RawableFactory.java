@@ -3,13 +3,44 @@ package redis.clients.jedis.args;
 import static redis.clients.jedis.Protocol.toByteArray;
 import static redis.clients.jedis.util.SafeEncoder.encode;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import redis.clients.jedis.util.RedisOutputStream;
+
 public final class RawableFactory {
 
+  private static final Rawable TRUE = from(toByteArray(true));
+  private static final Rawable FALSE = from(toByteArray(false));
+
+  public static Rawable from(boolean b) {
+    return b ? TRUE : FALSE;
+  }
+
   public static Rawable from(int i) {
-    return from(toByteArray(i));
+    return new RawLong(i);
+  }
+
+  /**
+   * @return an argument which writes the digits straight into the output buffer
+   */
+  public static Rawable from(long l) {
+    return new RawLong(l);
   }
 
+  /**
+   * @return an argument with the same bytes as {@link redis.clients.jedis.Protocol#toByteArray(double)};
+   * small integral values are written straight into the output buffer
+   */
   public static Rawable from(double d) {
+    if (d == (long) d && Math.abs(d) < RawIntegralDouble.MAX_PLAIN && (d != 0 || 1 / d > 0)) {
+      return new RawIntegralDouble((long) d);
+    }
     return from(toByteArray(d));
   }
 
@@ -17,10 +48,38 @@ public final class RawableFactory {
     return new Raw(binary);
   }
 
+  /**
+   * @return an argument which is UTF-8 encoded straight into the output buffer when it is sent
+   */
   public static Rawable from(String string) {
     return new RawString(string);
   }
 
+  /**
+   * @return an argument of the remaining bytes of the buffer; direct buffers are not copied onto
+   * the heap. The position of the buffer is not changed.
+   */
+  public static StreamingRawable from(ByteBuffer buffer) {
+    return new RawByteBuffer(buffer);
+  }
+
+  /**
+   * @return an argument of exactly {@code length} bytes read from the stream. As the stream can
+   * only be read once, the argument can only be sent once: a command with it is not retried after a
+   * connection failure, nor sent again after a cluster redirection; the failure is thrown instead.
+   */
+  public static StreamingRawable from(InputStream stream, int length) {
+    return new RawInputStream(stream, length);
+  }
+
+  /**
+   * @return an argument of {@code length} bytes of the file starting at {@code position}, sent
+   * with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+   */
+  public static StreamingRawable from(FileChannel file, long position, int length) {
+    return new RawFileRegion(file, position, length);
+  }
+
   public static class Raw implements Rawable {
 
     private final byte[] raw;
@@ -35,10 +94,197 @@ public final class RawableFactory {
     }
   }
 
-  public static class RawString extends Raw {
+  public static class RawString implements StreamingRawable {
+
+    private final String str;
+    private int length = -1;
 
     public RawString(String str) {
-      super(encode(str));
+      this.str = str;
+    }
+
+    @Override
+    public int length() {
+      if (length < 0) {
+        length = RedisOutputStream.utf8Length(str);
+      }
+      return length;
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.writeUtf8(str);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      return encode(str);
+    }
+  }
+
+  public static class RawLong implements StreamingRawable {
+
+    private final long value;
+
+    public RawLong(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public int length() {
+      return RedisOutputStream.stringSize(value);
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.writeLong(value);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      return toByteArray(value);
+    }
+  }
+
+  /**
+   * An integral double below 10<sup>7</sup>, which {@link Double#toString(double)} renders as its
+   * digits followed by {@code ".0"}.
+   */
+  private static class RawIntegralDouble implements StreamingRawable {
+
+    private static final double MAX_PLAIN = 1e7;
+    private static final byte[] POINT_ZERO = encode(".0");
+
+    private final long value;
+
+    private RawIntegralDouble(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public int length() {
+      return RedisOutputStream.stringSize(value) + POINT_ZERO.length;
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.writeLong(value);
+      out.write(POINT_ZERO);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      return toByteArray((double) value);
+    }
+  }
+
+  public static class RawByteBuffer implements StreamingRawable {
+
+    private final ByteBuffer buffer;
+
+    public RawByteBuffer(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int length() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.write(buffer);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      byte[] raw = new byte[buffer.remaining()];
+      buffer.duplicate().get(raw);
+      return raw;
+    }
+  }
+
+  /**
+   * Single-shot: {@link #writeTo(RedisOutputStream)} and {@link #getRaw()} throw
+   * {@link IllegalStateException} once the stream has been read.
+   */
+  public static class RawInputStream implements StreamingRawable {
+
+    private final InputStream stream;
+    private final int length;
+    private boolean consumed = false;
+
+    public RawInputStream(InputStream stream, int length) {
+      this.stream = stream;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      consume();
+      out.write(stream, length);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      consume();
+      ByteArrayOutputStream raw = new ByteArrayOutputStream(length);
+      try (RedisOutputStream out = new RedisOutputStream(raw)) {
+        out.write(stream, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return raw.toByteArray();
+    }
+
+    private void consume() {
+      if (consumed) {
+        throw new IllegalStateException("The stream has already been read.");
+      }
+      consumed = true;
+    }
+  }
+
+  public static class RawFileRegion implements StreamingRawable {
+
+    private final FileChannel file;
+    private final long position;
+    private final int length;
+
+    public RawFileRegion(FileChannel file, long position, int length) {
+      this.file = file;
+      this.position = position;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public void writeTo(RedisOutputStream out) throws IOException {
+      out.write(file, position, length);
+    }
+
+    @Override
+    public byte[] getRaw() {
+      ByteBuffer raw = ByteBuffer.allocate(length);
+      try {
+        while (raw.hasRemaining()) {
+          if (file.read(raw, position + raw.position()) == -1) {
+            throw new EOFException(raw.position() + " of " + length + " bytes could be read.");
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return raw.array();
     }
   }
 
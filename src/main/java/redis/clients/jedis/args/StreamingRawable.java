@@ -0,0 +1,24 @@
+package redis.clients.jedis.args;
+
+import java.io.IOException;
+import redis.clients.jedis.util.RedisOutputStream;
+
+/**
+ * A {@link Rawable} which writes itself to the output stream, instead of handing over a
+ * {@code byte[]}. This allows sending large values without copying them onto the heap first.
+ * <p>
+ * {@link #getRaw()} still materializes the whole value and should be avoided for large values.
+ */
+public interface StreamingRawable extends Rawable {
+
+  /**
+   * @return number of bytes {@link #writeTo(RedisOutputStream)} writes
+   */
+  int length();
+
+  /**
+   * Writes exactly {@link #length()} bytes. May be called more than once, e.g. when the command is
+   * retried, unless documented otherwise.
+   */
+  void writeTo(RedisOutputStream out) throws IOException;
+}
@@ -0,0 +1,9 @@
+package redis.clients.jedis.executors;
+
+import java.util.concurrent.CompletableFuture;
+import redis.clients.jedis.CommandObject;
+
+public interface AsyncCommandExecutor extends AutoCloseable {
+
+  <T> CompletableFuture<T> executeCommandAsync(CommandObject<T> commandObject);
+}
@@ -0,0 +1,133 @@
+package redis.clients.jedis.executors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import redis.clients.jedis.BatchMetrics;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisSocketFactory;
+import redis.clients.jedis.MultiplexedConnection;
+import redis.clients.jedis.providers.ConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Sends non-blocking commands through one {@link MultiplexedConnection} per node, so that commands
+ * issued concurrently by many threads are coalesced into pipelined batches with a single flush
+ * each. Every caller still waits for its own reply, so the synchronous API is kept.
+ * <p>
+ * Blocking commands, and commands the router does not place on a node, are executed on a
+ * dedicated connection of the provider.
+ */
+public class AutoPipeliningCommandExecutor implements CommandExecutor {
+
+  protected final ConnectionProvider provider;
+  private final Function<CommandArguments, HostAndPort> router;
+  private final JedisSocketFactory socketFactory;
+  private final JedisClientConfig clientConfig;
+
+  private final ConcurrentMap<HostAndPort, MultiplexedConnection> connections = new ConcurrentHashMap<>();
+
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider, HostAndPort node,
+      JedisClientConfig clientConfig) {
+    this(provider, args -> node, clientConfig);
+  }
+
+  /**
+   * Connects to a single node with {@code socketFactory}, e.g. over a unix domain socket.
+   * @param node the key of the connection in {@link #getBatchMetrics()}
+   */
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider, HostAndPort node,
+      JedisSocketFactory socketFactory, JedisClientConfig clientConfig) {
+    this(provider, args -> node, socketFactory, clientConfig);
+  }
+
+  /**
+   * @param router the node of each command; <code>null</code> - to use the provider instead
+   */
+  public AutoPipeliningCommandExecutor(ConnectionProvider provider,
+      Function<CommandArguments, HostAndPort> router, JedisClientConfig clientConfig) {
+    this(provider, router, null, clientConfig);
+  }
+
+  private AutoPipeliningCommandExecutor(ConnectionProvider provider,
+      Function<CommandArguments, HostAndPort> router, JedisSocketFactory socketFactory,
+      JedisClientConfig clientConfig) {
+    this.provider = provider;
+    this.router = router;
+    this.socketFactory = socketFactory;
+    this.clientConfig = DefaultJedisClientConfig.copyConfig(clientConfig);
+  }
+
+  @Override
+  public void close() {
+    try {
+      for (MultiplexedConnection connection : connections.values()) {
+        try {
+          connection.disconnect();
+        } catch (RuntimeException e) {
+          // closing anyway
+        }
+      }
+      connections.clear();
+    } finally {
+      IOUtils.closeQuietly(provider);
+    }
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandObject<T> commandObject) {
+    final CommandArguments args = commandObject.getArguments();
+    final HostAndPort node = args.isBlocking() ? null : router.apply(args);
+    if (node == null) {
+      try (Connection connection = provider.getConnection(args)) {
+        return connection.executeCommand(commandObject);
+      }
+    }
+    return getMultiplexedConnection(node).executeCommand(commandObject);
+  }
+
+  /**
+   * @return the shared connection of the node; a new one is created if the current one is broken
+   */
+  public MultiplexedConnection getMultiplexedConnection(HostAndPort node) {
+    MultiplexedConnection current = connections.get(node);
+    if (current == null || current.isBroken()) {
+      synchronized (connections) {
+        current = connections.get(node);
+        if (current == null || current.isBroken()) {
+          if (current != null) {
+            try {
+              current.disconnect();
+            } catch (RuntimeException e) {
+              // it is already broken
+            }
+          }
+          current = socketFactory != null ? new MultiplexedConnection(socketFactory, clientConfig)
+              : new MultiplexedConnection(node, clientConfig);
+          connections.put(node, current);
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * @return batch sizes of the current shared connection of each node. The metrics of a node
+   * start over when its connection is replaced.
+   */
+  public Map<HostAndPort, BatchMetrics> getBatchMetrics() {
+    Map<HostAndPort, BatchMetrics> metrics = new HashMap<>();
+    for (Map.Entry<HostAndPort, MultiplexedConnection> entry : connections.entrySet()) {
+      metrics.put(entry.getKey(), entry.getValue().getBatchMetrics());
+    }
+    return metrics;
+  }
+}
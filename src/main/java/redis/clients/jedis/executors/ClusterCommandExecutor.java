@@ -9,7 +9,7 @@ import org.slf4j.LoggerFactory;
 
 import redis.clients.jedis.CommandObject;
 import redis.clients.jedis.Connection;
-import redis.clients.jedis.Protocol;
+import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.exceptions.*;
 import redis.clients.jedis.providers.ClusterConnectionProvider;
 import redis.clients.jedis.util.IOUtils;
@@ -40,21 +40,33 @@ public class ClusterCommandExecutor implements CommandExecutor {
 
     JedisRedirectionException redirect = null;
     int consecutiveConnectionFailures = 0;
+    // a replica failed, retry on the master
+    boolean readFromMaster = false;
     Exception lastException = null;
     for (int attemptsLeft = this.maxAttempts; attemptsLeft > 0; attemptsLeft--) {
       Connection connection = null;
+      // the keys were sent to the node by a recent ASK redirection
+      HostAndPort askTarget = null;
       try {
+        boolean asking = false;
         if (redirect != null) {
           connection = provider.getConnection(redirect.getTargetNode());
-          if (redirect instanceof JedisAskDataException) {
-            // TODO: Pipeline asking with the original command to make it faster....
-            connection.executeCommand(Protocol.Command.ASKING);
-          }
+          asking = redirect instanceof JedisAskDataException;
+        } else if ((askTarget = provider.getAskTarget(commandObject.getArguments())) != null) {
+          connection = provider.getConnection(askTarget);
+          asking = true;
+        } else if (readFromMaster) {
+          connection = provider.getMasterConnection(commandObject.getArguments());
         } else {
           connection = provider.getConnection(commandObject.getArguments());
         }
 
-        return connection.executeCommand(commandObject);
+        final long start = System.nanoTime();
+        // ASKING is sent back to back with the command, in a single round trip
+        T reply = asking ? connection.executeAskingCommand(commandObject)
+            : connection.executeCommand(commandObject);
+        provider.recordSuccess(connection.getHostAndPort(), System.nanoTime() - start);
+        return reply;
 
       } catch (JedisClusterOperationException jnrcne) {
         throw jnrcne;
@@ -62,6 +74,16 @@ public class ClusterCommandExecutor implements CommandExecutor {
         lastException = jce;
         ++consecutiveConnectionFailures;
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        if (connection != null) {
+          provider.recordFailure(connection.getHostAndPort());
+        }
+        readFromMaster = true;
+        if (askTarget != null) {
+          provider.forgetAskTarget(commandObject.getArguments());
+        }
+        if (!commandObject.getArguments().isRetryable()) {
+          throw jce;
+        }
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
         boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
         if (reset) {
@@ -78,8 +100,14 @@ public class ClusterCommandExecutor implements CommandExecutor {
         redirect = jre;
         // if MOVED redirection occurred,
         if (jre instanceof JedisMovedDataException) {
-          // it rebuilds cluster's slot cache recommended by Redis cluster specification
-          provider.renewSlotCache(connection);
+          // it updates the slot at once and rebuilds cluster's slot cache in the background,
+          // as recommended by Redis cluster specification
+          provider.applyMoved((JedisMovedDataException) jre);
+        } else if (jre instanceof JedisAskDataException) {
+          provider.applyAsk((JedisAskDataException) jre, commandObject.getArguments());
+        }
+        if (!commandObject.getArguments().isRetryable()) {
+          throw jre;
         }
       } finally {
         IOUtils.closeQuietly(connection);
@@ -125,8 +153,8 @@ public class ClusterCommandExecutor implements CommandExecutor {
     sleep(getBackoffSleepMillis(attemptsLeft, doneDeadline));
     //We need this because if node is not reachable anymore - we need to finally initiate slots
     //renewing, or we can stuck with cluster state without one node in opposite case.
-    //TODO make tracking of successful/unsuccessful operations for node - do renewing only
-    //if there were no successful responses from this node last few seconds
+    //Failures are tracked per node as well: a node whose circuit breaker opens fails fast, and
+    //triggers a renewing in the background (see ClusterConnectionProvider#recordFailure).
     provider.renewSlotCache();
     return true;
   }
@@ -0,0 +1,51 @@
+package redis.clients.jedis.executors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.providers.MultiplexedConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Queues non-blocking commands straight onto the shared connection of a
+ * {@link MultiplexedConnectionProvider}, so no thread waits for a reply; their futures are
+ * completed on the I/O threads, never on the connection's reader thread. Blocking commands are run
+ * on the I/O threads with a dedicated connection.
+ */
+public class MultiplexedAsyncCommandExecutor implements AsyncCommandExecutor {
+
+  protected final MultiplexedConnectionProvider provider;
+  protected final ExecutorService ioExecutor;
+  private final CommandExecutor blockingExecutor;
+
+  public MultiplexedAsyncCommandExecutor(MultiplexedConnectionProvider provider,
+      ExecutorService ioExecutor) {
+    this.provider = provider;
+    this.ioExecutor = ioExecutor;
+    this.blockingExecutor = new DefaultCommandExecutor(provider);
+  }
+
+  @Override
+  public void close() {
+    // fails the pending commands first, so their futures are still completed on the I/O threads
+    IOUtils.closeQuietly(provider);
+    ioExecutor.shutdown();
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeCommandAsync(CommandObject<T> commandObject) {
+    if (commandObject.getArguments().isBlocking()) {
+      return CompletableFuture.supplyAsync(() -> blockingExecutor.executeCommand(commandObject),
+          ioExecutor);
+    }
+    try {
+      return provider.getMultiplexedConnection().executeCommandAsync(commandObject, ioExecutor);
+    } catch (RuntimeException e) {
+      // could not (re)connect
+      CompletableFuture<T> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package redis.clients.jedis.executors;
+
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.ShardedCommandArguments;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Executes the commands of a sharded deployment during a resharding: the keys of a command which
+ * move to another shard are first looked up on their source shard, and moved if they are still
+ * there, unless they are known to be moved already; the command then runs on the target shard.
+ */
+public class ReshardingCommandExecutor implements CommandExecutor {
+
+  protected final ReshardingConnectionProvider provider;
+
+  public ReshardingCommandExecutor(ReshardingConnectionProvider provider) {
+    this.provider = provider;
+  }
+
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(this.provider);
+  }
+
+  @Override
+  public final <T> T executeCommand(CommandObject<T> commandObject) {
+    final ShardedCommandArguments args = (ShardedCommandArguments) commandObject.getArguments();
+    final Long hash = args.getKeyHash();
+    final HostAndPort from = provider.getMovingFrom(hash);
+    if (from != null && !provider.isMoved(args.getKeys())) {
+      provider.moveKeys(from, provider.getTarget().getNode(hash), args.getKeys());
+    }
+    try (Connection connection = provider.getConnection(args)) {
+      return connection.executeCommand(commandObject);
+    }
+  }
+}
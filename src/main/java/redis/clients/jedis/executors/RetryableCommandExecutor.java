@@ -51,6 +51,9 @@ public class RetryableCommandExecutor implements CommandExecutor {
         lastException = jce;
         ++consecutiveConnectionFailures;
         log.debug("Failed connecting to Redis: {}", connection, jce);
+        if (!commandObject.getArguments().isRetryable()) {
+          throw jce;
+        }
         // "- 1" because we just did one, but the attemptsLeft counter hasn't been decremented yet
         boolean reset = handleConnectionProblem(attemptsLeft - 1, consecutiveConnectionFailures, deadline);
         if (reset) {
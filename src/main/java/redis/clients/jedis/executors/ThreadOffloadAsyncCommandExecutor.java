@@ -0,0 +1,39 @@
+package redis.clients.jedis.executors;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Adapts a synchronous {@link CommandExecutor} to futures by offloading each command to a thread
+ * of {@code ioExecutor}, which waits for the reply; only the calling threads never wait. Retries
+ * and cluster redirections are handled by the wrapped executor, e.g.
+ * {@link ClusterCommandExecutor}.
+ * <p>
+ * Each command in flight holds a thread, so at most as many commands as {@code ioExecutor} has
+ * threads are in flight, and the rest are queued. For many commands in flight on few threads, use
+ * {@link MultiplexedAsyncCommandExecutor}.
+ */
+public class ThreadOffloadAsyncCommandExecutor implements AsyncCommandExecutor {
+
+  protected final CommandExecutor executor;
+  protected final ExecutorService ioExecutor;
+
+  public ThreadOffloadAsyncCommandExecutor(CommandExecutor executor, ExecutorService ioExecutor) {
+    this.executor = executor;
+    this.ioExecutor = ioExecutor;
+  }
+
+  @Override
+  public void close() {
+    ioExecutor.shutdown();
+    IOUtils.closeQuietly(executor);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> executeCommandAsync(CommandObject<T> commandObject) {
+    return CompletableFuture.supplyAsync(() -> executor.executeCommand(commandObject), ioExecutor);
+  }
+}
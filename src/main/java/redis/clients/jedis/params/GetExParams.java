@@ -1,7 +1,7 @@
 package redis.clients.jedis.params;
 
 import redis.clients.jedis.CommandArguments;
-import redis.clients.jedis.Protocol;
+import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.util.SafeEncoder;
 
 public class GetExParams extends Params implements IParams {
@@ -70,16 +70,16 @@ public class GetExParams extends Params implements IParams {
   public void addParams(CommandArguments args) {
     if (contains(EX)) {
       args.add(SafeEncoder.encode(EX));
-      args.add(Protocol.toByteArray((long) getParam(EX)));
+      args.add(RawableFactory.from((long) getParam(EX)));
     } else if (contains(PX)) {
       args.add(SafeEncoder.encode(PX));
-      args.add(Protocol.toByteArray((long) getParam(PX)));
+      args.add(RawableFactory.from((long) getParam(PX)));
     } else if (contains(EXAT)) {
       args.add(SafeEncoder.encode(EXAT));
-      args.add(Protocol.toByteArray((long) getParam(EXAT)));
+      args.add(RawableFactory.from((long) getParam(EXAT)));
     } else if (contains(PXAT)) {
       args.add(SafeEncoder.encode(PXAT));
-      args.add(Protocol.toByteArray((long) getParam(PXAT)));
+      args.add(RawableFactory.from((long) getParam(PXAT)));
     } else if (contains(PERSIST)) {
       args.add(SafeEncoder.encode(PERSIST));
     }
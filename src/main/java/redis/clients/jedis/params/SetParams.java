@@ -1,8 +1,8 @@
 package redis.clients.jedis.params;
 
 import redis.clients.jedis.CommandArguments;
-import redis.clients.jedis.Protocol;
 import redis.clients.jedis.Protocol.Keyword;
+import redis.clients.jedis.args.RawableFactory;
 
 public class SetParams extends Params implements IParams {
 
@@ -109,19 +109,19 @@ public class SetParams extends Params implements IParams {
 
     if (contains(EX)) {
       args.add(Keyword.EX);
-      args.add(Protocol.toByteArray((long) getParam(EX)));
+      args.add(RawableFactory.from((long) getParam(EX)));
     }
     if (contains(PX)) {
       args.add(Keyword.PX);
-      args.add(Protocol.toByteArray((long) getParam(PX)));
+      args.add(RawableFactory.from((long) getParam(PX)));
     }
     if (contains(EXAT)) {
       args.add(Keyword.EXAT);
-      args.add(Protocol.toByteArray((long) getParam(EXAT)));
+      args.add(RawableFactory.from((long) getParam(EXAT)));
     }
     if (contains(PXAT)) {
       args.add(Keyword.PXAT);
-      args.add(Protocol.toByteArray((long) getParam(PXAT)));
+      args.add(RawableFactory.from((long) getParam(PXAT)));
     }
     if (contains(KEEPTTL)) {
       args.add(Keyword.KEEPTTL);
@@ -1,10 +1,18 @@
 package redis.clients.jedis.providers;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.ClusterCommandArguments;
@@ -14,22 +22,99 @@ import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.NodeHealthTracker;
+import redis.clients.jedis.Protocol.Command;
+import redis.clients.jedis.ReadFrom;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisAskDataException;
 import redis.clients.jedis.exceptions.JedisClusterOperationException;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.jedis.util.IOUtils;
 
 public class ClusterConnectionProvider implements ConnectionProvider {
 
+  /**
+   * Commands which only read keys, and may be served by replicas.
+   */
+  private static final Set<ProtocolCommand> READ_ONLY_COMMANDS = Collections.unmodifiableSet(EnumSet.of(
+      Command.GET, Command.MGET, Command.STRLEN, Command.GETRANGE, Command.SUBSTR, Command.GETBIT,
+      Command.BITCOUNT, Command.BITPOS, Command.BITFIELD_RO, Command.LCS, Command.EXISTS,
+      Command.TYPE, Command.TTL, Command.PTTL, Command.EXPIRETIME, Command.PEXPIRETIME, Command.DUMP,
+      Command.TOUCH, Command.SORT_RO, Command.HGET, Command.HMGET, Command.HGETALL, Command.HKEYS,
+      Command.HVALS, Command.HLEN, Command.HEXISTS, Command.HSTRLEN, Command.HRANDFIELD,
+      Command.HSCAN, Command.LRANGE, Command.LLEN, Command.LINDEX, Command.LPOS, Command.SMEMBERS,
+      Command.SISMEMBER, Command.SMISMEMBER, Command.SCARD, Command.SRANDMEMBER, Command.SSCAN,
+      Command.SINTER, Command.SINTERCARD, Command.SUNION, Command.SDIFF, Command.ZRANGE,
+      Command.ZRANGEBYSCORE, Command.ZREVRANGE, Command.ZREVRANGEBYSCORE, Command.ZRANGEBYLEX,
+      Command.ZREVRANGEBYLEX, Command.ZCARD, Command.ZSCORE, Command.ZMSCORE, Command.ZRANK,
+      Command.ZREVRANK, Command.ZCOUNT, Command.ZLEXCOUNT, Command.ZSCAN, Command.ZRANDMEMBER,
+      Command.ZDIFF, Command.ZINTER, Command.ZINTERCARD, Command.ZUNION, Command.GEOPOS,
+      Command.GEODIST, Command.GEOHASH, Command.GEORADIUS_RO, Command.GEORADIUSBYMEMBER_RO,
+      Command.GEOSEARCH, Command.XRANGE, Command.XREVRANGE, Command.XLEN, Command.XREAD,
+      Command.XPENDING, Command.EVAL_RO, Command.EVALSHA_RO, Command.FCALL_RO));
+
+  /**
+   * Least time between two renewals of the slots scheduled by {@link #applyMoved(JedisMovedDataException)}.
+   */
+  public static final Duration SLOT_RENEWAL_INTERVAL = Duration.ofSeconds(1);
+
+  /**
+   * How long the target of an {@code ASK} redirection is remembered for the keys it was given for.
+   */
+  public static final Duration ASK_TARGET_TTL = Duration.ofSeconds(1);
+
+  /**
+   * Most keys remembered per migrating slot.
+   */
+  private static final int MAX_ASK_KEYS = 1024;
+
+  private static final ScheduledExecutorService RENEWAL_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "jedis-cluster-slot-renewal");
+    thread.setDaemon(true);
+    return thread;
+  });
+
   protected final JedisClusterInfoCache cache;
+  private final ReadFrom readFrom;
+  private final NodeHealthTracker health;
+  private volatile ClusterTopologyRefresher topologyRefresher;
+
+  private final AtomicBoolean renewalScheduled = new AtomicBoolean(false);
+  private volatile long lastRenewal = System.nanoTime() - SLOT_RENEWAL_INTERVAL.toNanos();
+  private volatile boolean closed = false;
+
+  private final Map<Integer, AskTarget> askTargets = new ConcurrentHashMap<>();
 
   public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig) {
-    this.cache = new JedisClusterInfoCache(clientConfig, clusterNodes);
-    initializeSlotsCache(clusterNodes, clientConfig);
+    this(clusterNodes, clientConfig, new GenericObjectPoolConfig<Connection>());
   }
 
   public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
       GenericObjectPoolConfig<Connection> poolConfig) {
-    this.cache = new JedisClusterInfoCache(clientConfig, poolConfig, clusterNodes);
+    this(clusterNodes, clientConfig, poolConfig, ReadFrom.MASTER);
+  }
+
+  /**
+   * @param readFrom the node read-only commands are sent to; {@code READONLY} is sent on all
+   * connections unless it is {@link ReadFrom#MASTER}
+   */
+  public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, ReadFrom readFrom) {
+    this(clusterNodes, clientConfig, poolConfig, readFrom, new NodeHealthTracker());
+  }
+
+  /**
+   * @param health tracks the nodes; connections to a node whose circuit is open fail fast, reads
+   * go to other nodes, and the slots are renewed in the background when a circuit opens
+   */
+  public ClusterConnectionProvider(Set<HostAndPort> clusterNodes, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, ReadFrom readFrom, NodeHealthTracker health) {
+    this.readFrom = readFrom;
+    this.health = health;
+    this.cache = new JedisClusterInfoCache(clientConfig, poolConfig, clusterNodes,
+        readFrom != ReadFrom.MASTER);
     initializeSlotsCache(clusterNodes, clientConfig);
   }
 
@@ -49,37 +134,286 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     throw new JedisClusterOperationException("Could not initialize cluster slots cache.");
   }
 
+  /**
+   * Starts refreshing the topology in the background, every {@code minPeriod} after a change, a
+   * redirection or a connection failure, and less often, up to every {@code maxPeriod}, while the
+   * cluster is stable.
+   * @see ClusterTopologyRefresher
+   */
+  public synchronized void startTopologyRefresh(Duration minPeriod, Duration maxPeriod) {
+    if (topologyRefresher != null) {
+      throw new IllegalStateException("The topology is already being refreshed.");
+    }
+    topologyRefresher = new ClusterTopologyRefresher(() -> cache.renewClusterSlots(null),
+        cache::getTopologyVersion, minPeriod, maxPeriod);
+  }
+
+  /**
+   * @return the background refresher; <code>null</code> if not started
+   */
+  public ClusterTopologyRefresher getTopologyRefresher() {
+    return topologyRefresher;
+  }
+
   @Override
   public void close() {
+    closed = true;
+    ClusterTopologyRefresher refresher = topologyRefresher;
+    if (refresher != null) {
+      refresher.close();
+    }
     cache.reset();
   }
 
+  /**
+   * Renews the slots, and brings the next background refresh forward.
+   */
   public void renewSlotCache() {
     cache.renewClusterSlots(null);
+    onTopologyEvent();
   }
 
+  /**
+   * Renews the slots from the node which redirected a command, and brings the next background
+   * refresh forward.
+   */
   public void renewSlotCache(Connection jedis) {
     cache.renewClusterSlots(jedis);
+    onTopologyEvent();
+  }
+
+  /**
+   * Assigns the slot of a {@code MOVED} reply to its new node at once, and renews all slots in the
+   * background: by the topology refresher if started, otherwise at most once per
+   * {@link #SLOT_RENEWAL_INTERVAL}.
+   */
+  public void applyMoved(JedisMovedDataException moved) {
+    askTargets.remove(moved.getSlot());
+    cache.assignSlotToNode(moved.getSlot(), moved.getTargetNode());
+    scheduleRenewal();
+  }
+
+  /**
+   * Remembers the target of an {@code ASK} redirection for the keys of the command, for
+   * {@link #ASK_TARGET_TTL}. Keys are migrated one way, so until the migration of the slot is over
+   * further commands on these keys go to the target at once, see {@link #getAskTarget(CommandArguments)}.
+   */
+  public void applyAsk(JedisAskDataException ask, CommandArguments args) {
+    final List<byte[]> keys = ((ClusterCommandArguments) args).getKeys();
+    if (keys.isEmpty()) {
+      return;
+    }
+    final long now = System.nanoTime();
+    final AskTarget target = askTargets.compute(ask.getSlot(), (slot, current) ->
+        current != null && current.node.equals(ask.getTargetNode()) && now - current.expiresAt < 0
+            ? current : new AskTarget(ask.getTargetNode()));
+    target.expiresAt = now + ASK_TARGET_TTL.toNanos();
+    for (byte[] key : keys) {
+      if (target.keys.size() >= MAX_ASK_KEYS) {
+        break;
+      }
+      target.keys.add(ByteBuffer.wrap(key));
+    }
+  }
+
+  /**
+   * @return the node a recent {@code ASK} redirection sent all the keys of the command to;
+   * <code>null</code> if there is none
+   */
+  public HostAndPort getAskTarget(CommandArguments args) {
+    if (askTargets.isEmpty()) {
+      return null;
+    }
+    final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
+    final AskTarget target = slot >= 0 ? askTargets.get(slot) : null;
+    if (target == null) {
+      return null;
+    }
+    if (System.nanoTime() - target.expiresAt > 0) {
+      askTargets.remove(slot, target);
+      return null;
+    }
+    final List<byte[]> keys = ((ClusterCommandArguments) args).getKeys();
+    for (byte[] key : keys) {
+      if (!target.keys.contains(ByteBuffer.wrap(key))) {
+        return null;
+      }
+    }
+    return keys.isEmpty() ? null : target.node;
+  }
+
+  /**
+   * Forgets the {@code ASK} target of the slot of the command, e.g. after it failed.
+   */
+  public void forgetAskTarget(CommandArguments args) {
+    askTargets.remove(((ClusterCommandArguments) args).getCommandHashSlot());
+  }
+
+  private void scheduleRenewal() {
+    ClusterTopologyRefresher refresher = topologyRefresher;
+    if (refresher != null) {
+      refresher.onTopologyEvent();
+    } else if (renewalScheduled.compareAndSet(false, true)) {
+      final long delay = lastRenewal + SLOT_RENEWAL_INTERVAL.toNanos() - System.nanoTime();
+      RENEWAL_EXECUTOR.schedule(this::renewInBackground, Math.max(0, delay), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void renewInBackground() {
+    // redirections from now on schedule the next renewal
+    renewalScheduled.set(false);
+    if (closed) {
+      return;
+    }
+    lastRenewal = System.nanoTime();
+    // ask a node known to be up rather than the start nodes first, which may be down
+    Connection connection = getHealthyConnection();
+    try {
+      cache.renewClusterSlots(connection);
+    } catch (RuntimeException e) {
+      // the next redirection or connection failure tries again
+    } finally {
+      IOUtils.closeQuietly(connection);
+    }
+  }
+
+  /**
+   * @return a connection to a node whose circuit is closed; <code>null</code> if none could be got
+   */
+  private Connection getHealthyConnection() {
+    List<String> nodeKeys = new ArrayList<>(cache.getNodes().keySet());
+    Collections.shuffle(nodeKeys);
+    for (String nodeKey : nodeKeys) {
+      HostAndPort node = HostAndPort.from(nodeKey);
+      if (health.isAvailable(node)) {
+        try {
+          return getConnection(node);
+        } catch (JedisException e) {
+          // try next nodes
+        }
+      }
+    }
+    return null;
+  }
+
+  public NodeHealthTracker getNodeHealth() {
+    return health;
+  }
+
+  /**
+   * Records a command which succeeded on the node, and how long it took.
+   */
+  public void recordSuccess(HostAndPort node, long nanos) {
+    health.recordSuccess(node);
+    readFrom.recordLatency(node, nanos);
+  }
+
+  /**
+   * Records a connection failure or a timeout on the node. The slots are renewed in the background
+   * if it opened the circuit of the node.
+   */
+  public void recordFailure(HostAndPort node) {
+    readFrom.recordFailure(node);
+    if (health.recordFailure(node)) {
+      scheduleRenewal();
+    }
+  }
+
+  /**
+   * Gets a connection from the pool of the node, unless the circuit of the node is open.
+   */
+  private Connection getResource(HostAndPort node, ConnectionPool pool) {
+    if (node != null && !health.allowRequest(node)) {
+      throw new JedisConnectionException("The circuit breaker of " + node + " is open.");
+    }
+    try {
+      return pool.getResource();
+    } catch (JedisConnectionException e) {
+      if (node != null) {
+        recordFailure(node);
+      }
+      throw e;
+    }
+  }
+
+  private void onTopologyEvent() {
+    ClusterTopologyRefresher refresher = topologyRefresher;
+    if (refresher != null) {
+      refresher.onTopologyEvent();
+    }
   }
 
   public Map<String, ConnectionPool> getNodes() {
     return cache.getNodes();
   }
 
+  public Set<HostAndPort> getMasterNodes() {
+    return cache.getMasterNodes();
+  }
+
   public HostAndPort getNode(int slot) {
     return slot >= 0 ? cache.getSlotNode(slot) : null;
   }
 
   public Connection getConnection(HostAndPort node) {
-    return node != null ? cache.setupNodeIfNotExist(node).getResource() : getConnection();
+    return node != null ? getResource(node, cache.setupNodeIfNotExist(node)) : getConnection();
   }
 
+  public ReadFrom getReadFrom() {
+    return readFrom;
+  }
+
+  /**
+   * @return whether the command only reads, so that a replica may serve it
+   */
+  public boolean isReadOnly(CommandArguments args) {
+    return READ_ONLY_COMMANDS.contains(args.getCommand()) && !args.isBlocking();
+  }
+
+  /**
+   * Read-only commands are sent to the node chosen by the {@link ReadFrom} policy, other commands
+   * to the master of their slot.
+   */
   @Override
   public Connection getConnection(CommandArguments args) {
+    final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
+    if (slot >= 0 && readFrom != ReadFrom.MASTER && isReadOnly(args)) {
+      HostAndPort master = cache.getSlotNode(slot);
+      if (master != null) {
+        return getConnection(readFrom.select(master, availableReplicas(slot)));
+      }
+    }
+    return getMasterConnection(args);
+  }
+
+  /**
+   * @return a connection to the master of the slot of the command, whatever the command is
+   */
+  public Connection getMasterConnection(CommandArguments args) {
     final int slot = ((ClusterCommandArguments) args).getCommandHashSlot();
     return slot >= 0 ? getConnectionFromSlot(slot) : getConnection();
   }
 
+  private List<HostAndPort> availableReplicas(int slot) {
+    List<HostAndPort> replicas = cache.getSlotReplicas(slot);
+    for (HostAndPort replica : replicas) {
+      if (!health.isAvailable(replica)) {
+        List<HostAndPort> available = new ArrayList<>(replicas.size() - 1);
+        for (HostAndPort node : replicas) {
+          if (health.isAvailable(node)) {
+            available.add(node);
+          }
+        }
+        return available;
+      }
+    }
+    return replicas;
+  }
+
+  public List<HostAndPort> getReplicas(int slot) {
+    return slot >= 0 ? cache.getSlotReplicas(slot) : Collections.<HostAndPort>emptyList();
+  }
+
   @Override
   public Connection getConnection() {
     // In antirez's redis-rb-cluster implementation, getRandomConnection always
@@ -121,18 +455,29 @@ public class ClusterConnectionProvider implements ConnectionProvider {
     ConnectionPool connectionPool = cache.getSlotPool(slot);
     if (connectionPool != null) {
       // It can't guaranteed to get valid connection because of node assignment
-      return connectionPool.getResource();
+      return getResource(cache.getSlotNode(slot), connectionPool);
     } else {
       // It's abnormal situation for cluster mode that we have just nothing for slot.
       // Try to rediscover state
       renewSlotCache();
       connectionPool = cache.getSlotPool(slot);
       if (connectionPool != null) {
-        return connectionPool.getResource();
+        return getResource(cache.getSlotNode(slot), connectionPool);
       } else {
         // no choice, fallback to new connection to random node
         return getConnection();
       }
     }
   }
+
+  private static class AskTarget {
+
+    private final HostAndPort node;
+    private final Set<ByteBuffer> keys = ConcurrentHashMap.newKeySet();
+    private volatile long expiresAt;
+
+    private AskTarget(HostAndPort node) {
+      this.node = node;
+    }
+  }
 }
@@ -0,0 +1,112 @@
+package redis.clients.jedis.providers;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refreshes the topology of a cluster in the background. The period adapts to the cluster: it
+ * starts over at the minimum period whenever the topology changed or a redirection or a connection
+ * failure was reported, and doubles up to the maximum period while the topology stays the same.
+ */
+public class ClusterTopologyRefresher implements AutoCloseable {
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Runnable refresh;
+  private final LongSupplier topologyVersion;
+  private final long minPeriodMillis;
+  private final long maxPeriodMillis;
+  private final ScheduledExecutorService scheduler;
+
+  private long periodMillis;
+  private boolean eventReported = false;
+  private ScheduledFuture<?> next;
+  private boolean closed = false;
+
+  /**
+   * @param refresh reads the topology, e.g. with {@code CLUSTER SLOTS}
+   * @param topologyVersion changes whenever a refresh changed the topology
+   */
+  public ClusterTopologyRefresher(Runnable refresh, LongSupplier topologyVersion,
+      Duration minPeriod, Duration maxPeriod) {
+    if (minPeriod.isNegative() || minPeriod.isZero() || maxPeriod.compareTo(minPeriod) < 0) {
+      throw new IllegalArgumentException("The periods must be positive, and the maximum must not be"
+          + " less than the minimum.");
+    }
+    this.refresh = refresh;
+    this.topologyVersion = topologyVersion;
+    this.minPeriodMillis = minPeriod.toMillis();
+    this.maxPeriodMillis = maxPeriod.toMillis();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "jedis-cluster-topology-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+    synchronized (this) {
+      periodMillis = minPeriodMillis;
+      schedule();
+    }
+  }
+
+  /**
+   * Reports a redirection or a connection failure; the next refresh is brought forward to the
+   * minimum period.
+   */
+  public synchronized void onTopologyEvent() {
+    eventReported = true;
+    if (closed || periodMillis == minPeriodMillis) {
+      return;
+    }
+    periodMillis = minPeriodMillis;
+    if (next.getDelay(TimeUnit.MILLISECONDS) > minPeriodMillis && next.cancel(false)) {
+      schedule();
+    }
+  }
+
+  /**
+   * @return delay between the latest refresh and the next one
+   */
+  public synchronized Duration getPeriod() {
+    return Duration.ofMillis(periodMillis);
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    scheduler.shutdownNow();
+  }
+
+  private void schedule() {
+    next = scheduler.schedule(this::refresh, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private void refresh() {
+    final long before = topologyVersion.getAsLong();
+    try {
+      refresh.run();
+    } catch (RuntimeException e) {
+      log.debug("Failed to refresh the cluster topology.", e);
+      onTopologyEvent();
+    }
+    final boolean changed = topologyVersion.getAsLong() != before;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (changed || eventReported) {
+        periodMillis = minPeriodMillis;
+      } else {
+        periodMillis = Math.min(2 * periodMillis, maxPeriodMillis);
+      }
+      eventReported = false;
+      schedule();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package redis.clients.jedis.providers;
+
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionFactory;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.LockFreeConnectionPool;
+
+/**
+ * Like {@link PooledConnectionProvider}, with the connections in a {@link LockFreeConnectionPool}.
+ */
+public class LockFreeConnectionProvider implements ConnectionProvider {
+
+  private final LockFreeConnectionPool pool;
+
+  public LockFreeConnectionProvider(HostAndPort hostAndPort) {
+    this(hostAndPort, DefaultJedisClientConfig.builder().build());
+  }
+
+  public LockFreeConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(hostAndPort, clientConfig, new ConnectionPoolConfig());
+  }
+
+  public LockFreeConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new ConnectionFactory(hostAndPort, clientConfig), poolConfig);
+  }
+
+  public LockFreeConnectionProvider(PooledObjectFactory<Connection> factory,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this(new LockFreeConnectionPool(factory, poolConfig));
+  }
+
+  public LockFreeConnectionProvider(LockFreeConnectionPool pool) {
+    this.pool = pool;
+  }
+
+  @Override
+  public void close() {
+    pool.close();
+  }
+
+  public final LockFreeConnectionPool getPool() {
+    return pool;
+  }
+
+  @Override
+  public Connection getConnection() {
+    return pool.getResource();
+  }
+
+  @Override
+  public Connection getConnection(CommandArguments args) {
+    return pool.getResource();
+  }
+}
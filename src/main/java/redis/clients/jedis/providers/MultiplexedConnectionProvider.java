@@ -0,0 +1,103 @@
+package redis.clients.jedis.providers;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.MultiplexedConnection;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+
+/**
+ * Serves all non-blocking commands through a single {@link MultiplexedConnection}, so many threads
+ * share one socket. Blocking commands, and every caller asking for a connection without command
+ * arguments (transactions, Pub/Sub), get a dedicated connection from a small pool instead.
+ */
+public class MultiplexedConnectionProvider implements ConnectionProvider {
+
+  private final HostAndPort hostAndPort;
+  private final JedisClientConfig clientConfig;
+  private final ConnectionPool pool;
+
+  private volatile MultiplexedConnection connection;
+  private volatile boolean closed;
+
+  public MultiplexedConnectionProvider(HostAndPort hostAndPort) {
+    this(hostAndPort, DefaultJedisClientConfig.builder().build());
+  }
+
+  public MultiplexedConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig) {
+    this(hostAndPort, clientConfig, new GenericObjectPoolConfig<Connection>());
+  }
+
+  public MultiplexedConnectionProvider(HostAndPort hostAndPort, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig) {
+    this.hostAndPort = hostAndPort;
+    this.clientConfig = DefaultJedisClientConfig.copyConfig(clientConfig);
+    this.pool = new ConnectionPool(hostAndPort, this.clientConfig, poolConfig);
+  }
+
+  @Override
+  public void close() {
+    MultiplexedConnection current;
+    synchronized (this) {
+      closed = true;
+      current = connection;
+    }
+    try {
+      if (current != null) {
+        current.disconnect();
+      }
+    } finally {
+      pool.close();
+    }
+  }
+
+  /**
+   * @return the pool of dedicated connections used for blocking commands and transactions
+   */
+  public final ConnectionPool getPool() {
+    return pool;
+  }
+
+  /**
+   * @return the shared connection; a new one is created if the current one is broken
+   * @throws JedisConnectionException if this provider is closed
+   */
+  public MultiplexedConnection getMultiplexedConnection() {
+    MultiplexedConnection current = connection;
+    if (current == null || current.isBroken()) {
+      synchronized (this) {
+        if (closed) {
+          throw new JedisConnectionException("Multiplexed connection provider is closed.");
+        }
+        current = connection;
+        if (current == null || current.isBroken()) {
+          if (current != null) {
+            try {
+              current.disconnect();
+            } catch (RuntimeException e) {
+              // it is already broken
+            }
+          }
+          current = new MultiplexedConnection(hostAndPort, clientConfig);
+          connection = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  @Override
+  public Connection getConnection() {
+    return pool.getResource();
+  }
+
+  @Override
+  public Connection getConnection(CommandArguments args) {
+    return args.isBlocking() ? pool.getResource() : getMultiplexedConnection();
+  }
+}
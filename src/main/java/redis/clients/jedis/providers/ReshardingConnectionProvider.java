@@ -0,0 +1,205 @@
+package redis.clients.jedis.providers;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.CommandObject;
+import redis.clients.jedis.CommandObjects;
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.MigrateParams;
+import redis.clients.jedis.util.IOUtils;
+
+/**
+ * Moves a sharded deployment from the shards of a source provider to the shards of a target
+ * provider, e.g. with one more shard, while serving commands. Commands are sent to the shards of
+ * the target; the keys which are placed on another shard by the target than by the source are
+ * moved from their source shard with {@code MIGRATE}, by the commands using them (see
+ * {@link redis.clients.jedis.executors.ReshardingCommandExecutor}) and by a
+ * {@link redis.clients.jedis.ShardMigrator} scanning the source shards.
+ * <p>
+ * {@code MIGRATE} moves each key atomically on its source shard, so a key is never on both shards
+ * and a key moved once is not overwritten by a later move. A key already on its target shard was
+ * written there after the resharding started, and wins.
+ * <p>
+ * The shards must reach each other at the addresses of the target provider, with its password.
+ */
+public class ReshardingConnectionProvider implements ConnectionProvider {
+
+  private static final String BUSY_KEY = "BUSYKEY";
+
+  /**
+   * Bounds the keys remembered as moved; once it is reached, further keys are moved again by every
+   * command using them, which is correct but costs a {@code MIGRATE} each.
+   */
+  private static final int MAX_MOVED_KEYS = 100_000;
+
+  private final ShardedConnectionProvider source;
+  private final ShardedConnectionProvider target;
+  private final CommandObjects commandObjects = new CommandObjects();
+  private final MigrateParams migrateParams;
+  private final int migrateTimeout;
+  private final int database;
+  private volatile boolean complete = false;
+
+  // keys known not to be on their source shard any more; they never go back
+  private final Set<ByteBuffer> movedKeys = ConcurrentHashMap.newKeySet();
+  // moves hold the read lock, so that complete() does not close the source under them
+  private final ReadWriteLock completion = new ReentrantReadWriteLock();
+
+  /**
+   * @param source the current shards
+   * @param target the new shards, with the same hashing as the source
+   */
+  public ReshardingConnectionProvider(ShardedConnectionProvider source,
+      ShardedConnectionProvider target) {
+    if (source.getHashingAlgo() != target.getHashingAlgo()) {
+      throw new IllegalArgumentException("The source and the target must hash keys the same.");
+    }
+    this.source = source;
+    this.target = target;
+    JedisClientConfig config = target.getClientConfig();
+    this.migrateParams = new MigrateParams();
+    if (config.getPassword() != null) {
+      if (config.getUser() != null) {
+        migrateParams.auth2(config.getUser(), config.getPassword());
+      } else {
+        migrateParams.auth(config.getPassword());
+      }
+    }
+    this.migrateTimeout = config.getSocketTimeoutMillis();
+    this.database = config.getDatabase();
+  }
+
+  public ShardedConnectionProvider getSource() {
+    return source;
+  }
+
+  public ShardedConnectionProvider getTarget() {
+    return target;
+  }
+
+  /**
+   * @return the shard the keys of the hash are moved from; <code>null</code> if they stay on their
+   * shard, or if the resharding is complete
+   */
+  public HostAndPort getMovingFrom(Long hash) {
+    if (complete || hash == null) {
+      return null;
+    }
+    HostAndPort from = source.getNode(hash);
+    return from.equals(target.getNode(hash)) ? null : from;
+  }
+
+  /**
+   * @return <code>true</code> if all the keys are known to be moved already, so that a command
+   * using them does not need to move them
+   */
+  public boolean isMoved(List<byte[]> keys) {
+    if (keys.isEmpty() || movedKeys.isEmpty()) {
+      return false;
+    }
+    for (byte[] key : keys) {
+      if (!movedKeys.contains(ByteBuffer.wrap(key))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Moves the keys from a source shard to another shard. Keys which are not on the source shard
+   * are skipped. Nothing is moved once the resharding is complete.
+   */
+  public void moveKeys(HostAndPort from, HostAndPort to, List<byte[]> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    completion.readLock().lock();
+    try {
+      if (complete) {
+        return;
+      }
+      try (Connection connection = source.getConnection(from)) {
+        try {
+          connection.executeCommand(migrate(to, keys.toArray(new byte[keys.size()][])));
+        } catch (JedisDataException e) {
+          if (e.getMessage() == null || !e.getMessage().contains(BUSY_KEY)) {
+            throw e;
+          }
+          // keys moved before the busy one are gone from the source; the others are moved one by one
+          for (byte[] key : keys) {
+            moveKey(connection, to, key);
+          }
+        }
+      }
+    } finally {
+      completion.readLock().unlock();
+    }
+    for (byte[] key : keys) {
+      if (movedKeys.size() >= MAX_MOVED_KEYS) {
+        break;
+      }
+      movedKeys.add(ByteBuffer.wrap(key));
+    }
+  }
+
+  private void moveKey(Connection connection, HostAndPort to, byte[] key) {
+    try {
+      connection.executeCommand(migrate(to, key));
+    } catch (JedisDataException e) {
+      if (e.getMessage() == null || !e.getMessage().contains(BUSY_KEY)) {
+        throw e;
+      }
+      // the key written to the target after the resharding started is newer
+      connection.executeCommand(commandObjects.del(key));
+    }
+  }
+
+  private CommandObject<String> migrate(HostAndPort to, byte[]... keys) {
+    return commandObjects.migrate(to.getHost(), to.getPort(), database, migrateTimeout,
+        migrateParams, keys);
+  }
+
+  /**
+   * Marks all keys as moved: commands are not checked against the source shards any more, and the
+   * source provider is closed once the moves in progress are over.
+   */
+  public void complete() {
+    completion.writeLock().lock();
+    try {
+      complete = true;
+    } finally {
+      completion.writeLock().unlock();
+    }
+    movedKeys.clear();
+    IOUtils.closeQuietly(source);
+  }
+
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public void close() {
+    IOUtils.closeQuietly(source);
+    IOUtils.closeQuietly(target);
+  }
+
+  @Override
+  public Connection getConnection() {
+    return target.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(CommandArguments args) {
+    return target.getConnection(args);
+  }
+}
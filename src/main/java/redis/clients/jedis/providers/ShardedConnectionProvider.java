@@ -1,12 +1,12 @@
 package redis.clients.jedis.providers;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 
 import redis.clients.jedis.CommandArguments;
@@ -15,17 +15,23 @@ import redis.clients.jedis.JedisClientConfig;
 import redis.clients.jedis.Connection;
 import redis.clients.jedis.ConnectionPool;
 import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.NodeHealthTracker;
+import redis.clients.jedis.ShardPlacement;
 import redis.clients.jedis.ShardedCommandArguments;
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 import redis.clients.jedis.util.Hashing;
 
 public class ShardedConnectionProvider implements ConnectionProvider {
 
-  private final TreeMap<Long, HostAndPort> nodes = new TreeMap<>();
   private final Map<String, ConnectionPool> resources = new HashMap<>();
+  private final List<HostAndPort> shards = new ArrayList<>();
   private final JedisClientConfig clientConfig;
   private final GenericObjectPoolConfig<Connection> poolConfig;
   private final Hashing algo;
+  private final ShardPlacement placement;
+  private volatile ShardPlacement.Locator locator;
+  private final NodeHealthTracker health;
 
   public ShardedConnectionProvider(List<HostAndPort> shards) {
     this(shards, DefaultJedisClientConfig.builder().build());
@@ -47,21 +53,46 @@ public class ShardedConnectionProvider implements ConnectionProvider {
 
   public ShardedConnectionProvider(List<HostAndPort> shards, JedisClientConfig clientConfig,
       GenericObjectPoolConfig<Connection> poolConfig, Hashing algo) {
+    this(shards, clientConfig, poolConfig, algo, new NodeHealthTracker());
+  }
+
+  /**
+   * @param health tracks the shards; connections to a shard whose circuit is open fail fast, and
+   * {@link #getConnection()} skips it. A connection returned to its pool records a success, or a
+   * failure if it is broken.
+   */
+  public ShardedConnectionProvider(List<HostAndPort> shards, JedisClientConfig clientConfig,
+      GenericObjectPoolConfig<Connection> poolConfig, Hashing algo, NodeHealthTracker health) {
+    this(shards, null, clientConfig, poolConfig, algo, ShardPlacement.KETAMA, health);
+  }
+
+  /**
+   * @param weights relative weight of each shard; <code>null</code> - all the same
+   * @param placement places the keys on the shards
+   */
+  public ShardedConnectionProvider(List<HostAndPort> shards, int[] weights,
+      JedisClientConfig clientConfig, GenericObjectPoolConfig<Connection> poolConfig, Hashing algo,
+      ShardPlacement placement, NodeHealthTracker health) {
     this.clientConfig = clientConfig;
     this.poolConfig = poolConfig;
     this.algo = algo;
-    initialize(shards);
-  }
-
-  private void initialize(List<HostAndPort> shards) {
-    for (int i = 0; i < shards.size(); i++) {
-      HostAndPort shard = shards.get(i);
-      for (int n = 0; n < 160; n++) {
-        Long hash = this.algo.hash("SHARD-" + i + "-NODE-" + n);
-        nodes.put(hash, shard);
-        setupNodeIfNotExist(shard);
+    this.placement = placement;
+    this.health = health;
+    if (weights == null) {
+      weights = new int[shards.size()];
+      Arrays.fill(weights, 1);
+    } else if (weights.length != shards.size()) {
+      throw new IllegalArgumentException("There must be a weight for each shard.");
+    }
+    for (int weight : weights) {
+      if (weight <= 0) {
+        throw new IllegalArgumentException("The weights must be positive.");
       }
     }
+    for (HostAndPort shard : shards) {
+      setupNodeIfNotExist(shard);
+    }
+    this.locator = placement.place(shards, weights, algo);
   }
 
   private ConnectionPool setupNodeIfNotExist(final HostAndPort node) {
@@ -69,8 +100,9 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     ConnectionPool existingPool = resources.get(nodeKey);
     if (existingPool != null) return existingPool;
 
-    ConnectionPool nodePool = new ConnectionPool(node, clientConfig, poolConfig);
+    ConnectionPool nodePool = new ShardPool(node);
     resources.put(nodeKey, nodePool);
+    shards.add(node);
     return nodePool;
   }
 
@@ -78,6 +110,25 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     return algo;
   }
 
+  public ShardPlacement getPlacement() {
+    return placement;
+  }
+
+  public JedisClientConfig getClientConfig() {
+    return clientConfig;
+  }
+
+  /**
+   * @return the shards, each once
+   */
+  public List<HostAndPort> getShards() {
+    return new ArrayList<>(shards);
+  }
+
+  public NodeHealthTracker getNodeHealth() {
+    return health;
+  }
+
   private void reset() {
     for (ConnectionPool pool : resources.values()) {
       try {
@@ -89,7 +140,8 @@ public class ShardedConnectionProvider implements ConnectionProvider {
       }
     }
     resources.clear();
-    nodes.clear();
+    shards.clear();
+    locator = null;
   }
 
   @Override
@@ -102,7 +154,22 @@ public class ShardedConnectionProvider implements ConnectionProvider {
   }
 
   public Connection getConnection(HostAndPort node) {
-    return node != null ? setupNodeIfNotExist(node).getResource() : getConnection();
+    return node != null ? getResource(node, setupNodeIfNotExist(node)) : getConnection();
+  }
+
+  /**
+   * Gets a connection from the pool of the shard, unless the circuit of the shard is open.
+   */
+  private Connection getResource(HostAndPort node, ConnectionPool pool) {
+    if (!health.allowRequest(node)) {
+      throw new JedisConnectionException("The circuit breaker of " + node + " is open.");
+    }
+    try {
+      return pool.getResource();
+    } catch (JedisConnectionException e) {
+      health.recordFailure(node);
+      throw e;
+    }
   }
 
   @Override
@@ -111,21 +178,33 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     return hash != null ? getConnection(getNodeFromHash(hash)) : getConnection();
   }
 
-  private List<ConnectionPool> getShuffledNodesPool() {
-    List<ConnectionPool> pools = new ArrayList<>(resources.values());
-    Collections.shuffle(pools);
-    return pools;
+  /**
+   * @return the shards in random order, those whose circuit is open last
+   */
+  private List<HostAndPort> getShuffledShards() {
+    List<HostAndPort> shuffled = new ArrayList<>(shards);
+    Collections.shuffle(shuffled);
+    List<HostAndPort> unavailable = new ArrayList<>();
+    for (Iterator<HostAndPort> it = shuffled.iterator(); it.hasNext();) {
+      HostAndPort shard = it.next();
+      if (!health.isAvailable(shard)) {
+        unavailable.add(shard);
+        it.remove();
+      }
+    }
+    shuffled.addAll(unavailable);
+    return shuffled;
   }
 
   @Override
   public Connection getConnection() {
-    List<ConnectionPool> pools = getShuffledNodesPool();
+    List<HostAndPort> shuffled = getShuffledShards();
 
     JedisException suppressed = null;
-    for (ConnectionPool pool : pools) {
+    for (HostAndPort shard : shuffled) {
       Connection jedis = null;
       try {
-        jedis = pool.getResource();
+        jedis = getResource(shard, resources.get(shard.toString()));
         if (jedis == null) {
           continue;
         }
@@ -138,6 +217,7 @@ public class ShardedConnectionProvider implements ConnectionProvider {
           suppressed = ex;
         }
         if (jedis != null) {
+          // records the failure if the connection is broken
           jedis.close();
         }
       }
@@ -150,11 +230,41 @@ public class ShardedConnectionProvider implements ConnectionProvider {
     throw noReachableNode;
   }
 
-  private HostAndPort getNodeFromHash(Long hash) {
-    SortedMap<Long, HostAndPort> tail = nodes.tailMap(hash);
-    if (tail.isEmpty()) {
-      return nodes.get(nodes.firstKey());
+  private HostAndPort getNodeFromHash(long hash) {
+    ShardPlacement.Locator locator = this.locator;
+    if (locator == null) {
+      throw new JedisException("The provider is closed.");
+    }
+    return locator.getShard(hash);
+  }
+
+  /**
+   * Records the outcome of the commands of a shard, whatever executed them, when their connection
+   * is returned.
+   */
+  private class ShardPool extends ConnectionPool {
+
+    private final HostAndPort node;
+
+    private ShardPool(HostAndPort node) {
+      super(node, clientConfig, poolConfig);
+      this.node = node;
+    }
+
+    @Override
+    public void returnResource(Connection resource) {
+      if (resource != null) {
+        health.recordSuccess(node);
+      }
+      super.returnResource(resource);
+    }
+
+    @Override
+    public void returnBrokenResource(Connection resource) {
+      if (resource != null) {
+        health.recordFailure(node);
+      }
+      super.returnBrokenResource(resource);
     }
-    return tail.get(tail.firstKey());
   }
 }
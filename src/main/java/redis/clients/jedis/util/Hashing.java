@@ -5,6 +5,7 @@ import java.security.NoSuchAlgorithmException;
 
 public interface Hashing {
   Hashing MURMUR_HASH = new MurmurHash();
+  Hashing XX_HASH = new XXHash64();
   ThreadLocal<MessageDigest> md5Holder = new ThreadLocal<>();
 
   Hashing MD5 = new Hashing() {
@@ -33,6 +33,27 @@ public final class JedisClusterCRC16 {
       0x2C83, 0x1CE0, 0x0CC1, 0xEF1F, 0xFF3E, 0xCF5D, 0xDF7C, 0xAF9B, 0xBFBA, 0x8FD9, 0x9FF8,
       0x6E17, 0x7E36, 0x4E55, 0x5E74, 0x2E93, 0x3EB2, 0x0ED1, 0x1EF0, };
 
+  /**
+   * Tables of slice-by-8: entry {@code 256 * k + b} is the CRC16 of byte {@code b} followed by
+   * {@code k} zero bytes. The first table is {@link #LOOKUP_TABLE}.
+   */
+  private static final int[] SLICING_TABLE = new int[8 * 256];
+
+  /**
+   * Ranges at least this long are hashed 8 bytes at a time.
+   */
+  private static final int SLICING_THRESHOLD = 16;
+
+  static {
+    System.arraycopy(LOOKUP_TABLE, 0, SLICING_TABLE, 0, 256);
+    for (int k = 1; k < 8; k++) {
+      for (int b = 0; b < 256; b++) {
+        final int crc = SLICING_TABLE[256 * (k - 1) + b];
+        SLICING_TABLE[256 * k + b] = ((crc << 8) ^ LOOKUP_TABLE[(crc >>> 8) & 0xFF]) & 0xFFFF;
+      }
+    }
+  }
+
   private JedisClusterCRC16() {
     throw new InstantiationError("Must not instantiate this class");
   }
@@ -42,9 +63,7 @@ public final class JedisClusterCRC16 {
       throw new JedisClusterOperationException("Slot calculation of null is impossible");
     }
 
-    key = JedisClusterHashTag.getHashTag(key);
-    // optimization with modulo operator with power of 2 equivalent to getCRC16(key) % 16384
-    return getCRC16(key) & (16384 - 1);
+    return getSlot(SafeEncoder.encode(key));
   }
 
   public static int getSlot(byte[] key) {
@@ -52,22 +71,21 @@ public final class JedisClusterCRC16 {
       throw new JedisClusterOperationException("Slot calculation of null is impossible");
     }
 
-    int s = -1;
-    int e = -1;
-    boolean sFound = false;
-    for (int i = 0; i < key.length; i++) {
-      if (key[i] == '{' && !sFound) {
-        s = i;
-        sFound = true;
-      }
-      if (key[i] == '}' && sFound) {
-        e = i;
+    // hash only the tag between the first '{' and the first '}' after it, if it is not empty
+    for (int s = 0; s < key.length; s++) {
+      if (key[s] == '{') {
+        for (int e = s + 1; e < key.length; e++) {
+          if (key[e] == '}') {
+            if (e != s + 1) {
+              // optimization with modulo operator with power of 2 equivalent to getCRC16(key) % 16384
+              return getCRC16(key, s + 1, e) & (16384 - 1);
+            }
+            break;
+          }
+        }
         break;
       }
     }
-    if (s > -1 && e > -1 && e != s + 1) {
-      return getCRC16(key, s + 1, e) & (16384 - 1);
-    }
     return getCRC16(key) & (16384 - 1);
   }
 
@@ -81,6 +99,13 @@ public final class JedisClusterCRC16 {
    *         href="https://github.com/xetorthio/jedis/pull/733#issuecomment-55840331">Issue 733</a>
    */
   public static int getCRC16(byte[] bytes, int s, int e) {
+    return e - s >= SLICING_THRESHOLD ? getCRC16SliceBy8(bytes, s, e) : getCRC16Bytewise(bytes, s, e);
+  }
+
+  /**
+   * Create a CRC16 checksum from the bytes, one byte at a time with a single lookup table.
+   */
+  public static int getCRC16Bytewise(byte[] bytes, int s, int e) {
     int crc = 0x0000;
 
     for (int i = s; i < e; i++) {
@@ -89,6 +114,30 @@ public final class JedisClusterCRC16 {
     return crc & 0xFFFF;
   }
 
+  /**
+   * Create a CRC16 checksum from the bytes, 8 bytes at a time with 8 lookup tables (slice-by-8).
+   * The lookups of a block do not depend on each other, which pays off for longer keys.
+   */
+  public static int getCRC16SliceBy8(byte[] bytes, int s, int e) {
+    final int[] t = SLICING_TABLE;
+    int crc = 0x0000;
+    int i = s;
+    for (final int blocks = e - 7; i < blocks; i += 8) {
+      crc = t[7 * 256 + (((crc >>> 8) ^ bytes[i]) & 0xFF)]
+          ^ t[6 * 256 + ((crc ^ bytes[i + 1]) & 0xFF)]
+          ^ t[5 * 256 + (bytes[i + 2] & 0xFF)]
+          ^ t[4 * 256 + (bytes[i + 3] & 0xFF)]
+          ^ t[3 * 256 + (bytes[i + 4] & 0xFF)]
+          ^ t[2 * 256 + (bytes[i + 5] & 0xFF)]
+          ^ t[256 + (bytes[i + 6] & 0xFF)]
+          ^ t[bytes[i + 7] & 0xFF];
+    }
+    for (; i < e; i++) {
+      crc = ((crc << 8) ^ LOOKUP_TABLE[((crc >>> 8) ^ (bytes[i] & 0xFF)) & 0xFF]);
+    }
+    return crc & 0xFFFF;
+  }
+
   public static int getCRC16(byte[] bytes) {
     return getCRC16(bytes, 0, bytes.length);
   }
@@ -0,0 +1,114 @@
+package redis.clients.jedis.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the tag of a key, the part of the key that is hashed to choose its shard; keys with the
+ * same tag go to the same shard. Works on the encoded key, so that String and binary keys with the
+ * same bytes have the same tag.
+ */
+public interface KeyTagExtractor {
+
+  /**
+   * Keys have no tag; the whole key is hashed.
+   */
+  KeyTagExtractor NONE = key -> key;
+
+  /**
+   * The tag is between the first <code>{</code> and the next <code>}</code>, and is not empty: the
+   * same tags as <code>JedisSharding.DEFAULT_KEY_TAG_PATTERN</code>, without a regular expression.
+   */
+  KeyTagExtractor BRACES = delimiters('{', '}');
+
+  /**
+   * @param key the encoded key
+   * @return the tag of the key; the key itself if it has no tag
+   */
+  byte[] getTag(byte[] key);
+
+  /**
+   * @param open ASCII character starting a tag
+   * @param close ASCII character ending a tag
+   * @return an extractor of the tags between {@code open} and the next {@code close}, with the same
+   * tags as the pattern <code>open(.+?)close</code>
+   */
+  static KeyTagExtractor delimiters(char open, char close) {
+    if (open > 0x7F || close > 0x7F) {
+      throw new IllegalArgumentException("The delimiters must be ASCII characters.");
+    }
+    return new Delimiters((byte) open, (byte) close);
+  }
+
+  /**
+   * @param pattern a pattern whose first group is the tag; <code>null</code> - for no tag
+   * @return {@link #BRACES} for <code>JedisSharding.DEFAULT_KEY_TAG_PATTERN</code>; otherwise an
+   * extractor matching the pattern against the decoded key
+   */
+  static KeyTagExtractor from(Pattern pattern) {
+    if (pattern == null) {
+      return NONE;
+    }
+    if (pattern.flags() == 0 && Delimiters.DEFAULT_PATTERN.equals(pattern.pattern())) {
+      return BRACES;
+    }
+    return key -> {
+      Matcher m = pattern.matcher(SafeEncoder.encode(key));
+      return m.find() ? SafeEncoder.encode(m.group(1)) : key;
+    };
+  }
+
+  final class Delimiters implements KeyTagExtractor {
+
+    private static final String DEFAULT_PATTERN = "\\{(.+?)\\}";
+
+    private final byte open;
+    private final byte close;
+
+    private Delimiters(byte open, byte close) {
+      this.open = open;
+      this.close = close;
+    }
+
+    @Override
+    public byte[] getTag(byte[] key) {
+      for (int s = 0; s < key.length; s++) {
+        if (key[s] != open) {
+          continue;
+        }
+        // as .+? the tag has at least one character, which may be the closing one, and no line
+        // terminator; if there is one, a later opening character may still start a tag
+        for (int e = s + 1; e < key.length; e++) {
+          if (isLineTerminator(key, e)) {
+            break;
+          }
+          if (key[e] == close && e > s + 1) {
+            byte[] tag = new byte[e - s - 1];
+            System.arraycopy(key, s + 1, tag, 0, tag.length);
+            return tag;
+          }
+        }
+      }
+      return key;
+    }
+
+    /**
+     * @return whether a line terminator of {@link Pattern} starts at {@code i}: LF, CR, NEL, or the
+     * Unicode line or paragraph separator, UTF-8 encoded
+     */
+    private static boolean isLineTerminator(byte[] key, int i) {
+      switch (key[i]) {
+        case '\n':
+        case '\r':
+          return true;
+        case (byte) 0xC2:
+          return i + 1 < key.length && key[i + 1] == (byte) 0x85;
+        case (byte) 0xE2:
+          return i + 2 < key.length && key[i + 1] == (byte) 0x80
+              && (key[i + 2] == (byte) 0xA8 || key[i + 2] == (byte) 0xA9);
+        default:
+          return false;
+      }
+    }
+  }
+}
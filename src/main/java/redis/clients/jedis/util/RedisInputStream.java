@@ -13,6 +13,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 
 /**
@@ -47,6 +51,14 @@ public class RedisInputStream extends FilterInputStream {
     return buf[count++];
   }
 
+  /**
+   * @return the next byte, which is left in the stream
+   */
+  public byte peekByte() throws JedisConnectionException {
+    ensureFill();
+    return buf[count];
+  }
+
   public String readLine() {
     final StringBuilder sb = new StringBuilder();
     while (true) {
@@ -192,6 +204,202 @@ public class RedisInputStream extends FilterInputStream {
     return length;
   }
 
+  /**
+   * Reads {@code len} bytes followed by CRLF as a UTF-8 string. The string is decoded straight
+   * from the internal buffer when it is already there.
+   */
+  public String readStringCrLf(final int len) {
+    ensureFill();
+    final String value;
+    if (limit - count >= len) {
+      value = new String(buf, count, len, StandardCharsets.UTF_8);
+      count += len;
+    } else {
+      value = new String(readBytes(len), StandardCharsets.UTF_8);
+    }
+    readCrLf();
+    return value;
+  }
+
+  /**
+   * Reads {@code len} bytes followed by CRLF as a double, e.g. a sorted set score. The double is
+   * parsed straight from the internal buffer when it is already there.
+   */
+  public double readDoubleCrLf(final int len) {
+    ensureFill();
+    final double value;
+    if (limit - count >= len) {
+      value = parseDouble(buf, count, len);
+      count += len;
+    } else {
+      value = parseDouble(readBytes(len), 0, len);
+    }
+    readCrLf();
+    return value;
+  }
+
+  private byte[] readBytes(final int len) {
+    final byte[] bytes = new byte[len];
+    int offset = 0;
+    while (offset < len) {
+      offset += read(bytes, offset, len - offset);
+    }
+    return bytes;
+  }
+
+  private void readCrLf() {
+    readByte();
+    readByte();
+  }
+
+  private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+      1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+  /**
+   * Plain decimals of up to 15 significant digits, which covers most scores, are converted without
+   * creating a String: both the digits and the power of ten are exact doubles, so one division is
+   * correctly rounded. Anything else goes through {@link Double#parseDouble(String)}.
+   */
+  static double parseDouble(final byte[] bytes, final int offset, final int len) {
+    final int end = offset + len;
+    int pos = offset;
+    boolean negative = false;
+    if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+      negative = bytes[pos] == '-';
+      pos++;
+    }
+
+    long mantissa = 0;
+    int significantDigits = 0;
+    int scale = 0;
+    boolean digits = false;
+    boolean fraction = false;
+    for (; pos < end; pos++) {
+      final byte b = bytes[pos];
+      if (b >= '0' && b <= '9') {
+        digits = true;
+        if (mantissa != 0 || b != '0') {
+          if (++significantDigits > 15) {
+            return parseDoubleSlowly(bytes, offset, len);
+          }
+        }
+        mantissa = mantissa * 10 + (b - '0');
+        if (fraction) {
+          scale++;
+        }
+      } else if (b == '.' && !fraction) {
+        fraction = true;
+      } else {
+        return parseDoubleSlowly(bytes, offset, len);
+      }
+    }
+    if (!digits || scale >= POWERS_OF_TEN.length) {
+      return parseDoubleSlowly(bytes, offset, len);
+    }
+
+    final double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+    return negative ? -value : value;
+  }
+
+  private static double parseDoubleSlowly(final byte[] bytes, final int offset, final int len) {
+    final String string = new String(bytes, offset, len, StandardCharsets.US_ASCII);
+    switch (string) {
+      case "inf":
+      case "+inf":
+        return Double.POSITIVE_INFINITY;
+      case "-inf":
+        return Double.NEGATIVE_INFINITY;
+      case "nan":
+        return Double.NaN;
+      default:
+        return Double.parseDouble(string);
+    }
+  }
+
+  /**
+   * Copies the next {@code len} bytes to {@code out}, chunk by chunk from the internal buffer. If
+   * {@code out} fails, the remaining bytes are still consumed so that the stream stays in sync, and
+   * the failure is rethrown afterwards.
+   */
+  public void readTo(final OutputStream out, final int len) throws IOException {
+    IOException sinkFailure = null;
+    int remaining = len;
+    while (remaining > 0) {
+      ensureFill();
+      final int length = Math.min(limit - count, remaining);
+      if (sinkFailure == null) {
+        try {
+          out.write(buf, count, length);
+        } catch (IOException e) {
+          sinkFailure = e;
+        }
+      }
+      count += length;
+      remaining -= length;
+    }
+    if (sinkFailure != null) {
+      throw sinkFailure;
+    }
+  }
+
+  /**
+   * Same as {@link #readTo(OutputStream, int)} for a blocking channel.
+   */
+  public void readTo(final WritableByteChannel channel, final int len) throws IOException {
+    IOException sinkFailure = null;
+    int remaining = len;
+    while (remaining > 0) {
+      ensureFill();
+      final int length = Math.min(limit - count, remaining);
+      if (sinkFailure == null) {
+        try {
+          final ByteBuffer chunk = ByteBuffer.wrap(buf, count, length);
+          while (chunk.hasRemaining()) {
+            channel.write(chunk);
+          }
+        } catch (IOException e) {
+          sinkFailure = e;
+        }
+      }
+      count += length;
+      remaining -= length;
+    }
+    if (sinkFailure != null) {
+      throw sinkFailure;
+    }
+  }
+
+  /**
+   * Copies the next {@code len} bytes into {@code dst}, which must have enough space remaining.
+   */
+  public void readTo(final ByteBuffer dst, final int len) {
+    if (dst.remaining() < len) {
+      throw new IllegalArgumentException("Buffer has " + dst.remaining() + " bytes remaining, "
+          + len + " needed.");
+    }
+    int remaining = len;
+    while (remaining > 0) {
+      ensureFill();
+      final int length = Math.min(limit - count, remaining);
+      dst.put(buf, count, length);
+      count += length;
+      remaining -= length;
+    }
+  }
+
+  /**
+   * Discards the next {@code len} bytes.
+   */
+  public void skipBytes(final int len) {
+    int remaining = len;
+    while (remaining > 0) {
+      ensureFill();
+      final int length = Math.min(limit - count, remaining);
+      count += length;
+      remaining -= length;
+    }
+  }
+
   /**
    * This methods assumes there are required bytes to be read. If we cannot read anymore bytes an
    * exception is thrown to quickly ascertain that the stream was smaller than expected.
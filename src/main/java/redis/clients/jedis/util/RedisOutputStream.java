@@ -1,8 +1,14 @@
 package redis.clients.jedis.util;
 
+import java.io.EOFException;
 import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * The class implements a buffered output stream without synchronization There are also special
@@ -40,6 +46,8 @@ public final class RedisOutputStream extends FilterOutputStream {
       'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's',
       't', 'u', 'v', 'w', 'x', 'y', 'z' };
 
+  private final static byte[] LONG_MIN_VALUE = SafeEncoder.encode(String.valueOf(Long.MIN_VALUE));
+
   public RedisOutputStream(final OutputStream out) {
     this(out, OUTPUT_BUFFER_SIZE);
   }
@@ -86,6 +94,63 @@ public final class RedisOutputStream extends FilterOutputStream {
     }
   }
 
+  /**
+   * Writes the remaining bytes of {@code src} without changing its position. Direct buffers are
+   * copied through the internal buffer, chunk by chunk.
+   */
+  public void write(final ByteBuffer src) throws IOException {
+    if (src.hasArray()) {
+      write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+      return;
+    }
+    final ByteBuffer chunk = src.duplicate();
+    while (chunk.hasRemaining()) {
+      if (count == buf.length) {
+        flushBuffer();
+      }
+      final int length = Math.min(buf.length - count, chunk.remaining());
+      chunk.get(buf, count, length);
+      count += length;
+    }
+  }
+
+  /**
+   * Writes exactly {@code len} bytes read from {@code in}, chunk by chunk through the internal
+   * buffer.
+   */
+  public void write(final InputStream in, final int len) throws IOException {
+    int remaining = len;
+    while (remaining > 0) {
+      if (count == buf.length) {
+        flushBuffer();
+      }
+      final int read = in.read(buf, count, Math.min(buf.length - count, remaining));
+      if (read == -1) {
+        throw new EOFException((len - remaining) + " of " + len + " bytes could be read.");
+      }
+      count += read;
+      remaining -= read;
+    }
+  }
+
+  /**
+   * Writes {@code len} bytes of the file, starting at {@code position}, using
+   * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. The position of the channel is
+   * not changed.
+   */
+  public void write(final FileChannel file, final long position, final int len) throws IOException {
+    flushBuffer();
+    final WritableByteChannel target = Channels.newChannel(out);
+    long transferred = 0;
+    while (transferred < len) {
+      final long n = file.transferTo(position + transferred, len - transferred, target);
+      if (n <= 0) {
+        throw new EOFException(transferred + " of " + len + " bytes could be read.");
+      }
+      transferred += n;
+    }
+  }
+
   public void writeCrLf() throws IOException {
     if (2 >= buf.length - count) {
       flushBuffer();
@@ -133,6 +198,152 @@ public final class RedisOutputStream extends FilterOutputStream {
     writeCrLf();
   }
 
+  /**
+   * Writes the decimal digits of {@code value}, without CRLF and without any intermediate
+   * {@code String} or {@code byte[]}.
+   */
+  public void writeLong(long value) throws IOException {
+    if (value == Long.MIN_VALUE) {
+      write(LONG_MIN_VALUE);
+      return;
+    }
+    final int size = stringSize(value);
+    if (size > buf.length) {
+      write(SafeEncoder.encode(String.valueOf(value)));
+      return;
+    }
+    if (size > buf.length - count) {
+      flushBuffer();
+    }
+
+    int charPos = count + size;
+    if (value < 0) {
+      buf[count] = '-';
+      value = -value;
+    }
+
+    long q;
+    int r;
+    while (value >= 100) {
+      q = value / 100;
+      r = (int) (value - ((q << 6) + (q << 5) + (q << 2)));
+      value = q;
+      buf[--charPos] = DigitOnes[r];
+      buf[--charPos] = DigitTens[r];
+    }
+    r = (int) value;
+    buf[--charPos] = DigitOnes[r];
+    if (r >= 10) {
+      buf[--charPos] = DigitTens[r];
+    }
+    count += size;
+  }
+
+  /**
+   * @return number of bytes {@link #writeLong(long)} writes for {@code value}
+   */
+  public static int stringSize(long value) {
+    if (value == Long.MIN_VALUE) {
+      return LONG_MIN_VALUE.length;
+    }
+    int size = 1;
+    if (value < 0) {
+      size++;
+      value = -value;
+    }
+    long p = 10;
+    for (int i = 1; i < 19; i++) {
+      if (value < p) {
+        return size;
+      }
+      size++;
+      p = 10 * p;
+    }
+    return size;
+  }
+
+  /**
+   * Encodes {@code str} as UTF-8 straight into the buffer. Unpaired surrogates are written as
+   * {@code '?'}, just like {@link String#getBytes(java.nio.charset.Charset)} does.
+   */
+  public void writeUtf8(final String str) throws IOException {
+    if (buf.length < 4) {
+      write(SafeEncoder.encode(str));
+      return;
+    }
+    final int strLen = str.length();
+    int i = 0;
+    while (i < strLen) {
+      // ASCII fast path, as long as the buffer has room
+      final int stop = Math.min(strLen, i + buf.length - count);
+      while (i < stop) {
+        final char c = str.charAt(i);
+        if (c >= 0x80) {
+          break;
+        }
+        buf[count++] = (byte) c;
+        i++;
+      }
+      if (i == strLen) {
+        return;
+      }
+      if (buf.length - count < 4) {
+        flushBuffer();
+        continue;
+      }
+
+      final char c = str.charAt(i++);
+      if (c < 0x80) {
+        buf[count++] = (byte) c;
+      } else if (c < 0x800) {
+        buf[count++] = (byte) (0xc0 | (c >> 6));
+        buf[count++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i < strLen && Character.isLowSurrogate(str.charAt(i))) {
+          final int cp = Character.toCodePoint(c, str.charAt(i++));
+          buf[count++] = (byte) (0xf0 | (cp >> 18));
+          buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+          buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+          buf[count++] = (byte) (0x80 | (cp & 0x3f));
+        } else {
+          buf[count++] = '?';
+        }
+      } else {
+        buf[count++] = (byte) (0xe0 | (c >> 12));
+        buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buf[count++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  /**
+   * @return number of bytes {@link #writeUtf8(String)} writes for {@code str}
+   */
+  public static int utf8Length(final String str) {
+    final int strLen = str.length();
+    int len = strLen;
+    for (int i = 0; i < strLen; i++) {
+      final char c = str.charAt(i);
+      if (c < 0x80) {
+        continue;
+      }
+      if (c < 0x800) {
+        len += 1;
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < strLen
+            && Character.isLowSurrogate(str.charAt(i + 1))) {
+          // 4 bytes for 2 chars
+          len += 2;
+          i++;
+        }
+        // else '?'
+      } else {
+        len += 2;
+      }
+    }
+    return len;
+  }
+
   @Override
   public void flush() throws IOException {
     flushBuffer();
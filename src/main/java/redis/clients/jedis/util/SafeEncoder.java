@@ -56,6 +56,11 @@ public final class SafeEncoder {
       return returnValueArray;
     }
 
+    if (dataToEncode instanceof KeyValue) {
+      KeyValue keyValue = (KeyValue) dataToEncode;
+      return new KeyValue<>(encodeObject(keyValue.getKey()), encodeObject(keyValue.getValue()));
+    }
+
     return dataToEncode;
   }
 }
@@ -0,0 +1,116 @@
+package redis.clients.jedis.util;
+
+/**
+ * xxHash64, a very fast non-cryptographic 64 bit hash with good distribution. See
+ * https://github.com/Cyan4973/xxHash for the specification.
+ */
+public class XXHash64 implements Hashing {
+
+  private static final long PRIME1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME3 = 0x165667B19E3779F9L;
+  private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+  private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+  /**
+   * Hashes bytes in part of an array.
+   * @param data The data to hash.
+   * @param offset Where to start.
+   * @param length How many bytes to process.
+   * @param seed The seed for the hash.
+   * @return The 64 bit hash of the bytes in question.
+   */
+  public static long hash64(byte[] data, int offset, int length, long seed) {
+    final int end = offset + length;
+    int i = offset;
+    long h;
+
+    if (length >= 32) {
+      long v1 = seed + PRIME1 + PRIME2;
+      long v2 = seed + PRIME2;
+      long v3 = seed;
+      long v4 = seed - PRIME1;
+      for (final int limit = end - 32; i <= limit; i += 32) {
+        v1 = round(v1, readLong(data, i));
+        v2 = round(v2, readLong(data, i + 8));
+        v3 = round(v3, readLong(data, i + 16));
+        v4 = round(v4, readLong(data, i + 24));
+      }
+      h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+          + Long.rotateLeft(v4, 18);
+      h = mergeRound(h, v1);
+      h = mergeRound(h, v2);
+      h = mergeRound(h, v3);
+      h = mergeRound(h, v4);
+    } else {
+      h = seed + PRIME5;
+    }
+
+    h += length;
+
+    for (; i + 8 <= end; i += 8) {
+      h ^= round(0, readLong(data, i));
+      h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+    }
+    if (i + 4 <= end) {
+      h ^= (readInt(data, i) & 0xFFFFFFFFL) * PRIME1;
+      h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+      i += 4;
+    }
+    for (; i < end; i++) {
+      h ^= (data[i] & 0xFF) * PRIME5;
+      h = Long.rotateLeft(h, 11) * PRIME1;
+    }
+
+    return mix(h);
+  }
+
+  public static long hash64(byte[] data, long seed) {
+    return hash64(data, 0, data.length, seed);
+  }
+
+  /**
+   * The final mixing of xxHash64: every bit of the input affects every bit of the output. Also
+   * spreads values with few significant bits, e.g. 32 bit hashes, over 64 bits.
+   */
+  public static long mix(long h) {
+    h ^= h >>> 33;
+    h *= PRIME2;
+    h ^= h >>> 29;
+    h *= PRIME3;
+    h ^= h >>> 32;
+    return h;
+  }
+
+  private static long round(long acc, long input) {
+    acc += input * PRIME2;
+    acc = Long.rotateLeft(acc, 31);
+    return acc * PRIME1;
+  }
+
+  private static long mergeRound(long acc, long val) {
+    acc ^= round(0, val);
+    return acc * PRIME1 + PRIME4;
+  }
+
+  private static long readLong(byte[] data, int i) {
+    return (data[i] & 0xFFL) | (data[i + 1] & 0xFFL) << 8 | (data[i + 2] & 0xFFL) << 16
+        | (data[i + 3] & 0xFFL) << 24 | (data[i + 4] & 0xFFL) << 32 | (data[i + 5] & 0xFFL) << 40
+        | (data[i + 6] & 0xFFL) << 48 | (data[i + 7] & 0xFFL) << 56;
+  }
+
+  private static int readInt(byte[] data, int i) {
+    return (data[i] & 0xFF) | (data[i + 1] & 0xFF) << 8 | (data[i + 2] & 0xFF) << 16
+        | (data[i + 3] & 0xFF) << 24;
+  }
+
+  @Override
+  public long hash(byte[] key) {
+    return hash64(key, 0);
+  }
+
+  @Override
+  public long hash(String key) {
+    return hash(SafeEncoder.encode(key));
+  }
+}
@@ -0,0 +1,149 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.providers.MultiplexedConnectionProvider;
+import redis.clients.jedis.providers.PooledConnectionProvider;
+import redis.clients.jedis.providers.ShardedConnectionProvider;
+
+public class AsyncUnifiedJedisTest {
+
+  private static final HostAndPort hnp = HostAndPorts.getRedisServers().get(7);
+
+  @Before
+  public void setUp() {
+    try (Jedis jedis = new Jedis(hnp)) {
+      jedis.flushAll();
+    }
+  }
+
+  @Test
+  public void multiplexed() {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(new MultiplexedConnectionProvider(hnp))) {
+      checkCommands(jedis);
+    }
+  }
+
+  @Test
+  public void pooled() {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(new PooledConnectionProvider(hnp))) {
+      checkCommands(jedis);
+    }
+  }
+
+  @Test
+  public void sharded() {
+    JedisClientConfig clientConfig = DefaultJedisClientConfig.builder().password("foobared").build();
+    List<HostAndPort> shards = Arrays.asList(HostAndPorts.getRedisServers().get(0),
+        HostAndPorts.getRedisServers().get(1));
+    for (HostAndPort shard : shards) {
+      try (Jedis j = new Jedis(shard, clientConfig)) {
+        j.flushAll();
+      }
+    }
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(
+        new ShardedConnectionProvider(shards, clientConfig))) {
+      checkCommands(jedis);
+    }
+  }
+
+  @Test
+  public void errorCompletesExceptionally() {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(new MultiplexedConnectionProvider(hnp))) {
+      jedis.set("foo", "bar").join();
+      try {
+        jedis.incr("foo").join();
+        fail("INCR on a string should fail");
+      } catch (CompletionException e) {
+        assertTrue(e.getCause() instanceof JedisDataException);
+      }
+      assertEquals("bar", jedis.get("foo").join());
+    }
+  }
+
+  @Test
+  public void callbackWaitsForAnotherReply() throws Exception {
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(new MultiplexedConnectionProvider(hnp))) {
+      // the callback does not run on the reader thread, which reads the reply it waits for
+      CompletableFuture<String> chained = jedis.set("foo", "bar")
+          .thenApply(ok -> jedis.get("foo").join());
+      assertEquals("bar", chained.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void closeCompletesPendingCommands() throws Exception {
+    MultiplexedConnectionProvider provider = new MultiplexedConnectionProvider(hnp);
+    List<CompletableFuture<String>> sets = new ArrayList<>();
+    try (AsyncUnifiedJedis jedis = new AsyncUnifiedJedis(provider)) {
+      for (int i = 0; i < 1000; i++) {
+        sets.add(jedis.set("foo" + i, "bar" + i));
+      }
+    }
+    for (CompletableFuture<String> set : sets) {
+      try {
+        assertEquals("OK", set.get(5, TimeUnit.SECONDS));
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof JedisConnectionException);
+      }
+    }
+    try {
+      provider.getMultiplexedConnection();
+      fail("A closed provider should not reconnect");
+    } catch (JedisConnectionException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void rejectedCompletionStillCompletes() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    MultiplexedConnection connection = new MultiplexedConnection(hnp,
+        DefaultJedisClientConfig.builder().build());
+    try {
+      executor.shutdown();
+      CompletableFuture<String> ping = connection.executeCommandAsync(
+          new CommandObject<>(new CommandArguments(Protocol.Command.PING), BuilderFactory.STRING),
+          executor);
+      assertEquals("PONG", ping.get(5, TimeUnit.SECONDS));
+    } finally {
+      connection.disconnect();
+    }
+  }
+
+  private void checkCommands(AsyncUnifiedJedis jedis) {
+    List<CompletableFuture<String>> sets = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      sets.add(jedis.set("foo" + i, "bar" + i));
+    }
+    CompletableFuture.allOf(sets.toArray(new CompletableFuture[0])).join();
+
+    List<CompletableFuture<String>> gets = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      gets.add(jedis.get("foo" + i));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertEquals("bar" + i, gets.get(i).join());
+    }
+
+    assertEquals(Long.valueOf(3), jedis.incrBy("counter", 3).join());
+    assertEquals(Long.valueOf(1), jedis.zadd("zset", 1.5, "a").join());
+    assertEquals(Double.valueOf(1.5), jedis.zscore("zset", "a").join());
+  }
+}
@@ -1,9 +1,25 @@
 package redis.clients.jedis;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
 
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.KeyValue;
+import redis.clients.jedis.util.RedisInputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
 public class BuilderTest {
 
   @Test
@@ -17,4 +33,93 @@ public class BuilderTest {
     build = BuilderFactory.DOUBLE.build("-inf".getBytes());
     assertEquals(Double.valueOf(Double.NEGATIVE_INFINITY), build);
   }
+
+  @Test
+  public void buildResp3Replies() {
+    assertEquals(Double.valueOf(1.5), BuilderFactory.DOUBLE.build(1.5));
+    assertEquals(Boolean.TRUE, BuilderFactory.BOOLEAN.build(Boolean.TRUE));
+
+    List<KeyValue<byte[], byte[]>> map = Arrays.asList(
+        new KeyValue<>("foo".getBytes(), "bar".getBytes()),
+        new KeyValue<>("baz".getBytes(), "qux".getBytes()));
+    Map<String, String> hash = BuilderFactory.STRING_MAP.build(map);
+    assertEquals(2, hash.size());
+    assertEquals("bar", hash.get("foo"));
+    assertEquals("qux", hash.get("baz"));
+    assertArrayEquals("qux".getBytes(), BuilderFactory.BINARY_MAP.build(map).get("baz".getBytes()));
+
+    List<List<Object>> pairs = Arrays.asList(Arrays.asList("a".getBytes(), 1.0),
+        Arrays.asList("b".getBytes(), 2.0));
+    List<Tuple> tuples = BuilderFactory.TUPLE_LIST.build(pairs);
+    assertEquals(Arrays.asList(new Tuple("a", 1.0), new Tuple("b", 2.0)), tuples);
+    assertEquals(2, BuilderFactory.TUPLE_ZSET.build(pairs).size());
+  }
+
+  @Test
+  public void decodeFromStream() {
+    assertEquals(Long.valueOf(-42), BuilderFactory.LONG.decode(resp(":-42\r\n")));
+    assertEquals(Double.valueOf(1.5), BuilderFactory.DOUBLE.decode(resp("$3\r\n1.5\r\n")));
+    assertEquals(Double.valueOf(1.5), BuilderFactory.DOUBLE.decode(resp(",1.5\r\n")));
+    assertNull(BuilderFactory.DOUBLE.decode(resp("$-1\r\n")));
+    assertEquals("caf\u00e9", BuilderFactory.STRING.decode(resp("$5\r\ncaf\u00e9\r\n")));
+    assertEquals("OK", BuilderFactory.STRING.decode(resp("+OK\r\n")));
+    assertEquals(Arrays.asList("a", null, "b"),
+        BuilderFactory.STRING_LIST.decode(resp("*3\r\n$1\r\na\r\n$-1\r\n$1\r\nb\r\n")));
+    assertEquals(Collections.singletonMap("foo", "bar"),
+        BuilderFactory.STRING_MAP.decode(resp("*2\r\n$3\r\nfoo\r\n$3\r\nbar\r\n")));
+    assertEquals(Collections.singletonMap("foo", "bar"),
+        BuilderFactory.STRING_MAP.decode(resp("%1\r\n$3\r\nfoo\r\n$3\r\nbar\r\n")));
+    assertEquals(Arrays.asList(new Tuple("a", 1.0), new Tuple("b", 2.5)), BuilderFactory.TUPLE_LIST
+        .decode(resp("*4\r\n$1\r\na\r\n$1\r\n1\r\n$1\r\nb\r\n$3\r\n2.5\r\n")));
+    assertEquals(Arrays.asList(new Tuple("a", 1.0), new Tuple("b", 2.5)), BuilderFactory.TUPLE_LIST
+        .decode(resp("*2\r\n*2\r\n$1\r\na\r\n,1\r\n*2\r\n$1\r\nb\r\n,2.5\r\n")));
+
+    ScanResult<String> scan = BuilderFactory.SCAN_RESPONSE
+        .decode(resp("*2\r\n$2\r\n17\r\n*2\r\n$3\r\nfoo\r\n$3\r\nbar\r\n"));
+    assertEquals("17", scan.getCursor());
+    assertEquals(Arrays.asList("foo", "bar"), scan.getResult());
+
+    // not ported to stream decoding
+    assertEquals(Boolean.TRUE, BuilderFactory.BOOLEAN.decode(resp(":1\r\n")));
+  }
+
+  @Test
+  public void decodeErrorElementKeepsStreamInSync() {
+    RedisInputStream is = resp("*2\r\n-ERR oops\r\n$1\r\na\r\n:1\r\n");
+    try {
+      BuilderFactory.STRING_LIST.decode(is);
+      fail("The error element should be thrown");
+    } catch (JedisDataException e) {
+      assertEquals("ERR oops", e.getMessage());
+    }
+    assertEquals(Long.valueOf(1), BuilderFactory.LONG.decode(is));
+  }
+
+  private static RedisInputStream resp(String reply) {
+    return new RedisInputStream(new ByteArrayInputStream(SafeEncoder.encode(reply)));
+  }
+
+  @Test
+  public void mapVisitorStartsOverAfterAFailure() {
+    Map<String, String> visited = new HashMap<>();
+    boolean[] failing = { true };
+    Builder<Long> visitor = BuilderFactory.stringMapVisitor((field, value) -> {
+      if (failing[0]) {
+        throw new IllegalStateException(field);
+      }
+      visited.put(field, value);
+    });
+    List<Object> reply = Arrays.asList("f1".getBytes(), "v1".getBytes(), "f2".getBytes(),
+        "v2".getBytes());
+    try {
+      visitor.build(reply);
+      fail("The consumer should have failed");
+    } catch (IllegalStateException expected) {
+    }
+
+    failing[0] = false;
+    assertEquals(Long.valueOf(2), visitor.build(reply));
+    assertEquals("v1", visited.get("f1"));
+    assertEquals("v2", visited.get("f2"));
+  }
 }
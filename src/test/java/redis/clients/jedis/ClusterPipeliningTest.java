@@ -944,4 +944,36 @@ public class ClusterPipeliningTest {
   private <T> Matcher<Iterable<? super T>> listWithItem(T expected) {
     return CoreMatchers.<T>hasItem(equalTo(expected));
   }
+
+  @Test
+  public void redirectedCommandsAreResent() {
+    try (ClusterConnectionProvider provider = new ClusterConnectionProvider(nodes, DEFAULT_CLIENT_CONFIG)) {
+      String node2Id = JedisClusterTestUtil.getNodeId(node2.clusterNodes());
+      String node3Id = JedisClusterTestUtil.getNodeId(node3.clusterNodes());
+
+      // slot 15363 ("e") is migrating from node3 to node2; "e" does not exist on node3 -> ASK
+      node3.clusterSetSlotMigrating(15363, node2Id);
+      node2.clusterSetSlotImporting(15363, node3Id);
+      ClusterPipeline p = new ClusterPipeline(provider);
+      Response<String> set = p.set("e", "ask");
+      Response<String> other = p.set("foo", "bar");
+      p.close();
+      assertEquals("OK", set.get());
+      assertEquals("OK", other.get());
+      node2.asking();
+      assertEquals("ask", node2.get("e"));
+
+      // the migration is done, but the slot cache still points to node3 -> MOVED
+      node1.clusterSetSlotNode(15363, node2Id);
+      node2.clusterSetSlotNode(15363, node2Id);
+      node3.clusterSetSlotNode(15363, node2Id);
+      p = new ClusterPipeline(provider);
+      Response<String> get = p.get("e");
+      Response<String> foo = p.get("foo");
+      p.close();
+      assertEquals("ask", get.get());
+      assertEquals("bar", foo.get());
+      assertEquals(new HostAndPort(LOCAL_IP, nodeInfo2.getPort()), provider.getNode(15363));
+    }
+  }
 }
@@ -9,6 +9,7 @@ import static org.junit.Assert.fail;
 
 import static redis.clients.jedis.Protocol.CLUSTER_HASHSLOTS;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -25,12 +26,17 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.junit.Test;
 
 import redis.clients.jedis.args.ClusterResetType;
+import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.exceptions.*;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.providers.ClusterTopologyRefresher;
 import redis.clients.jedis.util.ClientKillerUtil;
 import redis.clients.jedis.util.JedisClusterTestUtil;
 import redis.clients.jedis.util.JedisClusterCRC16;
@@ -735,8 +741,12 @@ public class JedisClusterTest extends JedisClusterTestBase {
       // make 4 nodes to 3 nodes
       cleanUp();
       setUp();
-      // cluster.set("bar", "foo") will get JedisMovedDataException and renewSlotCache
+      // cluster.set("bar", "foo") will get JedisMovedDataException and renew the slot cache in the
+      // background
       cluster.set("bar", "foo");
+      for (int i = 0; i < 50 && cluster.getClusterNodes().size() != 3; i++) {
+        Thread.sleep(100);
+      }
       assertEquals(3, cluster.getClusterNodes().size());
     }
   }
@@ -780,4 +790,280 @@ public class JedisClusterTest extends JedisClusterTestBase {
     }
     return false;
   }
+
+  @Test
+  public void crossSlotMultiKeyCommands() {
+    HostAndPort hp = new HostAndPort("127.0.0.1", 7379);
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(hp), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, DEFAULT_POOL_CONFIG)) {
+      String[] keys = new String[100];
+      String[] keysvalues = new String[2 * keys.length];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = "key" + i;
+        keysvalues[2 * i] = keys[i];
+        keysvalues[2 * i + 1] = "value" + i;
+      }
+      assertEquals("OK", jc.mset(keysvalues));
+
+      List<String> values = jc.mget(keys[5], "missing", keys[0], keys[99]);
+      assertEquals(Arrays.asList("value5", null, "value0", "value99"), values);
+      List<byte[]> binaryValues = jc.mget("key7".getBytes(), "key70".getBytes());
+      assertEquals("value7", new String(binaryValues.get(0)));
+      assertEquals("value70", new String(binaryValues.get(1)));
+
+      // duplicates are counted, as by a single EXISTS
+      assertEquals(4, jc.exists(keys[0], keys[0], "missing", keys[1], keys[2]));
+      assertEquals(keys.length, jc.touch(keys));
+      assertEquals(10, jc.unlink(Arrays.copyOf(keys, 10)));
+      assertEquals(keys.length - 10, jc.del(keys));
+      assertEquals(0, jc.exists(keys));
+
+      // same slot commands take the single command path
+      assertEquals("OK", jc.mset("{t}a", "1", "{t}b", "2"));
+      assertEquals(Arrays.asList("1", "2"), jc.mget("{t}a", "{t}b"));
+      assertEquals(2, jc.del("{t}a".getBytes(), "{t}b".getBytes()));
+
+      // a trailing key without a value is not dropped silently
+      try {
+        jc.mset("key0", "value0", "key1", "value1", "key2");
+        fail("An odd number of arguments should be rejected");
+      } catch (IllegalArgumentException expected) {
+      }
+      try {
+        jc.mset("key0".getBytes(), "value0".getBytes(), "key1".getBytes());
+        fail("An odd number of arguments should be rejected");
+      } catch (IllegalArgumentException expected) {
+      }
+      assertEquals(0, jc.exists("key0", "key1", "key2"));
+    }
+  }
+
+  @Test
+  public void scanIteratorCoversAllMasters() {
+    HostAndPort hp = new HostAndPort("127.0.0.1", 7379);
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(hp), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, DEFAULT_POOL_CONFIG)) {
+      Set<String> expected = new HashSet<>();
+      for (int i = 0; i < 300; i++) {
+        jc.set("scan:" + i, "v");
+        expected.add("scan:" + i);
+      }
+      jc.set("other", "v");
+
+      ScanParams params = new ScanParams().match("scan:*").count(10);
+      Set<String> scanned = new HashSet<>();
+      try (ClusterScanIterator it = jc.scanIterator(params, 2)) {
+        it.forEachRemaining(scanned::add);
+        assertEquals(ClusterScanIterator.SCAN_POINTER_START, it.getCursor());
+      }
+      assertEquals(expected, scanned);
+
+      // stop half way and resume from the cursor
+      scanned.clear();
+      String cursor;
+      try (ClusterScanIterator it = jc.scanIterator(params, 3)) {
+        for (int i = 0; i < 100; i++) {
+          scanned.add(it.next());
+        }
+        cursor = it.getCursor();
+      }
+      assertFalse(ClusterScanIterator.SCAN_POINTER_START.equals(cursor));
+      try (Stream<String> rest = jc.scanIterator(cursor, params, 3).stream()) {
+        rest.forEach(scanned::add);
+      }
+      assertEquals(expected, scanned);
+    }
+  }
+
+  @Test
+  public void scanIteratorFailsOnAnyException() {
+    HostAndPort hp = new HostAndPort("127.0.0.1", 7379);
+    try (ClusterConnectionProvider provider = new ClusterConnectionProvider(
+        Collections.singleton(hp), DEFAULT_CLIENT_CONFIG) {
+      @Override
+      public Connection getConnection(HostAndPort node) {
+        throw new IllegalStateException("no connection");
+      }
+    }; ClusterScanIterator it = new ClusterScanIterator(provider, null, 2)) {
+      it.hasNext();
+      fail("The scan should have failed");
+    } catch (JedisException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  @Test
+  public void readFromReplica() throws InterruptedException {
+    node1.clusterMeet(LOCAL_IP, nodeInfoSlave2.getPort());
+    JedisClusterTestUtil.waitForClusterReady(node1, node2, node3, nodeSlave2);
+    nodeSlave2.configSet("masterauth", "cluster");
+    nodeSlave2.clusterReplicate(JedisClusterTestUtil.getNodeId(node2.clusterNodes()));
+
+    HostAndPort hp = new HostAndPort("127.0.0.1", 7379);
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(hp), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, Duration.ofSeconds(10), DEFAULT_POOL_CONFIG, ReadFrom.REPLICA_PREFERRED)) {
+      ClusterConnectionProvider provider = (ClusterConnectionProvider) jc.provider;
+      final int slot = JedisClusterCRC16.getSlot("test");
+      for (int i = 0; i < 50 && provider.getReplicas(slot).isEmpty(); i++) {
+        Thread.sleep(100);
+        provider.renewSlotCache();
+      }
+      assertEquals(Collections.singletonList(new HostAndPort(LOCAL_IP, nodeInfoSlave2.getPort())),
+          provider.getReplicas(slot));
+
+      jc.set("test", "value");
+      nodeSlave2.readonly();
+      for (int i = 0; i < 100 && !"value".equals(nodeSlave2.get("test")); i++) {
+        Thread.sleep(100);
+      }
+      nodeSlave2.readwrite();
+      nodeSlave2.configResetStat();
+      for (int i = 0; i < 3; i++) {
+        assertEquals("value", jc.get("test"));
+      }
+      assertTrue(nodeSlave2.info("commandstats").contains("cmdstat_get:calls=3,"));
+      // writes still go to the master
+      assertEquals(1, jc.incr("counter{test}"));
+    } finally {
+      nodeSlave2.clusterReset(ClusterResetType.SOFT);
+      nodeSlave2.configSet("masterauth", "");
+      nodeSlave2.flushDB();
+    }
+  }
+
+  @Test
+  public void slotTableCoversAllSlots() {
+    JedisClusterInfoCache cache = new JedisClusterInfoCache(DEFAULT_CLIENT_CONFIG,
+        Collections.singleton(nodeInfo1));
+    try (Connection connection = new Connection(nodeInfo1, DEFAULT_CLIENT_CONFIG)) {
+      cache.discoverClusterNodesAndSlots(connection);
+    }
+    try {
+      for (int slot = 0; slot < CLUSTER_HASHSLOTS; slot++) {
+        assertNotNull(cache.getSlotNode(slot));
+        assertEquals(cache.getNode(cache.getSlotNode(slot)), cache.getSlotPool(slot));
+        assertTrue(cache.getSlotReplicas(slot).isEmpty());
+      }
+      assertEquals(3, cache.getMasterNodes().size());
+
+      // an update publishes a new table, leaving the other slots as they were
+      HostAndPort node1Address = cache.getSlotNode(0);
+      cache.assignSlotToNode(CLUSTER_HASHSLOTS - 1, node1Address);
+      assertEquals(node1Address, cache.getSlotNode(CLUSTER_HASHSLOTS - 1));
+      assertEquals(cache.getNode(node1Address), cache.getSlotPool(CLUSTER_HASHSLOTS - 1));
+      assertFalse(node1Address.equals(cache.getSlotNode(CLUSTER_HASHSLOTS - 2)));
+    } finally {
+      cache.reset();
+    }
+  }
+
+  @Test
+  public void backgroundTopologyRefresh() throws InterruptedException {
+    ClusterConnectionProvider provider = new ClusterConnectionProvider(
+        Collections.singleton(nodeInfo1), DEFAULT_CLIENT_CONFIG);
+    try {
+      provider.startTopologyRefresh(Duration.ofMillis(50), Duration.ofMillis(400));
+      ClusterTopologyRefresher refresher = provider.getTopologyRefresher();
+
+      // backs off while stable
+      for (int i = 0; i < 50 && refresher.getPeriod().toMillis() < 400; i++) {
+        Thread.sleep(100);
+      }
+      assertEquals(Duration.ofMillis(400), refresher.getPeriod());
+
+      // comes back to the minimum period on a redirection or a failure
+      provider.renewSlotCache();
+      assertEquals(Duration.ofMillis(50), refresher.getPeriod());
+
+      // picks up a moved slot without any command
+      String node2Id = JedisClusterTestUtil.getNodeId(node2.clusterNodes());
+      node1.clusterSetSlotNode(15363, node2Id);
+      node2.clusterSetSlotNode(15363, node2Id);
+      node3.clusterSetSlotNode(15363, node2Id);
+      HostAndPort node2Address = new HostAndPort(LOCAL_IP, nodeInfo2.getPort());
+      for (int i = 0; i < 50 && !node2Address.equals(provider.getNode(15363)); i++) {
+        Thread.sleep(100);
+      }
+      assertEquals(node2Address, provider.getNode(15363));
+    } finally {
+      provider.close();
+    }
+  }
+
+  @Test
+  public void movedPatchesTheSlotAtOnce() {
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(nodeInfo1), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, DEFAULT_POOL_CONFIG)) {
+      ClusterConnectionProvider provider = (ClusterConnectionProvider) jc.provider;
+      HostAndPort node2Address = new HostAndPort(LOCAL_IP, nodeInfo2.getPort());
+      assertEquals(new HostAndPort(LOCAL_IP, nodeInfo3.getPort()), provider.getNode(15363));
+
+      String node2Id = JedisClusterTestUtil.getNodeId(node2.clusterNodes());
+      node1.clusterSetSlotNode(15363, node2Id);
+      node2.clusterSetSlotNode(15363, node2Id);
+      node3.clusterSetSlotNode(15363, node2Id);
+
+      // node3 answers MOVED, node2 serves the command
+      assertEquals("OK", jc.set("e", "e"));
+      assertEquals(node2Address, provider.getNode(15363));
+      assertEquals("e", node2.get("e"));
+      // the neighbours of the slot, in the same chunk of the slot table, are not patched
+      assertEquals(new HostAndPort(LOCAL_IP, nodeInfo3.getPort()), provider.getNode(15362));
+      assertEquals(new HostAndPort(LOCAL_IP, nodeInfo3.getPort()), provider.getNode(15364));
+    }
+  }
+
+  @Test
+  public void streamedArgumentIsNotSentAgainAfterMoved() {
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(nodeInfo1), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, DEFAULT_POOL_CONFIG)) {
+      ClusterConnectionProvider provider = (ClusterConnectionProvider) jc.provider;
+      HostAndPort node2Address = new HostAndPort(LOCAL_IP, nodeInfo2.getPort());
+      String node2Id = JedisClusterTestUtil.getNodeId(node2.clusterNodes());
+      node1.clusterSetSlotNode(15363, node2Id);
+      node2.clusterSetSlotNode(15363, node2Id);
+      node3.clusterSetSlotNode(15363, node2Id);
+
+      byte[] value = "value".getBytes();
+      try {
+        jc.set("e", RawableFactory.from(new ByteArrayInputStream(value), value.length));
+        fail("The stream has been read by node3 and cannot be sent to node2");
+      } catch (JedisMovedDataException expected) {
+      }
+      // the slot is patched all the same, so that the caller can send a new stream
+      assertEquals(node2Address, provider.getNode(15363));
+      assertEquals("OK", jc.set("e", RawableFactory.from(new ByteArrayInputStream(value),
+          value.length)));
+      assertEquals("value", node2.get("e"));
+    }
+  }
+
+  @Test
+  public void askTargetIsRememberedForTheMigratedKeys() {
+    try (JedisCluster jc = new JedisCluster(Collections.singleton(nodeInfo1), DEFAULT_CLIENT_CONFIG,
+        DEFAULT_REDIRECTIONS, DEFAULT_POOL_CONFIG)) {
+      ClusterConnectionProvider provider = (ClusterConnectionProvider) jc.provider;
+      HostAndPort node2Address = new HostAndPort(LOCAL_IP, nodeInfo2.getPort());
+      String node3Id = JedisClusterTestUtil.getNodeId(node3.clusterNodes());
+      String node2Id = JedisClusterTestUtil.getNodeId(node2.clusterNodes());
+      node3.clusterSetSlotMigrating(15363, node2Id);
+      node2.clusterSetSlotImporting(15363, node3Id);
+
+      // node3 answers ASK, node2 serves the command
+      assertEquals("OK", jc.set("e", "v"));
+      assertEquals(node2Address, provider.getAskTarget(new ClusterCommandArguments(Protocol.Command.GET).key("e")));
+      // other keys of the slot may still be on node3
+      assertNull(provider.getAskTarget(new ClusterCommandArguments(Protocol.Command.GET).key("{e}x")));
+      assertEquals("v", jc.get("e"));
+
+      node1.clusterSetSlotNode(15363, node2Id);
+      node2.clusterSetSlotNode(15363, node2Id);
+      node3.clusterSetSlotNode(15363, node2Id);
+
+      // node3 answers MOVED, which ends the migration
+      assertEquals("OK", jc.set("{e}x", "x"));
+      assertNull(provider.getAskTarget(new ClusterCommandArguments(Protocol.Command.GET).key("e")));
+      assertEquals("v", jc.get("e"));
+    }
+  }
 }
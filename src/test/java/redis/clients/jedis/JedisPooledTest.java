@@ -1,16 +1,54 @@
 package redis.clients.jedis;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.junit.Test;
 
+import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.executors.AutoPipeliningCommandExecutor;
 import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.providers.PooledConnectionProvider;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.params.XReadParams;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.Tuple;
+import redis.clients.jedis.util.SafeEncoder;
 
 public class JedisPooledTest {
 
@@ -37,6 +75,273 @@ public class JedisPooledTest {
     }
   }
 
+  @Test
+  public void resp3() {
+    try (JedisPooled pool = new JedisPooled(HostAndPorts.getRedisServers().get(0),
+        DefaultJedisClientConfig.builder().password("foobared").clientName("resp3")
+            .protocol(RedisProtocol.RESP3).build())) {
+
+      try (Connection connection = pool.getPool().getResource()) {
+        assertEquals(RedisProtocol.RESP3, connection.getRedisProtocol());
+      }
+
+      pool.del("hash", "zset", "stream");
+      pool.hset("hash", "foo", "bar");
+      assertEquals(Collections.singletonMap("foo", "bar"), pool.hgetAll("hash"));
+
+      pool.zadd("zset", 1.5, "a");
+      pool.zadd("zset", 2, "b");
+      assertEquals(Double.valueOf(1.5), pool.zscore("zset", "a"));
+      assertEquals(Arrays.asList(new Tuple("a", 1.5), new Tuple("b", 2d)),
+          pool.zrangeWithScores("zset", 0, -1));
+
+      assertEquals(Collections.singletonMap("foo", "bar"), pool.hrandfieldWithValues("hash", 1));
+      Map<byte[], byte[]> binaryHash = pool.hrandfieldWithValues("hash".getBytes(), 1);
+      assertEquals(1, binaryHash.size());
+      assertArrayEquals("bar".getBytes(), binaryHash.get("foo".getBytes()));
+
+      StreamEntryID id = pool.xadd("stream", StreamEntryID.NEW_ENTRY,
+          Collections.singletonMap("f", "v"));
+      assertEquals(1L, pool.xinfoStream("stream").getLength());
+      List<Map.Entry<String, List<StreamEntry>>> read = pool.xread(XReadParams.xReadParams(),
+          Collections.singletonMap("stream", new StreamEntryID()));
+      assertEquals(1, read.size());
+      assertEquals("stream", read.get(0).getKey());
+      assertEquals(id, read.get(0).getValue().get(0).getID());
+      assertEquals(Collections.singletonMap("f", "v"), read.get(0).getValue().get(0).getFields());
+
+      pool.xgroupCreate("stream", "group", new StreamEntryID(), false);
+      read = pool.xreadGroup("group", "consumer", XReadGroupParams.xReadGroupParams(),
+          Collections.singletonMap("stream", StreamEntryID.UNRECEIVED_ENTRY));
+      assertEquals("stream", read.get(0).getKey());
+      assertEquals(id, read.get(0).getValue().get(0).getID());
+    }
+  }
+
+  @Test
+  public void resp3PushesAreNotReplies() {
+    JedisClientConfig config = DefaultJedisClientConfig.builder().password("foobared")
+        .protocol(RedisProtocol.RESP3).build();
+    HostAndPort server = HostAndPorts.getRedisServers().get(0);
+    CommandObjects commandObjects = new CommandObjects();
+    try (Connection connection = new Connection(server, config);
+        Jedis other = new Jedis(server, config)) {
+      List<List<Object>> pushes = new ArrayList<>();
+      connection.setPushListener(pushes::add);
+
+      other.set("tracked", "1");
+      connection.executeCommand(new CommandArguments(Protocol.Command.CLIENT).add("TRACKING").add("ON"));
+      assertEquals("1", connection.executeCommand(commandObjects.get("tracked")));
+
+      // the invalidation is pushed before the reply to the next command
+      other.set("tracked", "2");
+      assertEquals("2", connection.executeCommand(commandObjects.get("tracked")));
+      assertEquals(1, pushes.size());
+      assertEquals("invalidate", SafeEncoder.encode((byte[]) pushes.get(0).get(0)));
+
+      connection.setPushListener(null);
+      other.set("tracked", "3");
+      assertEquals("3", connection.executeCommand(commandObjects.get("tracked")));
+      assertEquals(1, pushes.size());
+    }
+  }
+
+  @Test
+  public void bulkReplySinks() throws IOException {
+    byte[] value = new byte[5 * 1024 * 1024];
+    new Random().nextBytes(value);
+    try (JedisPooled pool = new JedisPooled(hnp)) {
+      pool.set("foo".getBytes(), value);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(Long.valueOf(value.length), pool.getTo("foo", out));
+      assertArrayEquals(value, out.toByteArray());
+
+      out.reset();
+      try (WritableByteChannel channel = Channels.newChannel(out)) {
+        assertEquals(Long.valueOf(value.length), pool.getTo("foo".getBytes(), channel));
+      }
+      assertArrayEquals(value, out.toByteArray());
+
+      ByteBuffer buffer = ByteBuffer.allocateDirect(value.length);
+      assertEquals(Long.valueOf(value.length), pool.getInto("foo", buffer));
+      buffer.flip();
+      assertEquals(ByteBuffer.wrap(value), buffer);
+
+      assertNull(pool.getTo("missing", out));
+    }
+  }
+
+  @Test
+  public void failingBulkReplySink() {
+    byte[] value = new byte[5 * 1024 * 1024];
+    new Random().nextBytes(value);
+    ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+    poolConfig.setMaxTotal(1);
+    try (JedisPooled pool = new JedisPooled(hnp, DefaultJedisClientConfig.builder().build(),
+        poolConfig)) {
+      pool.set("foo".getBytes(), value);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream() {
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+          if (size() > 0) {
+            throw new IllegalStateException("sink is full");
+          }
+          super.write(b, off, len);
+        }
+      };
+      try {
+        pool.getTo("foo", out);
+        fail("The sink should have failed");
+      } catch (IllegalStateException expected) {
+      }
+      // the connection with the rest of the value unread was not returned to the pool
+      assertEquals("OK", pool.set("bar", "bar"));
+      assertEquals("bar", pool.get("bar"));
+      assertArrayEquals(value, pool.get("foo".getBytes()));
+    }
+    assertFalse(new CommandObjects().getTo("foo", new ByteArrayOutputStream()).getArguments()
+        .isRetryable());
+  }
+
+  @Test
+  public void visitorIsNotSentAgainAfterAConnectionFailure() {
+    try (Jedis jedis = new Jedis(hnp)) {
+      jedis.del("list");
+      for (int i = 0; i < 1000; i++) {
+        jedis.rpush("list", "value" + i);
+      }
+    }
+    // the first connection fails once it has read 2000 bytes, midway through the LRANGE reply
+    AtomicInteger sockets = new AtomicInteger();
+    JedisSocketFactory socketFactory = () -> {
+      final boolean failing = sockets.getAndIncrement() == 0;
+      Socket socket = new Socket() {
+        @Override
+        public InputStream getInputStream() throws IOException {
+          InputStream in = super.getInputStream();
+          return !failing ? in : new FilterInputStream(in) {
+            private int read = 0;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+              if (read >= 2000) {
+                throw new IOException("connection reset");
+              }
+              int n = super.read(b, off, Math.min(len, 2000 - read));
+              read += Math.max(n, 0);
+              return n;
+            }
+          };
+        }
+      };
+      try {
+        socket.connect(new InetSocketAddress(hnp.getHost(), hnp.getPort()));
+      } catch (IOException e) {
+        throw new JedisConnectionException(e);
+      }
+      return socket;
+    };
+    List<String> values = new ArrayList<>();
+    try (UnifiedJedis jedis = new UnifiedJedis(new PooledConnectionProvider(
+        new ConnectionFactory(socketFactory, DefaultJedisClientConfig.builder().build())),
+        3, Duration.ofSeconds(5))) {
+      try {
+        jedis.lrange("list", 0, -1, values::add);
+        fail("The connection should have failed");
+      } catch (JedisConnectionException expected) {
+      }
+      // the consumer saw part of the list once, and no repeated elements
+      assertTrue(values.size() > 0 && values.size() < 1000);
+      for (int i = 0; i < values.size(); i++) {
+        assertEquals("value" + i, values.get(i));
+      }
+      assertEquals(1, sockets.get());
+    }
+    CommandObjects commandObjects = new CommandObjects();
+    assertFalse(commandObjects.lrange("list", 0, -1, v -> { }).getArguments().isRetryable());
+    assertFalse(commandObjects.hgetAll("hash", (f, v) -> { }).getArguments().isRetryable());
+    assertFalse(commandObjects.zrangeWithScores("zset", 0, -1, t -> { }).getArguments()
+        .isRetryable());
+  }
+
+  @Test
+  public void streamingArguments() throws IOException {
+    byte[] value = new byte[5 * 1024 * 1024];
+    new Random().nextBytes(value);
+    File file = File.createTempFile("jedis", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), value);
+
+    try (JedisPooled pool = new JedisPooled(hnp);
+        FileChannel channel = FileChannel.open(file.toPath())) {
+      ByteBuffer direct = ByteBuffer.allocateDirect(value.length);
+      direct.put(value).flip();
+      assertEquals("OK", pool.set("buffer", RawableFactory.from(direct)));
+      assertArrayEquals(value, pool.get("buffer".getBytes()));
+
+      assertEquals("OK", pool.set("stream".getBytes(),
+          RawableFactory.from(new ByteArrayInputStream(value), value.length)));
+      assertArrayEquals(value, pool.get("stream".getBytes()));
+
+      assertEquals("OK", pool.set("file", RawableFactory.from(channel, 0, value.length),
+          SetParams.setParams().ex(100)));
+      assertArrayEquals(value, pool.get("file".getBytes()));
+
+      byte[] dump = pool.dump("file");
+      pool.del("file");
+      assertEquals("OK", pool.restore("file", 0, RawableFactory.from(ByteBuffer.wrap(dump))));
+      assertArrayEquals(value, pool.get("file".getBytes()));
+    }
+  }
+
+  @Test
+  public void replyVisitors() {
+    try (JedisPooled pool = new JedisPooled(hnp)) {
+      pool.del("list", "hash", "zset");
+      String[] elements = new String[100_000];
+      Map<String, String> hash = new HashMap<>();
+      Map<String, Double> scores = new HashMap<>();
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = "element" + i;
+        hash.put("field" + i, "value" + i);
+        scores.put("member" + i, (double) i);
+      }
+      pool.rpush("list", elements);
+      pool.hset("hash", hash);
+      pool.zadd("zset", scores);
+
+      List<String> list = new ArrayList<>();
+      assertEquals(Long.valueOf(elements.length), pool.lrange("list", 0, -1, list::add));
+      assertEquals(Arrays.asList(elements), list);
+
+      Map<String, String> visited = new HashMap<>();
+      assertEquals(Long.valueOf(hash.size()), pool.hgetAll("hash", visited::put));
+      assertEquals(hash, visited);
+
+      List<Tuple> tuples = new ArrayList<>();
+      assertEquals(Long.valueOf(3), pool.zrangeWithScores("zset".getBytes(), 0, 2, tuples::add));
+      assertEquals(Arrays.asList(new Tuple("member0", 0d), new Tuple("member1", 1d),
+          new Tuple("member2", 2d)), tuples);
+    }
+
+    try (JedisPooled pool = new JedisPooled(HostAndPorts.getRedisServers().get(0),
+        DefaultJedisClientConfig.builder().password("foobared").protocol(RedisProtocol.RESP3).build())) {
+      pool.del("hash", "zset");
+      pool.hset("hash", "foo", "bar");
+      pool.zadd("zset", 1.5, "a");
+
+      Map<String, String> visited = new HashMap<>();
+      assertEquals(Long.valueOf(1), pool.hgetAll("hash", visited::put));
+      assertEquals(Collections.singletonMap("foo", "bar"), visited);
+
+      List<Tuple> tuples = new ArrayList<>();
+      assertEquals(Long.valueOf(1), pool.zrangeWithScores("zset", 0, -1, tuples::add));
+      assertEquals(Collections.singletonList(new Tuple("a", 1.5)), tuples);
+    }
+  }
+
   @Test(expected = JedisException.class)
   public void checkPoolOverflow() {
     GenericObjectPoolConfig<Connection> config = new GenericObjectPoolConfig<>();
@@ -170,4 +475,67 @@ public class JedisPooledTest {
       assertEquals("bar", pool.get("foo"));
     }
   }
+
+  @Test
+  public void autoPipelining() throws Exception {
+    JedisClientConfig config = DefaultJedisClientConfig.builder().autoPipelining(true)
+        .autoPipelineMaxBatchSize(64).autoPipelineWindowMicros(200).build();
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try (Jedis j = new Jedis(hnp)) {
+      j.flushAll();
+    }
+    try (JedisPooled jedis = new JedisPooled(hnp, config)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 16; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 200; i++) {
+            String key = "foo" + thread + ":" + i;
+            jedis.set(key, key);
+            assertEquals(key, jedis.get(key));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertEquals(16 * 200, jedis.dbSize());
+
+      // blocking commands use the pool
+      assertNull(jedis.blpop(1, "list"));
+
+      BatchMetrics metrics = ((AutoPipeliningCommandExecutor) jedis.executor).getBatchMetrics()
+          .get(hnp);
+      assertEquals(16 * 200 * 2 + 1, metrics.getCommandCount());
+      assertTrue(metrics.getMaxBatchSize() <= 64);
+      assertTrue(metrics.getBatchCount() < metrics.getCommandCount());
+      long batches = 0;
+      for (long count : metrics.getBatchSizeHistogram()) {
+        batches += count;
+      }
+      assertEquals(metrics.getBatchCount(), batches);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void autoPipeliningWithEveryClientConfigConstructor() {
+    JedisClientConfig config = DefaultJedisClientConfig.builder().autoPipelining(true).build();
+    List<JedisPooled> pools = Arrays.asList(new JedisPooled(hnp, config),
+        new JedisPooled(new ConnectionPoolConfig(), hnp, config),
+        new JedisPooled(hnp, config, new ConnectionPoolConfig()),
+        new JedisPooled(new ConnectionPoolConfig(), new DefaultJedisSocketFactory(hnp, config),
+            config));
+    for (JedisPooled pool : pools) {
+      try {
+        assertTrue(pool.executor instanceof AutoPipeliningCommandExecutor);
+        assertEquals("OK", pool.set("foo", "bar"));
+        // the command went through the shared connection
+        assertNotNull(((AutoPipeliningCommandExecutor) pool.executor).getBatchMetrics().get(hnp));
+      } finally {
+        pool.close();
+      }
+    }
+  }
 }
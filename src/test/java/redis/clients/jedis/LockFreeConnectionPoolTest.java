@@ -0,0 +1,218 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.providers.LockFreeConnectionProvider;
+
+public class LockFreeConnectionPoolTest {
+
+  private static final HostAndPort hnp = HostAndPorts.getRedisServers().get(7);
+  private static final JedisClientConfig clientConfig = DefaultJedisClientConfig.builder().build();
+
+  private static ConnectionPoolConfig config(int maxTotal) {
+    ConnectionPoolConfig config = new ConnectionPoolConfig();
+    config.setMaxTotal(maxTotal);
+    config.setTimeBetweenEvictionRuns(Duration.ofMillis(-1));
+    return config;
+  }
+
+  @Test
+  public void checkConnectionIsReused() {
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config(2))) {
+      Connection connection = pool.getResource();
+      assertTrue(connection.ping());
+      assertEquals(1, pool.getNumActive());
+      connection.close();
+      assertEquals(0, pool.getNumActive());
+      assertEquals(1, pool.getNumIdle());
+
+      try (Connection again = pool.getResource()) {
+        assertSame(connection, again);
+        assertTrue(again.isConnected());
+      }
+    }
+  }
+
+  @Test
+  public void checkBrokenConnectionIsDestroyed() {
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config(1))) {
+      Connection connection = pool.getResource();
+      connection.setBroken();
+      connection.close();
+      assertFalse(connection.isConnected());
+      assertEquals(0, pool.getNumIdle());
+
+      try (Connection other = pool.getResource()) {
+        assertNotSame(connection, other);
+        assertTrue(other.ping());
+      }
+    }
+  }
+
+  @Test(expected = JedisException.class)
+  public void checkPoolOverflow() {
+    ConnectionPoolConfig config = config(1);
+    config.setBlockWhenExhausted(false);
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config);
+        Connection connection = pool.getResource()) {
+      pool.getResource();
+    }
+  }
+
+  @Test
+  public void checkTimedWait() {
+    ConnectionPoolConfig config = config(1);
+    config.setMaxWait(Duration.ofMillis(100));
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config);
+        Connection connection = pool.getResource()) {
+      long start = System.nanoTime();
+      try {
+        pool.getResource();
+        fail("The pool should be exhausted.");
+      } catch (JedisException e) {
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+      }
+      assertEquals(0, pool.getNumWaiters());
+    }
+  }
+
+  @Test
+  public void waiterGetsReturnedConnection() throws Exception {
+    ConnectionPoolConfig config = config(1);
+    config.setMaxWait(Duration.ofSeconds(5));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config)) {
+      Connection connection = pool.getResource();
+      Future<Connection> waiter = executor.submit(() -> {
+        try (Connection other = pool.getResource()) {
+          return other;
+        }
+      });
+      while (pool.getNumWaiters() == 0) {
+        Thread.sleep(5);
+      }
+      connection.close();
+      assertSame(connection, waiter.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void evictIdleConnections() throws InterruptedException {
+    ConnectionPoolConfig config = config(4);
+    config.setMinEvictableIdleTime(Duration.ofMillis(10));
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config)) {
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        connections.add(pool.getResource());
+      }
+      connections.forEach(Connection::close);
+      assertEquals(3, pool.getNumIdle());
+
+      Thread.sleep(20);
+      pool.evict();
+      assertEquals(0, pool.getNumIdle());
+      connections.forEach(connection -> assertFalse(connection.isConnected()));
+    }
+  }
+
+  @Test
+  public void evictKeepsMinIdle() {
+    ConnectionPoolConfig config = config(4);
+    config.setMinIdle(2);
+    config.setMaxIdle(3);
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config)) {
+      pool.evict();
+      assertEquals(2, pool.getNumIdle());
+
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        connections.add(pool.getResource());
+      }
+      connections.forEach(Connection::close);
+      assertEquals(4, pool.getNumIdle());
+      pool.evict();
+      assertEquals(3, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void evictInBackground() throws InterruptedException {
+    ConnectionPoolConfig config = config(2);
+    config.setMinEvictableIdleTime(Duration.ofMillis(10));
+    config.setTimeBetweenEvictionRuns(Duration.ofMillis(20));
+    try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config)) {
+      pool.getResource().close();
+      assertEquals(1, pool.getNumIdle());
+      for (int i = 0; i < 100 && pool.getNumIdle() > 0; i++) {
+        Thread.sleep(20);
+      }
+      assertEquals(0, pool.getNumIdle());
+    }
+  }
+
+  @Test
+  public void closedPool() {
+    LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, clientConfig, config(2));
+    Connection idle = pool.getResource();
+    Connection borrowed = pool.getResource();
+    idle.close();
+    pool.close();
+    assertTrue(pool.isClosed());
+    assertFalse(idle.isConnected());
+
+    assertTrue(borrowed.ping());
+    borrowed.close();
+    assertFalse(borrowed.isConnected());
+    try {
+      pool.getResource();
+      fail("The pool is closed.");
+    } catch (JedisException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void concurrentCommands() throws Exception {
+    final int threads = 16;
+    final int increments = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    LockFreeConnectionProvider provider = new LockFreeConnectionProvider(hnp, clientConfig, config(4));
+    try (UnifiedJedis jedis = new UnifiedJedis(provider)) {
+      jedis.del("lock-free-counter");
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < increments; i++) {
+            jedis.incr("lock-free-counter");
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertEquals(String.valueOf(threads * increments), jedis.get("lock-free-counter"));
+      assertEquals(0, provider.getPool().getNumActive());
+      assertTrue(provider.getPool().getNumIdle() <= 4);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Before;
+import org.junit.Test;
+
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.providers.MultiplexedConnectionProvider;
+
+public class MultiplexedConnectionProviderTest {
+
+  private static final HostAndPort hnp = HostAndPorts.getRedisServers().get(7);
+
+  @Before
+  public void setUp() {
+    try (Jedis jedis = new Jedis(hnp)) {
+      jedis.flushAll();
+    }
+  }
+
+  @Test
+  public void concurrentCommandsShareOneConnection() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try (MultiplexedConnectionProvider provider = new MultiplexedConnectionProvider(hnp);
+        UnifiedJedis jedis = new UnifiedJedis(provider)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 16; t++) {
+        final int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            String key = "foo" + thread + ":" + i;
+            jedis.set(key, key);
+            assertEquals(key, jedis.get(key));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      assertEquals(16 * 500, jedis.dbSize());
+      assertSame(provider.getMultiplexedConnection(),
+          provider.getConnection(new CommandArguments(Protocol.Command.GET).key("foo")));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void errorReplyDoesNotBreakConnection() {
+    try (MultiplexedConnectionProvider provider = new MultiplexedConnectionProvider(hnp);
+        UnifiedJedis jedis = new UnifiedJedis(provider)) {
+      jedis.set("foo", "bar");
+      try {
+        jedis.incr("foo");
+        fail("INCR on a string should fail");
+      } catch (JedisDataException expected) {
+      }
+      assertEquals("bar", jedis.get("foo"));
+    }
+  }
+
+  @Test
+  public void blockingCommandsUseDedicatedConnection() {
+    try (MultiplexedConnectionProvider provider = new MultiplexedConnectionProvider(hnp);
+        UnifiedJedis jedis = new UnifiedJedis(provider)) {
+      CommandArguments blocking = new CommandArguments(Protocol.Command.BLPOP).key("foo").blocking();
+      try (Connection connection = provider.getConnection(blocking)) {
+        assertNotSame(provider.getMultiplexedConnection(), connection);
+      }
+      assertNull(jedis.blpop(1, "foo"));
+      jedis.rpush("foo", "bar");
+      assertEquals("bar", jedis.blpop(1, "foo").get(1));
+    }
+  }
+}
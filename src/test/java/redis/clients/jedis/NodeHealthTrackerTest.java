@@ -0,0 +1,72 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class NodeHealthTrackerTest {
+
+  private final HostAndPort node = new HostAndPort("localhost", 7000);
+
+  @Test
+  public void trackingOnly() {
+    NodeHealthTracker tracker = new NodeHealthTracker();
+    for (int i = 0; i < 100; i++) {
+      assertFalse(tracker.recordFailure(node));
+    }
+    assertTrue(tracker.allowRequest(node));
+    assertEquals(100, tracker.get(node).getConsecutiveFailures());
+    assertEquals(1.0, tracker.get(node).getErrorRate(), 0);
+
+    tracker.recordSuccess(node);
+    assertEquals(0, tracker.get(node).getConsecutiveFailures());
+    assertTrue(tracker.get(node).getLastSuccessMillis() > 0);
+  }
+
+  @Test
+  public void opensOnConsecutiveFailures() throws InterruptedException {
+    NodeHealthTracker tracker = new NodeHealthTracker(3, 1.0, 100, Duration.ofSeconds(10),
+        Duration.ofMillis(100));
+    assertFalse(tracker.recordFailure(node));
+    assertFalse(tracker.recordFailure(node));
+    assertTrue(tracker.recordFailure(node));
+    assertEquals(NodeHealth.State.OPEN, tracker.get(node).getState());
+    assertFalse(tracker.allowRequest(node));
+    assertFalse(tracker.isAvailable(node));
+
+    Thread.sleep(150);
+    // a single trial request
+    assertTrue(tracker.allowRequest(node));
+    assertEquals(NodeHealth.State.HALF_OPEN, tracker.get(node).getState());
+    assertFalse(tracker.allowRequest(node));
+
+    // which fails, so the circuit opens again
+    assertTrue(tracker.recordFailure(node));
+    assertFalse(tracker.allowRequest(node));
+
+    Thread.sleep(150);
+    assertTrue(tracker.allowRequest(node));
+    tracker.recordSuccess(node);
+    assertEquals(NodeHealth.State.CLOSED, tracker.get(node).getState());
+    assertTrue(tracker.allowRequest(node));
+  }
+
+  @Test
+  public void opensOnErrorRate() {
+    NodeHealthTracker tracker = new NodeHealthTracker(100, 0.5, 12, Duration.ofSeconds(10),
+        Duration.ofSeconds(10));
+    for (int i = 0; i < 5; i++) {
+      tracker.recordSuccess(node);
+      // below the minimum number of calls
+      assertFalse(tracker.recordFailure(node));
+    }
+    assertEquals(0.5, tracker.get(node).getErrorRate(), 0);
+    tracker.recordSuccess(node);
+    assertTrue(tracker.recordFailure(node));
+    assertFalse(tracker.allowRequest(node));
+  }
+}
@@ -10,18 +10,26 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hamcrest.CoreMatchers;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.resps.Tuple;
 import redis.clients.jedis.commands.jedis.JedisCommandsTestBase;
@@ -772,4 +780,165 @@ public class PipeliningTest extends JedisCommandsTestBase {
   private <T> Matcher<Iterable<? super T>> listWithItem(T expected) {
     return CoreMatchers.<T> hasItem(equalTo(expected));
   }
+
+  @Test
+  public void pipelineBulkReplySinks() {
+    jedis.set("foo", "bar");
+    jedis.set("big", "0123456789");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    Pipeline p = jedis.pipelined();
+    Response<Long> written = p.getTo("big", out);
+    Response<Long> copied = p.getInto("foo".getBytes(), buffer);
+    Response<Long> missing = p.getTo("missing", out);
+    Response<Long> tooLarge = p.getInto("big", ByteBuffer.allocate(4));
+    Response<String> after = p.get("foo");
+    p.sync();
+
+    assertEquals(Long.valueOf(10), written.get());
+    assertEquals("0123456789", out.toString());
+    assertEquals(Long.valueOf(3), copied.get());
+    assertArrayEquals("bar".getBytes(), Arrays.copyOf(buffer.array(), buffer.position()));
+    assertNull(missing.get());
+    try {
+      tooLarge.get();
+      fail("The reply should not fit into the buffer");
+    } catch (JedisDataException expected) {
+    }
+    assertEquals("bar", after.get());
+  }
+
+  @Test
+  public void pipelineReplyVisitors() {
+    jedis.rpush("list", "a", "b", "c");
+    jedis.hset("hash", "foo", "bar");
+
+    List<String> list = new ArrayList<>();
+    Map<String, String> hash = new HashMap<>();
+    Pipeline p = jedis.pipelined();
+    Response<Long> listCount = p.lrange("list", 0, -1, list::add);
+    Response<Long> hashCount = p.hgetAll("hash", hash::put);
+    p.sync();
+
+    assertEquals(Long.valueOf(3), listCount.get());
+    assertEquals(Arrays.asList("a", "b", "c"), list);
+    assertEquals(Long.valueOf(1), hashCount.get());
+    assertEquals(Collections.singletonMap("foo", "bar"), hash);
+
+    // replies inside a transaction are visited once they are built
+    list.clear();
+    Transaction t = jedis.multi();
+    Response<Long> txCount = t.appendCommand(new CommandObjects().lrange("list", 0, 1, list::add));
+    t.exec();
+    assertEquals(Long.valueOf(2), txCount.get());
+    assertEquals(Arrays.asList("a", "b"), list);
+  }
+
+  @Test
+  public void pipelineReplyVisitorFailure() {
+    jedis.rpush("list", "a", "b", "c");
+
+    Pipeline p = jedis.pipelined();
+    p.lrange("list", 0, -1, element -> {
+      throw new IllegalStateException(element);
+    });
+    Response<String> after = p.set("foo", "bar");
+    try {
+      p.sync();
+      fail("The visitor should have failed");
+    } catch (IllegalStateException expected) {
+    }
+    // the reply to SET may not be paired with another command any more
+    assertTrue(jedis.getConnection().isBroken());
+    try {
+      p.close();
+      fail("The connection should be broken");
+    } catch (JedisConnectionException expected) {
+    }
+    try {
+      after.get();
+      fail("The reply to SET should not have been read");
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void streamingPipeline() {
+    final int commands = 200_000;
+    AtomicLong sum = new AtomicLong();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    CommandObjects commandObjects = new CommandObjects();
+    try (StreamingPipeline p = new StreamingPipeline(jedis.getConnection(), 1000)) {
+      for (int i = 0; i < commands; i++) {
+        p.appendCommand(commandObjects.incr("counter"), r -> sum.addAndGet(r.get()));
+        maxInFlight.accumulateAndGet(p.getInFlightCount(), Math::max);
+      }
+      Response<String> counter = p.get("counter");
+      p.set("foo", "bar");
+      Response<Long> error = p.incr("foo");
+      p.sync();
+
+      assertEquals(String.valueOf(commands), counter.get());
+      assertEquals((long) commands * (commands + 1) / 2, sum.get());
+      assertTrue(maxInFlight.get() <= 1000);
+      try {
+        error.get();
+        fail("INCR on a string should fail");
+      } catch (JedisDataException expected) {
+      }
+
+      // still usable after sync
+      Response<String> foo = p.get("foo");
+      p.sync();
+      assertEquals("bar", foo.get());
+
+      // the replies are not kept
+      try {
+        p.syncAndReturnAll();
+        fail("The pipeline does not keep the replies");
+      } catch (IllegalStateException expected) {
+      }
+      p.set("foo", "baz");
+    }
+    assertEquals("baz", jedis.get("foo"));
+  }
+
+  @Test
+  public void streamingPipelineKeepingReplies() {
+    try (StreamingPipeline p = new StreamingPipeline(jedis.getConnection(), 10, true)) {
+      p.set("foo", "bar");
+      p.sync();
+
+      // only the replies since the last sync are returned
+      p.set("foo", "baz");
+      p.incr("foo");
+      p.get("foo");
+      List<Object> replies = p.syncAndReturnAll();
+      assertEquals(3, replies.size());
+      assertEquals("OK", replies.get(0));
+      assertTrue(replies.get(1) instanceof JedisDataException);
+      assertEquals("baz", replies.get(2));
+      assertEquals(Collections.emptyList(), p.syncAndReturnAll());
+      p.set("foo", "bar");
+    }
+    assertEquals("bar", jedis.get("foo"));
+  }
+
+  @Test
+  public void streamingPipelineCallbackFailure() {
+    CommandObjects commandObjects = new CommandObjects();
+    try (StreamingPipeline p = new StreamingPipeline(jedis.getConnection(), 10)) {
+      p.appendCommand(commandObjects.set("foo", "bar"), r -> {
+        throw new IllegalStateException("callback");
+      });
+      Response<String> foo = p.get("foo");
+      try {
+        p.sync();
+        fail("The callback failure should be rethrown");
+      } catch (IllegalStateException expected) {
+      }
+      assertEquals("bar", foo.get());
+    }
+  }
 }
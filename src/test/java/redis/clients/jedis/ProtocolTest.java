@@ -9,17 +9,29 @@ import static redis.clients.jedis.util.AssertUtil.assertByteArrayListEquals;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
 
+import redis.clients.jedis.args.Rawable;
+import redis.clients.jedis.args.RawableFactory;
 import redis.clients.jedis.exceptions.JedisBusyException;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.KeyValue;
 import redis.clients.jedis.util.RedisInputStream;
 import redis.clients.jedis.util.RedisOutputStream;
 import redis.clients.jedis.util.SafeEncoder;
@@ -47,6 +59,58 @@ public class ProtocolTest {
     assertEquals(expectedCommand, sb.toString());
   }
 
+  @Test
+  public void encodeArgumentsInPlace() throws IOException {
+    StringBuilder longString = new StringBuilder();
+    for (int i = 0; i < 3000; i++) {
+      longString.append("k\u00e9\u20ac\ud83d\ude00");
+    }
+    Object[] args = { "plain", "caf\u00e9", "\ud83d\ude00", "bad\ud83dsurrogate\ude00", "",
+        longString.toString(), 0, -7, Integer.MIN_VALUE, 1234567890123L, Long.MAX_VALUE,
+        Long.MIN_VALUE, 1.0, -3.0, 0.0, -0.0, 2.5, 1e7, 1e300, Double.NaN, true, false };
+
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    expected.write(SafeEncoder.encode("*" + (args.length + 1) + "\r\n$4\r\nECHO\r\n"));
+    for (Object arg : args) {
+      byte[] raw = expectedArgument(arg);
+      expected.write(SafeEncoder.encode("$" + raw.length + "\r\n"));
+      expected.write(raw);
+      expected.write(SafeEncoder.encode("\r\n"));
+    }
+
+    // a small buffer, so that the in place encoders have to flush in between
+    ByteArrayOutputStream actual = new ByteArrayOutputStream();
+    RedisOutputStream ros = new RedisOutputStream(actual, 16);
+    Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.ECHO).addObjects(args));
+    ros.flush();
+    assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+
+    for (Object arg : args) {
+      Iterator<Rawable> lazy = new CommandArguments(Protocol.Command.ECHO).add(arg).iterator();
+      lazy.next();
+      assertArrayEquals(expectedArgument(arg), lazy.next().getRaw());
+    }
+  }
+
+  private static byte[] expectedArgument(Object arg) {
+    if (arg instanceof Boolean) {
+      return Protocol.toByteArray((boolean) arg);
+    } else if (arg instanceof Double) {
+      return Protocol.toByteArray((double) arg);
+    }
+    return SafeEncoder.encode(String.valueOf(arg));
+  }
+
+  @Test
+  public void infiniteDoubleObjectArguments() {
+    // String.valueOf would give "Infinity", which is not how doubles are sent elsewhere
+    Iterator<Rawable> args = new CommandArguments(Protocol.Command.ZADD)
+        .add(Double.POSITIVE_INFINITY).add(Double.NEGATIVE_INFINITY).iterator();
+    args.next();
+    assertArrayEquals(SafeEncoder.encode("+inf"), args.next().getRaw());
+    assertArrayEquals(SafeEncoder.encode("-inf"), args.next().getRaw());
+  }
+
   @Test(expected = IOException.class)
   public void writeOverflow() throws IOException {
     RedisOutputStream ros = new RedisOutputStream(new OutputStream() {
@@ -139,4 +203,149 @@ public class ProtocolTest {
     }
     fail("Expected a JedisBusyException to be thrown.");
   }
+
+  @Test
+  public void resp3ScalarReplies() {
+    assertEquals(Double.valueOf(3.14), Protocol.read(resp(",3.14\r\n")));
+    assertEquals(Double.valueOf(Double.NEGATIVE_INFINITY), Protocol.read(resp(",-inf\r\n")));
+    assertEquals(Boolean.TRUE, Protocol.read(resp("#t\r\n")));
+    assertEquals(Boolean.FALSE, Protocol.read(resp("#f\r\n")));
+    assertNull(Protocol.read(resp("_\r\n")));
+    assertEquals(new BigInteger("3492890328409238509324850943850943825024385"),
+        Protocol.read(resp("(3492890328409238509324850943850943825024385\r\n")));
+    assertArrayEquals(SafeEncoder.encode("Some string"),
+        (byte[]) Protocol.read(resp("=15\r\ntxt:Some string\r\n")));
+  }
+
+  @Test
+  public void resp3BlobError() {
+    try {
+      Protocol.read(resp("!21\r\nSYNTAX invalid syntax\r\n"));
+      fail("Expected a JedisDataException to be thrown.");
+    } catch (JedisDataException e) {
+      assertEquals("SYNTAX invalid syntax", e.getMessage());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void resp3MapReply() {
+    List<KeyValue<Object, Object>> response = (List<KeyValue<Object, Object>>) Protocol.read(
+        resp("%2\r\n+first\r\n:1\r\n$6\r\nsecond\r\n,2.5\r\n"));
+    assertEquals(2, response.size());
+    assertArrayEquals(SafeEncoder.encode("first"), (byte[]) response.get(0).getKey());
+    assertEquals(Long.valueOf(1), response.get(0).getValue());
+    assertArrayEquals(SafeEncoder.encode("second"), (byte[]) response.get(1).getKey());
+    assertEquals(Double.valueOf(2.5), response.get(1).getValue());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void resp3SetPushAndAttributeReplies() {
+    List<Object> set = (List<Object>) Protocol.read(resp("~2\r\n+a\r\n+b\r\n"));
+    assertByteArrayListEquals(Arrays.asList(SafeEncoder.encode("a"), SafeEncoder.encode("b")),
+        (List) set);
+
+    List<Object> push = (List<Object>) Protocol.read(
+        resp(">3\r\n$7\r\nmessage\r\n$2\r\nch\r\n$3\r\nfoo\r\n"));
+    assertEquals(3, push.size());
+    assertArrayEquals(SafeEncoder.encode("foo"), (byte[]) push.get(2));
+
+    // the attribute is skipped
+    assertEquals(Long.valueOf(42), Protocol.read(resp("|1\r\n+ttl\r\n:3600\r\n:42\r\n")));
+  }
+
+  private static RedisInputStream resp(String reply) {
+    return new RedisInputStream(new ByteArrayInputStream(reply.getBytes()));
+  }
+
+  @Test
+  public void bulkReplyToSink() {
+    byte[] payload = new byte[1000];
+    for (int i = 0; i < payload.length; i++) {
+      payload[i] = (byte) i;
+    }
+    ByteArrayOutputStream reply = new ByteArrayOutputStream();
+    reply.write('$');
+    reply.write(SafeEncoder.encode("1000\r\n"), 0, 6);
+    reply.write(payload, 0, payload.length);
+    reply.write(SafeEncoder.encode("\r\n$-1\r\n:1\r\n"), 0, 11);
+    RedisInputStream is = new RedisInputStream(
+        new FragmentedByteArrayInputStream(reply.toByteArray()), 64);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(1000, Protocol.readBulkReplyTo(is, out));
+    assertArrayEquals(payload, out.toByteArray());
+    assertEquals(-1, Protocol.readBulkReplyInto(is, ByteBuffer.allocate(10)));
+    assertEquals(Long.valueOf(1), Protocol.read(is));
+  }
+
+  @Test
+  public void bulkReplyTooLargeForBuffer() {
+    RedisInputStream is = resp("$6\r\nfoobar\r\n$3\r\nfoo\r\n");
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    try {
+      Protocol.readBulkReplyInto(is, buffer);
+      fail("Expected a JedisDataException to be thrown.");
+    } catch (JedisDataException e) {
+      assertEquals(0, buffer.position());
+    }
+    // the stream is still in sync
+    assertEquals(3, Protocol.readBulkReplyInto(is, buffer));
+    assertArrayEquals(SafeEncoder.encode("foo"), Arrays.copyOf(buffer.array(), 3));
+  }
+
+  @Test
+  public void buildACommandWithStreamingArguments() throws IOException {
+    ByteBuffer direct = ByteBuffer.allocateDirect(5);
+    direct.put(SafeEncoder.encode("hello")).flip();
+    File file = File.createTempFile("jedis", ".bin");
+    file.deleteOnExit();
+    Files.write(file.toPath(), SafeEncoder.encode("__file__"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (FileChannel channel = FileChannel.open(file.toPath())) {
+      RedisOutputStream ros = new RedisOutputStream(out, 4);
+      Protocol.sendCommand(ros, new CommandArguments(Protocol.Command.ECHO)
+          .add(RawableFactory.from(direct))
+          .add(RawableFactory.from(new ByteArrayInputStream(SafeEncoder.encode("stream!")), 6))
+          .add(RawableFactory.from(channel, 2, 4)));
+      ros.flush();
+    }
+    assertEquals("*4\r\n$4\r\nECHO\r\n$5\r\nhello\r\n$6\r\nstream\r\n$4\r\nfile\r\n",
+        out.toString());
+    // the buffer can be sent again
+    assertEquals(5, direct.remaining());
+  }
+
+  @Test
+  public void multiBulkReplyElementByElement() {
+    RedisInputStream is = resp("*3\r\n$1\r\na\r\n:2\r\n-ERR oops\r\n%1\r\n+k\r\n,1.5\r\n:7\r\n");
+    List<Object> elements = new ArrayList<>();
+    assertEquals(3, Protocol.readMultiBulkReply(is, elements::add));
+    assertArrayEquals(SafeEncoder.encode("a"), (byte[]) elements.get(0));
+    assertEquals(Long.valueOf(2), elements.get(1));
+    assertEquals("ERR oops", ((JedisDataException) elements.get(2)).getMessage());
+
+    elements.clear();
+    assertEquals(2, Protocol.readMultiBulkReply(is, elements::add));
+    assertArrayEquals(SafeEncoder.encode("k"), (byte[]) elements.get(0));
+    assertEquals(Double.valueOf(1.5), elements.get(1));
+    assertEquals(Long.valueOf(7), Protocol.read(is));
+  }
+
+  @Test
+  public void multiBulkReplyConsumerFailure() {
+    RedisInputStream is = resp("*2\r\n$1\r\na\r\n$1\r\nb\r\n:7\r\n");
+    try {
+      Protocol.readMultiBulkReply(is, element -> {
+        throw new IllegalStateException("stop");
+      });
+      fail("Expected the consumer failure to be rethrown.");
+    } catch (IllegalStateException e) {
+      assertEquals("stop", e.getMessage());
+    }
+    // the stream is still in sync
+    assertEquals(Long.valueOf(7), Protocol.read(is));
+  }
 }
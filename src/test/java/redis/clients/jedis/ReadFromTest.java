@@ -0,0 +1,67 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ReadFromTest {
+
+  private final HostAndPort master = new HostAndPort("master.zone-a", 7000);
+  private final HostAndPort replicaA = new HostAndPort("replica.zone-a", 7001);
+  private final HostAndPort replicaB = new HostAndPort("replica.zone-b", 7002);
+  private final List<HostAndPort> replicas = Arrays.asList(replicaA, replicaB);
+
+  @Test
+  public void masterAndReplicaPreferred() {
+    assertEquals(master, ReadFrom.MASTER.select(master, replicas));
+    assertTrue(replicas.contains(ReadFrom.REPLICA_PREFERRED.select(master, replicas)));
+    assertEquals(master, ReadFrom.REPLICA_PREFERRED.select(master, Collections.emptyList()));
+  }
+
+  @Test
+  public void roundRobin() {
+    ReadFrom readFrom = ReadFrom.roundRobin();
+    Set<HostAndPort> selected = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      selected.add(readFrom.select(master, replicas));
+    }
+    assertEquals(new HashSet<>(Arrays.asList(master, replicaA, replicaB)), selected);
+  }
+
+  @Test
+  public void lowestLatency() {
+    ReadFrom readFrom = ReadFrom.lowestLatency(0.5, 60000);
+    readFrom.recordLatency(master, TimeUnit.MILLISECONDS.toNanos(3));
+    readFrom.recordLatency(replicaA, TimeUnit.MILLISECONDS.toNanos(1));
+    // not measured yet
+    assertEquals(replicaB, readFrom.select(master, replicas));
+
+    readFrom.recordLatency(replicaB, TimeUnit.MILLISECONDS.toNanos(2));
+    assertEquals(replicaA, readFrom.select(master, replicas));
+
+    // moving average of replicaA: (1 + 5) / 2 = 3
+    readFrom.recordLatency(replicaA, TimeUnit.MILLISECONDS.toNanos(5));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(3),
+        ((ReadFrom.LowestLatency) readFrom).getLatency(replicaA), 1);
+    assertEquals(replicaB, readFrom.select(master, replicas));
+
+    readFrom.recordFailure(replicaB);
+    assertNotEquals(replicaB, readFrom.select(master, replicas));
+  }
+
+  @Test
+  public void sameZone() {
+    ReadFrom readFrom = ReadFrom.sameZone(node -> node.getHost().split("\\.")[1], "zone-b");
+    assertEquals(replicaB, readFrom.select(master, replicas));
+    assertEquals(master, readFrom.select(master, Collections.singletonList(replicaA)));
+  }
+}
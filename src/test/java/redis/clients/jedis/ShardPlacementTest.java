@@ -0,0 +1,124 @@
+package redis.clients.jedis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import redis.clients.jedis.util.Hashing;
+
+public class ShardPlacementTest {
+
+  private static final int KEYS = 100000;
+
+  private final List<HostAndPort> shards = shards(48);
+
+  private static List<HostAndPort> shards(int count) {
+    List<HostAndPort> shards = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      shards.add(new HostAndPort("shard" + i, 6379));
+    }
+    return shards;
+  }
+
+  private static int[] weights(int count, int weight) {
+    int[] weights = new int[count];
+    Arrays.fill(weights, weight);
+    return weights;
+  }
+
+  private static Map<HostAndPort, Integer> count(ShardPlacement.Locator locator) {
+    Map<HostAndPort, Integer> counts = new HashMap<>();
+    for (int n = 0; n < KEYS; n++) {
+      counts.merge(locator.getShard(Hashing.MURMUR_HASH.hash("foo" + n)), 1, Integer::sum);
+    }
+    return counts;
+  }
+
+  @Test
+  public void ketamaPlacesKeysAsBefore() {
+    TreeMap<Long, HostAndPort> ring = new TreeMap<>();
+    for (int i = 0; i < shards.size(); i++) {
+      for (int n = 0; n < 160; n++) {
+        ring.put(Hashing.MURMUR_HASH.hash("SHARD-" + i + "-NODE-" + n), shards.get(i));
+      }
+    }
+    ShardPlacement.Locator locator = ShardPlacement.KETAMA.place(shards, weights(48, 1),
+        Hashing.MURMUR_HASH);
+    for (int n = 0; n < KEYS; n++) {
+      long hash = Hashing.MURMUR_HASH.hash("foo" + n);
+      SortedMap<Long, HostAndPort> tail = ring.tailMap(hash);
+      assertEquals(tail.isEmpty() ? ring.firstEntry().getValue() : tail.get(tail.firstKey()),
+        locator.getShard(hash));
+    }
+  }
+
+  @Test
+  public void spreadEvenly() {
+    for (ShardPlacement placement : Arrays.asList(ShardPlacement.KETAMA, ShardPlacement.JUMP,
+      ShardPlacement.RENDEZVOUS)) {
+      Map<HostAndPort, Integer> counts = count(placement.place(shards, weights(48, 1),
+        Hashing.MURMUR_HASH));
+      assertEquals(48, counts.size());
+      for (int count : counts.values()) {
+        // ketama is within about 25% of the mean with 160 points per shard
+        assertTrue(placement + ": " + count, Math.abs(count - KEYS / 48) < KEYS / 48 / 3);
+      }
+    }
+  }
+
+  @Test
+  public void followWeights() {
+    int[] weights = weights(4, 1);
+    weights[3] = 3;
+    for (ShardPlacement placement : Arrays.asList(ShardPlacement.KETAMA, ShardPlacement.JUMP,
+      ShardPlacement.RENDEZVOUS)) {
+      Map<HostAndPort, Integer> counts = count(placement.place(shards(4), weights,
+        Hashing.XX_HASH));
+      // 3 of 6
+      int heavy = counts.get(new HostAndPort("shard3", 6379));
+      assertTrue(placement + ": " + heavy, Math.abs(heavy - KEYS / 2) < KEYS / 20);
+    }
+  }
+
+  @Test
+  public void jumpMovesFewKeysWhenAShardIsAdded() {
+    ShardPlacement.Locator before = ShardPlacement.JUMP.place(shards(47), weights(47, 1),
+      Hashing.XX_HASH);
+    ShardPlacement.Locator after = ShardPlacement.JUMP.place(shards, weights(48, 1),
+      Hashing.XX_HASH);
+    int moved = 0;
+    for (int n = 0; n < KEYS; n++) {
+      long hash = Hashing.XX_HASH.hash("foo" + n);
+      HostAndPort shard = after.getShard(hash);
+      if (!shard.equals(before.getShard(hash))) {
+        assertEquals(shards.get(47), shard);
+        moved++;
+      }
+    }
+    assertTrue(String.valueOf(moved), Math.abs(moved - KEYS / 48) < KEYS / 48 / 3);
+  }
+
+  @Test
+  public void rendezvousMovesOnlyTheKeysOfARemovedShard() {
+    List<HostAndPort> fewer = new ArrayList<>(shards);
+    fewer.set(10, new HostAndPort("replaced", 6379));
+    ShardPlacement.Locator before = ShardPlacement.RENDEZVOUS.place(shards, weights(48, 1),
+      Hashing.MD5);
+    ShardPlacement.Locator after = ShardPlacement.RENDEZVOUS.place(fewer, weights(48, 1),
+      Hashing.MD5);
+    for (int n = 0; n < KEYS; n++) {
+      long hash = Hashing.MD5.hash("foo" + n);
+      HostAndPort shard = before.getShard(hash);
+      assertEquals(shard.equals(shards.get(10)) ? fewer.get(10) : shard, after.getShard(hash));
+    }
+  }
+}
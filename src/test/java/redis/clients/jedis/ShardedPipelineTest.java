@@ -1,10 +1,12 @@
 package redis.clients.jedis;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.providers.ShardedConnectionProvider;
 import redis.clients.jedis.util.Hashing;
 
@@ -91,4 +93,26 @@ public class ShardedPipelineTest {
       Assert.assertEquals("value3", r6.get());
     }
   }
+
+  @Test
+  public void syncReadsAllShards() {
+    try (ShardedPipeline pipe = new ShardedPipeline(shards, DEFAULT_CLIENT_CONFIG)) {
+      List<Response<Long>> incrs = new ArrayList<>();
+      for (int i = 0; i < 10_000; i++) {
+        incrs.add(pipe.incr("counter" + (i % 100)));
+      }
+      pipe.set("foo", "bar");
+      Response<Long> error = pipe.incr("foo");
+      pipe.sync();
+
+      for (int i = 0; i < incrs.size(); i++) {
+        Assert.assertEquals(Long.valueOf(i / 100 + 1), incrs.get(i).get());
+      }
+      try {
+        error.get();
+        Assert.fail("INCR on a string should fail");
+      } catch (JedisDataException expected) {
+      }
+    }
+  }
 }
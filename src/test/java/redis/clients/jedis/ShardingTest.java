@@ -1,16 +1,26 @@
 package redis.clients.jedis;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static redis.clients.jedis.Protocol.Command.SET;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.time.Duration;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.junit.Before;
 import org.junit.Test;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.providers.ReshardingConnectionProvider;
+import redis.clients.jedis.providers.ShardedConnectionProvider;
 import redis.clients.jedis.util.Hashing;
+import redis.clients.jedis.util.KeyTagExtractor;
+import redis.clients.jedis.util.SafeEncoder;
 
 public class ShardingTest {
 
@@ -121,6 +131,18 @@ public class ShardingTest {
         ((ShardedCommandArguments) new ShardedCommandArguments(Hashing.MD5, JedisSharding.DEFAULT_KEY_TAG_PATTERN, SET).key("foo{bar}")).getKeyHash());
   }
 
+  @Test
+  public void checkBinaryKeyTags() {
+    assertEquals(((ShardedCommandArguments) new ShardedCommandArguments(Hashing.MURMUR_HASH,
+        KeyTagExtractor.BRACES, SET).key("foo{bar}")).getKeyHash(),
+        ((ShardedCommandArguments) new ShardedCommandArguments(Hashing.MURMUR_HASH,
+            KeyTagExtractor.BRACES, SET).key("bar".getBytes())).getKeyHash());
+    assertEquals(((ShardedCommandArguments) new ShardedCommandArguments(Hashing.MURMUR_HASH,
+        JedisSharding.DEFAULT_KEY_TAG_PATTERN, SET).key("foo{bar}".getBytes())).getKeyHash(),
+        ((ShardedCommandArguments) new ShardedCommandArguments(Hashing.MURMUR_HASH,
+            KeyTagExtractor.BRACES, SET).key("zap{bar}")).getKeyHash());
+  }
+
   @Test
   public void checkCloseable() {
     List<HostAndPort> shards = new ArrayList<>();
@@ -149,4 +171,122 @@ public class ShardingTest {
       assertEquals("general", jedis.get("command"));
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  public void circuitBreakerFailsFast() {
+    HostAndPort down = new HostAndPort("localhost", 6400);
+    List<HostAndPort> shards = new ArrayList<>();
+    shards.add(redis1);
+    shards.add(down);
+    NodeHealthTracker health = new NodeHealthTracker(1, 1.0, 100, Duration.ofSeconds(10),
+        Duration.ofSeconds(10));
+    try (ShardedConnectionProvider provider = new ShardedConnectionProvider(shards, clientConfig,
+        new GenericObjectPoolConfig<Connection>(), Hashing.MURMUR_HASH, health)) {
+      try (Connection connection = provider.getConnection(down)) {
+        fail("Connected to a node which is down.");
+      } catch (JedisConnectionException e) {
+        assertFalse(e.getMessage().contains("circuit breaker"));
+      }
+      assertEquals(NodeHealth.State.OPEN, health.get(down).getState());
+
+      try (Connection connection = provider.getConnection(down)) {
+        fail("The circuit breaker is open.");
+      } catch (JedisConnectionException e) {
+        assertTrue(e.getMessage().contains("circuit breaker"));
+      }
+
+      // a random connection skips the shard which is down
+      for (int i = 0; i < 10; i++) {
+        try (Connection connection = provider.getConnection()) {
+          assertTrue(connection.ping());
+        }
+      }
+      assertEquals(NodeHealth.State.CLOSED, health.get(redis1).getState());
+    }
+  }
+
+  @Test
+  public void keyedTrafficClosesTheCircuit() throws InterruptedException {
+    List<HostAndPort> shards = Arrays.asList(redis1, redis2);
+    NodeHealthTracker health = new NodeHealthTracker(1, 1.0, 100, Duration.ofSeconds(10),
+        Duration.ofMillis(100));
+    ShardedConnectionProvider provider = new ShardedConnectionProvider(shards, clientConfig,
+        new GenericObjectPoolConfig<Connection>(), Hashing.MURMUR_HASH, health);
+    try (JedisSharding jedis = new JedisSharding(provider)) {
+      String key = null;
+      for (int i = 0; key == null; i++) {
+        if (redis2.equals(provider.getNode(Hashing.MURMUR_HASH.hash("foo" + i)))) {
+          key = "foo" + i;
+        }
+      }
+      // the shard was down for a while
+      health.recordFailure(redis2);
+      assertEquals(NodeHealth.State.OPEN, health.get(redis2).getState());
+      Thread.sleep(150);
+
+      // the trial command closes the circuit, and the traffic resumes
+      assertEquals("OK", jedis.set(key, "bar"));
+      assertEquals(NodeHealth.State.CLOSED, health.get(redis2).getState());
+      for (int i = 0; i < 10; i++) {
+        assertEquals("bar", jedis.get(key));
+      }
+    }
+  }
+
+  @Test
+  public void reshardWhileServing() {
+    List<HostAndPort> before = Collections.singletonList(redis1);
+    List<HostAndPort> after = Arrays.asList(redis1, redis2);
+    try (JedisSharding jedis = new JedisSharding(before, clientConfig)) {
+      for (int i = 0; i < 1000; i++) {
+        jedis.set("foo" + i, "bar" + i);
+      }
+    }
+
+    ReshardingConnectionProvider provider = new ReshardingConnectionProvider(
+        new ShardedConnectionProvider(before, clientConfig),
+        new ShardedConnectionProvider(after, clientConfig));
+    try (JedisSharding jedis = new JedisSharding(provider, KeyTagExtractor.NONE);
+        Jedis j2 = new Jedis(redis2, clientConfig)) {
+      List<Integer> moving = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        if (provider.getMovingFrom(Hashing.MURMUR_HASH.hash("foo" + i)) != null) {
+          moving.add(i);
+        }
+      }
+      assertTrue(moving.size() > 100);
+
+      // a key is moved by the first command using it
+      int read = moving.get(0);
+      assertEquals("bar" + read, jedis.get("foo" + read));
+      assertEquals("bar" + read, j2.get("foo" + read));
+      // and remembered, so that the next commands using it do not move it again
+      assertTrue(provider.isMoved(Collections.singletonList(SafeEncoder.encode("foo" + read))));
+      int written = moving.get(1);
+      assertEquals(("bar" + written + "!").length(), (long) jedis.append("foo" + written, "!"));
+      assertEquals("bar" + written + "!", j2.get("foo" + written));
+
+      // a key on its target shard already is newer than the one on its source shard
+      int newer = moving.get(2);
+      j2.set("foo" + newer, "newer");
+
+      ShardMigrator migrator = new ShardMigrator(provider, KeyTagExtractor.NONE, 100, 2, 100000);
+      assertTrue(migrator.migrate() >= moving.size() - 2);
+      assertTrue(provider.isComplete());
+      // a command which looked up the source shard before completion does not reopen it
+      provider.moveKeys(redis1, redis2, Collections.singletonList(SafeEncoder.encode("foo0")));
+      assertFalse(provider.isMoved(Collections.singletonList(SafeEncoder.encode("foo0"))));
+
+      assertEquals(moving.size(), (long) j2.dbSize());
+      assertEquals("newer", jedis.get("foo" + newer));
+      for (int i = 0; i < 1000; i++) {
+        if (i != newer) {
+          assertEquals("bar" + i + (i == written ? "!" : ""), jedis.get("foo" + i));
+        }
+      }
+      try (Jedis j1 = new Jedis(redis1, clientConfig)) {
+        assertEquals(1000 - moving.size(), (long) j1.dbSize());
+      }
+    }
+  }
+}
@@ -3,6 +3,7 @@ package redis.clients.jedis.benchmark;
 import java.util.Calendar;
 
 import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
 
 public class CRC16Benchmark {
 
@@ -11,6 +12,9 @@ public class CRC16Benchmark {
   private static String[] TEST_SET = {"", "123456789", "sfger132515",
     "hae9Napahngaikeethievubaibogiech", "AAAAAAAAAAAAAAAAAAAAAA", "Hello, World!"};
 
+  private static final byte[] LONG_KEY = SafeEncoder.encode(
+    "user:session:hae9Napahngaikeethievubaibogiech:AAAAAAAAAAAAAAAAAAAAAA");
+
   public static void main(String[] args) {
     long begin = Calendar.getInstance().getTimeInMillis();
 
@@ -20,6 +24,27 @@ public class CRC16Benchmark {
 
     long elapsed = Calendar.getInstance().getTimeInMillis() - begin;
 
-    System.out.println(((1000 * TOTAL_OPERATIONS) / elapsed) + " ops");
+    System.out.println("getSlot: " + ((1000 * TOTAL_OPERATIONS) / elapsed) + " ops");
+
+    int crc = 0;
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      crc ^= JedisClusterCRC16.getCRC16Bytewise(LONG_KEY, 0, LONG_KEY.length);
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println("bytewise: " + ((1000 * TOTAL_OPERATIONS) / elapsed) + " ops");
+
+    begin = Calendar.getInstance().getTimeInMillis();
+
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      crc ^= JedisClusterCRC16.getCRC16SliceBy8(LONG_KEY, 0, LONG_KEY.length);
+    }
+
+    elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+
+    System.out.println("slice-by-8: " + ((1000 * TOTAL_OPERATIONS) / elapsed) + " ops (" + crc + ")");
   }
 }
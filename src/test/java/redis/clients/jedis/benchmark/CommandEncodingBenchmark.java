@@ -0,0 +1,62 @@
+package redis.clients.jedis.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.util.RedisOutputStream;
+import redis.clients.jedis.util.SafeEncoder;
+
+/**
+ * Measures the bytes allocated per encoded GET/SET command, with the arguments encoded to
+ * {@code byte[]} before being sent (the former behaviour) and with the arguments encoded in place,
+ * straight into the output buffer.
+ * <p>
+ * Needs a HotSpot JVM for {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ */
+public class CommandEncodingBenchmark {
+
+  private static final int TOTAL_OPERATIONS = 1000000;
+
+  private static final com.sun.management.ThreadMXBean threadBean =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  public static void main(String[] args) throws IOException {
+    RedisOutputStream os = new RedisOutputStream(new OutputStream() {
+      @Override
+      public void write(int b) {
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+      }
+    });
+
+    for (int at = 0; at != 5; ++at) {
+      long before = measure(os, true);
+      long after = measure(os, false);
+      System.out.println("pre-encoded: " + before + " bytes/op, in place: " + after + " bytes/op");
+    }
+  }
+
+  private static long measure(RedisOutputStream os, boolean preEncoded) throws IOException {
+    final long thread = Thread.currentThread().getId();
+    final long begin = threadBean.getThreadAllocatedBytes(thread);
+    for (int n = 0; n < TOTAL_OPERATIONS; n++) {
+      // the same key and value each time, so that the benchmark itself does not allocate
+      if (preEncoded) {
+        Protocol.sendCommand(os, new CommandArguments(Protocol.Command.SET)
+            .add(SafeEncoder.encode("foo:benchmark")).add(SafeEncoder.encode("bar")));
+        Protocol.sendCommand(os, new CommandArguments(Protocol.Command.GET)
+            .add(SafeEncoder.encode("foo:benchmark")));
+      } else {
+        Protocol.sendCommand(os, new CommandArguments(Protocol.Command.SET)
+            .add("foo:benchmark").add("bar"));
+        Protocol.sendCommand(os, new CommandArguments(Protocol.Command.GET).add("foo:benchmark"));
+      }
+    }
+    return (threadBean.getThreadAllocatedBytes(thread) - begin) / (2 * TOTAL_OPERATIONS);
+  }
+}
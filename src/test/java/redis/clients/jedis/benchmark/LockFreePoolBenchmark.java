@@ -0,0 +1,96 @@
+package redis.clients.jedis.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import redis.clients.jedis.Connection;
+import redis.clients.jedis.ConnectionFactory;
+import redis.clients.jedis.ConnectionPool;
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.HostAndPorts;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.LockFreeConnectionPool;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.providers.LockFreeConnectionProvider;
+import redis.clients.jedis.providers.PooledConnectionProvider;
+
+/**
+ * The workload of {@link PoolBenchmark}, 50 threads doing a SET and a GET each, on a
+ * {@link ConnectionPool} and on a {@link LockFreeConnectionPool}; then borrowing and returning
+ * connections without commands, to compare the pools alone.
+ */
+public class LockFreePoolBenchmark {
+
+  private static HostAndPort hnp = HostAndPorts.getRedisServers().get(0);
+  private static final int TOTAL_OPERATIONS = 100000;
+  private static final int TOTAL_BORROWS = 10000000;
+  private static final int THREADS = 50;
+
+  public static void main(String[] args) throws Exception {
+    JedisClientConfig config = DefaultJedisClientConfig.builder().password("foobared").build();
+    ConnectionPoolConfig poolConfig = new ConnectionPoolConfig();
+
+    try (Jedis jedis = new Jedis(hnp, config)) {
+      jedis.flushAll();
+    }
+
+    for (int round = 0; round < 3; round++) {
+      try (UnifiedJedis jedis = new UnifiedJedis(new PooledConnectionProvider(
+          new ConnectionFactory(hnp, config), poolConfig))) {
+        System.out.println("commons-pool2 commands: " + commands(jedis) + " ops");
+      }
+      try (UnifiedJedis jedis = new UnifiedJedis(new LockFreeConnectionProvider(hnp, config,
+          poolConfig))) {
+        System.out.println("lock-free commands: " + commands(jedis) + " ops");
+      }
+
+      try (ConnectionPool pool = new ConnectionPool(hnp, config, poolConfig)) {
+        System.out.println("commons-pool2 borrows: " + borrows(pool::getResource) + " ops");
+      }
+      try (LockFreeConnectionPool pool = new LockFreeConnectionPool(hnp, config, poolConfig)) {
+        System.out.println("lock-free borrows: " + borrows(pool::getResource) + " ops");
+      }
+    }
+  }
+
+  private static long commands(final UnifiedJedis jedis) throws Exception {
+    final AtomicInteger ind = new AtomicInteger();
+    long elapsed = run(() -> {
+      for (int i = 0; (i = ind.getAndIncrement()) < TOTAL_OPERATIONS;) {
+        final String key = "foo" + i;
+        jedis.set(key, key);
+        jedis.get(key);
+      }
+    });
+    return (1000L * 2 * TOTAL_OPERATIONS) / elapsed;
+  }
+
+  private static long borrows(final Supplier<Connection> pool) throws Exception {
+    final AtomicInteger ind = new AtomicInteger();
+    long elapsed = run(() -> {
+      while (ind.getAndIncrement() < TOTAL_BORROWS) {
+        pool.get().close();
+      }
+    });
+    return (1000L * TOTAL_BORROWS) / elapsed;
+  }
+
+  private static long run(Runnable task) throws Exception {
+    List<Thread> tds = new ArrayList<Thread>();
+    long t = System.currentTimeMillis();
+    for (int i = 0; i < THREADS; i++) {
+      Thread hj = new Thread(task);
+      tds.add(hj);
+      hj.start();
+    }
+    for (Thread hj : tds) {
+      hj.join();
+    }
+    return Math.max(1, System.currentTimeMillis() - t);
+  }
+}
@@ -0,0 +1,78 @@
+package redis.clients.jedis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.ShardPlacement;
+import redis.clients.jedis.util.Hashing;
+
+public class ShardPlacementBenchmark {
+
+  private static final int SHARDS = 48;
+  private static final int TOTAL_OPERATIONS = 10000000;
+
+  // keeps the lookups from being optimized away
+  private static volatile int sink;
+
+  public static void main(String[] args) {
+    List<HostAndPort> shards = new ArrayList<>();
+    for (int i = 0; i < SHARDS; i++) {
+      shards.add(new HostAndPort("shard" + i, 6379));
+    }
+    int[] weights = new int[SHARDS];
+    Arrays.fill(weights, 1);
+
+    long[] hashes = new long[1 << 16];
+    for (int n = 0; n < hashes.length; n++) {
+      hashes[n] = Hashing.MURMUR_HASH.hash("foo" + n);
+    }
+
+    // the ring of previous versions
+    TreeMap<Long, HostAndPort> ring = new TreeMap<>();
+    for (int i = 0; i < SHARDS; i++) {
+      for (int n = 0; n < 160; n++) {
+        ring.put(Hashing.MURMUR_HASH.hash("SHARD-" + i + "-NODE-" + n), shards.get(i));
+      }
+    }
+    run("TreeMap", hash -> {
+      SortedMap<Long, HostAndPort> tail = ring.tailMap(hash);
+      return tail.isEmpty() ? ring.get(ring.firstKey()) : tail.get(tail.firstKey());
+    }, hashes);
+
+    run("KETAMA", ShardPlacement.KETAMA.place(shards, weights, Hashing.MURMUR_HASH), hashes);
+    run("JUMP", ShardPlacement.JUMP.place(shards, weights, Hashing.MURMUR_HASH), hashes);
+    run("RENDEZVOUS", ShardPlacement.RENDEZVOUS.place(shards, weights, Hashing.MURMUR_HASH), hashes);
+  }
+
+  private static void run(String name, ShardPlacement.Locator locator, long[] hashes) {
+    long begin = Calendar.getInstance().getTimeInMillis();
+
+    int ports = 0;
+    for (int n = 0; n <= TOTAL_OPERATIONS; n++) {
+      ports += locator.getShard(hashes[n & (hashes.length - 1)]).getPort();
+    }
+
+    long elapsed = Calendar.getInstance().getTimeInMillis() - begin;
+    sink = ports;
+
+    Map<HostAndPort, Integer> counts = new HashMap<>();
+    for (long hash : hashes) {
+      counts.merge(locator.getShard(hash), 1, Integer::sum);
+    }
+    int max = 0;
+    for (int count : counts.values()) {
+      max = Math.max(max, count);
+    }
+    double skew = max / ((double) hashes.length / SHARDS);
+
+    System.out.println(name + ": " + ((1000L * TOTAL_OPERATIONS) / Math.max(1, elapsed))
+        + " ops, max/mean load " + String.format("%.2f", skew));
+  }
+}
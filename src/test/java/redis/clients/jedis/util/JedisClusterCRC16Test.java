@@ -6,6 +6,7 @@ import static org.junit.Assert.assertNotEquals;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 import org.junit.Test;
 
 public class JedisClusterCRC16Test {
@@ -61,4 +62,32 @@ public class JedisClusterCRC16Test {
       JedisClusterCRC16.getSlot("bar".getBytes()));
   }
 
+  @Test
+  public void sliceBy8MatchesBytewise() {
+    Random random = new Random(42);
+    byte[] bytes = new byte[100];
+    random.nextBytes(bytes);
+    for (int s = 0; s < 10; s++) {
+      for (int e = s; e <= bytes.length; e++) {
+        assertEquals(JedisClusterCRC16.getCRC16Bytewise(bytes, s, e),
+          JedisClusterCRC16.getCRC16SliceBy8(bytes, s, e));
+      }
+    }
+    for (Entry<String, Integer> entry : prepareSolutionSet().entrySet()) {
+      byte[] key = SafeEncoder.encode(entry.getKey());
+      assertEquals(entry.getValue().intValue(),
+        JedisClusterCRC16.getCRC16SliceBy8(key, 0, key.length));
+    }
+  }
+
+  @Test
+  public void stringAndBinarySlotsAreTheSame() {
+    for (String key : new String[] { "", "{", "}", "{}", "a{}b{c}", "{a}", "é{ü}", "{{}}",
+        "foo{bar}{zap}", "hae9Napahngaikeethievubaibogiech{hae9Napahngaikeethievubaibogiech}" }) {
+      assertEquals(key, JedisClusterCRC16.getSlot(SafeEncoder.encode(key)),
+        JedisClusterCRC16.getSlot(key));
+      assertEquals(key, JedisClusterCRC16.getCRC16(JedisClusterHashTag.getHashTag(key)) & 16383,
+        JedisClusterCRC16.getSlot(key));
+    }
+  }
 }
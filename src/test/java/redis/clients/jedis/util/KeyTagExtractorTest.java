@@ -0,0 +1,61 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import redis.clients.jedis.JedisSharding;
+
+public class KeyTagExtractorTest {
+
+  private static String regexTag(Pattern pattern, String key) {
+    Matcher m = pattern.matcher(key);
+    return m.find() ? m.group(1) : key;
+  }
+
+  @Test
+  public void bracesMatchTheDefaultPattern() {
+    assertSame(KeyTagExtractor.BRACES, KeyTagExtractor.from(JedisSharding.DEFAULT_KEY_TAG_PATTERN));
+
+    String[] keys = { "", "bar", "foo{bar}", "foo{bar}{zap}", "foo{}{bar}", "{}", "{}}", "{{}}",
+        "{", "}{a}", "a{\n}{b}", "a{b\n}", "{ }{x}", "{é}", "{\u0085}" };
+    for (String key : keys) {
+      assertArrayEquals(key, SafeEncoder.encode(regexTag(JedisSharding.DEFAULT_KEY_TAG_PATTERN, key)),
+        KeyTagExtractor.BRACES.getTag(SafeEncoder.encode(key)));
+    }
+
+    char[] chars = { '{', '}', 'a', '\n', ' ', 'é' };
+    Random random = new Random(7);
+    for (int n = 0; n < 10000; n++) {
+      StringBuilder key = new StringBuilder();
+      for (int i = random.nextInt(10); i > 0; i--) {
+        key.append(chars[random.nextInt(chars.length)]);
+      }
+      assertArrayEquals(key.toString(),
+        SafeEncoder.encode(regexTag(JedisSharding.DEFAULT_KEY_TAG_PATTERN, key.toString())),
+        KeyTagExtractor.BRACES.getTag(SafeEncoder.encode(key.toString())));
+    }
+  }
+
+  @Test
+  public void delimiters() {
+    KeyTagExtractor extractor = KeyTagExtractor.delimiters('[', ']');
+    assertArrayEquals(SafeEncoder.encode("bar"), extractor.getTag(SafeEncoder.encode("foo[bar]")));
+    byte[] key = SafeEncoder.encode("foo{bar}");
+    assertSame(key, extractor.getTag(key));
+  }
+
+  @Test
+  public void customPattern() {
+    KeyTagExtractor extractor = KeyTagExtractor.from(Pattern.compile("^(\\w+):"));
+    assertArrayEquals(SafeEncoder.encode("user"), extractor.getTag(SafeEncoder.encode("user:1000")));
+    byte[] key = SafeEncoder.encode("1000");
+    assertSame(key, extractor.getTag(key));
+    assertSame(key, KeyTagExtractor.from(null).getTag(key));
+  }
+}
@@ -0,0 +1,52 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import org.junit.Test;
+
+public class RedisInputStreamTest {
+
+  @Test
+  public void parseDouble() {
+    String[] values = { "0", "-0", "1", "-1", "0.5", "1.5", "+2.25", "100", "3.14159265358979",
+        "123456789012345", "0.000001", "1234567890123456789", "0.30000000000000004", "1e10",
+        "-1.5E-3", "inf", "+inf", "-inf" };
+    for (String value : values) {
+      assertParsed(value);
+    }
+    assertEquals(Double.NaN, parse("nan"), 0);
+
+    Random random = new Random();
+    for (int i = 0; i < 10_000; i++) {
+      assertParsed(Double.toString(random.nextDouble() * random.nextInt()));
+      assertParsed(Long.toString(random.nextInt(1_000_000)) + "." + random.nextInt(1_000_000));
+    }
+  }
+
+  @Test
+  public void readAcrossBufferBoundaries() {
+    byte[] input = SafeEncoder.encode("2.5\r\nhello world\r\n:1\r\n");
+    RedisInputStream is = new RedisInputStream(new ByteArrayInputStream(input), 4);
+    assertEquals(2.5, is.readDoubleCrLf(3), 0);
+    assertEquals("hello world", is.readStringCrLf(11));
+    assertEquals(':', is.readByte());
+    assertEquals(1, is.readLongCrLf());
+  }
+
+  private static void assertParsed(String value) {
+    double expected;
+    if (value.endsWith("inf")) {
+      expected = value.startsWith("-") ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    } else {
+      expected = Double.parseDouble(value);
+    }
+    assertEquals(value, Double.doubleToLongBits(expected), Double.doubleToLongBits(parse(value)));
+  }
+
+  private static double parse(String value) {
+    byte[] bytes = SafeEncoder.encode("#" + value + "#");
+    return RedisInputStream.parseDouble(bytes, 1, bytes.length - 2);
+  }
+}
@@ -0,0 +1,22 @@
+package redis.clients.jedis.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class XXHash64Test {
+
+  @Test
+  public void referenceValues() {
+    assertEquals(0xEF46DB3751D8E999L, XXHash64.hash64(SafeEncoder.encode(""), 0));
+    assertEquals(0xD24EC4F1A98C6E5BL, XXHash64.hash64(SafeEncoder.encode("a"), 0));
+    assertEquals(0x44BC2CF5AD770999L, XXHash64.hash64(SafeEncoder.encode("abc"), 0));
+    assertEquals(0xFBCEA83C8A378BF1L, Hashing.XX_HASH.hash("Nobody inspects the spammish repetition"));
+  }
+
+  @Test
+  public void offset() {
+    byte[] data = SafeEncoder.encode("__Nobody inspects the spammish repetition__");
+    assertEquals(0xFBCEA83C8A378BF1L, XXHash64.hash64(data, 2, data.length - 4, 0));
+  }
+}